@@ -0,0 +1,45 @@
+#!/bin/sh
+# Runs the packaged application with an AppCDS archive, so that the JVM maps
+# the Spring, Hibernate, Tomcat, ... classes from the archive instead of
+# loading and verifying them from the jars on every start.
+#
+#   mvn package
+#   ./appcds.sh train [args]   extract target/example-1.1.0.jar into target/appcds and start it once
+#                              (with app.startup.exitAfterStartup=true) to record target/appcds/app.jsa
+#   ./appcds.sh run [args]     start the application with the archive
+#
+# CDS can't read classes from inside the fat jar, so both commands run the extracted
+# jar on a plain classpath, in the same order as BOOT-INF/classpath.idx. The archive
+# only matches the JVM and the jars it was trained with: train again after every build.
+# Pass the same profile and database settings (e.g. --spring.profiles.active=...) to both.
+
+set -e
+
+cd "$(dirname "$0")"
+JAR=target/example-1.1.0.jar
+APP=target/appcds
+ARCHIVE=$APP/app.jsa
+MAIN=edu.ucsb.cs156.example.ExampleApplication
+
+classpath() {
+  printf '%s' "$APP/BOOT-INF/classes"
+  sed -n 's|^- "\(.*\)"$|:'"$APP"'/\1|p' "$APP/BOOT-INF/classpath.idx" | tr -d '\n'
+}
+
+command=$1
+[ $# -gt 0 ] && shift
+case "$command" in
+  train)
+    rm -rf "$APP"
+    mkdir -p "$APP"
+    (cd "$APP" && jar -xf "../../$JAR")
+    java -XX:ArchiveClassesAtExit="$ARCHIVE" -cp "$(classpath)" $MAIN --app.startup.exitAfterStartup=true "$@"
+    ;;
+  run)
+    exec java -XX:SharedArchiveFile="$ARCHIVE" $JAVA_OPTS -cp "$(classpath)" $MAIN "$@"
+    ;;
+  *)
+    echo "usage: $0 train|run [application arguments]" >&2
+    exit 2
+    ;;
+esac
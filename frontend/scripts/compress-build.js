@@ -0,0 +1,39 @@
+// Writes a .gz and a .br next to every compressible file in the build
+// directory, so that the Spring Boot backend can serve pre-compressed
+// assets (see WebConfig.java) instead of compressing them on every request.
+//
+// Usage: node scripts/compress-build.js [buildDir]   (runs as "postbuild")
+
+const fs = require("fs");
+const path = require("path");
+const zlib = require("zlib");
+
+const buildDir = process.argv[2] || "build";
+const compressible = /\.(js|css|html|json|svg|txt|map|ico)$/;
+const minSize = 1024;
+
+function walk(dir) {
+  return fs.readdirSync(dir, { withFileTypes: true }).flatMap((entry) => {
+    const file = path.join(dir, entry.name);
+    return entry.isDirectory() ? walk(file) : [file];
+  });
+}
+
+let count = 0;
+for (const file of walk(buildDir)) {
+  if (!compressible.test(file)) continue;
+  const contents = fs.readFileSync(file);
+  if (contents.length < minSize) continue;
+  fs.writeFileSync(`${file}.gz`, zlib.gzipSync(contents, { level: zlib.constants.Z_BEST_COMPRESSION }));
+  fs.writeFileSync(
+    `${file}.br`,
+    zlib.brotliCompressSync(contents, {
+      params: {
+        [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+        [zlib.constants.BROTLI_PARAM_SIZE_HINT]: contents.length,
+      },
+    })
+  );
+  count++;
+}
+console.log(`compress-build: wrote .gz and .br for ${count} files in ${buildDir}`);
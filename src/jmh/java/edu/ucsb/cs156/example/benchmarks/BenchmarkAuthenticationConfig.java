@@ -0,0 +1,73 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * For load tests only: treats every request as coming from one fixed Google
+ * user with ROLE_USER, so that endpoints behind <code>@PreAuthorize</code> and
+ * <code>/api/currentUser</code> can be driven without an OAuth login.
+ *
+ * The filter is registered after the Spring Security filter chain, so it
+ * replaces the anonymous authentication just before the controller's method
+ * security checks it, and clears it again so nothing is saved in a session.
+ */
+
+@Configuration
+public class BenchmarkAuthenticationConfig {
+
+  static final OAuth2AuthenticationToken AUTHENTICATION = new OAuth2AuthenticationToken(
+      new DefaultOAuth2User(
+          List.of(new SimpleGrantedAuthority("ROLE_USER")),
+          Map.of(
+              "sub", "benchmark-sub",
+              "email", "benchmark@ucsb.edu",
+              "name", "Load Test",
+              "given_name", "Load",
+              "family_name", "Test",
+              "email_verified", true,
+              "locale", "en",
+              "hd", "ucsb.edu",
+              "picture", "https://example.org/picture.png"),
+          "sub"),
+      List.of(new SimpleGrantedAuthority("ROLE_USER")),
+      "google");
+
+  @Bean
+  public FilterRegistrationBean<OncePerRequestFilter> benchmarkAuthenticationFilter() {
+    OncePerRequestFilter filter = new OncePerRequestFilter() {
+      @Override
+      protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+          throws ServletException, IOException {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(AUTHENTICATION);
+        SecurityContextHolder.setContext(context);
+        try {
+          chain.doFilter(request, response);
+        } finally {
+          SecurityContextHolder.setContext(previous);
+        }
+      }
+    };
+    FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+    registration.setOrder(0);
+    return registration;
+  }
+}
@@ -0,0 +1,173 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import edu.ucsb.cs156.example.ExampleApplication;
+
+/**
+ * Starts Spring contexts against a private in-memory H2 database (or a
+ * Testcontainers Postgres) and seeds them with test data, for use from JMH
+ * <code>@Setup</code> methods and the load tests.
+ */
+
+public final class BenchmarkContexts {
+
+  private static final int SEED_BATCH_SIZE = 10_000;
+
+  private BenchmarkContexts() {
+  }
+
+  /** Persistence layer only; see {@link JpaBenchmarkConfig}. */
+  public static ConfigurableApplicationContext jpa(String database) {
+    return new SpringApplicationBuilder(JpaBenchmarkConfig.class)
+        .web(WebApplicationType.NONE)
+        .run(args(database));
+  }
+
+  /** The whole application, including security, on a random port. */
+  public static ConfigurableApplicationContext application(String database, String... extraArgs) {
+    return applicationBuilder(ExampleApplication.class)
+        .run(args(database, withRandomPort(extraArgs)));
+  }
+
+  /**
+   * The whole application on a random port, with every request authenticated
+   * as one user; see {@link BenchmarkAuthenticationConfig}.
+   */
+  public static ConfigurableApplicationContext authenticatedApplication(String database, String... extraArgs) {
+    return applicationBuilder(ExampleApplication.class, BenchmarkAuthenticationConfig.class)
+        .run(args(database, withRandomPort(extraArgs)));
+  }
+
+  /**
+   * Like {@link #authenticatedApplication(String, String...)}, but against a
+   * Postgres started with Testcontainers; the schema is recreated.
+   */
+  public static ConfigurableApplicationContext authenticatedApplication(PostgreSQLContainer<?> postgres, String name,
+      String... extraArgs) {
+    List<String> args = new ArrayList<>(List.of(
+        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+        "--spring.datasource.username=" + postgres.getUsername(),
+        "--spring.datasource.password=" + postgres.getPassword(),
+        "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQL10Dialect"));
+    args.addAll(Arrays.asList(withRandomPort(extraArgs)));
+    return applicationBuilder(ExampleApplication.class, BenchmarkAuthenticationConfig.class)
+        .run(commonArgs(name, args));
+  }
+
+  /**
+   * The test and benchmark classes are on the classpath and under the
+   * application's package, so its component scan would pick up TestConfig and
+   * the benchmark configurations; only the sources given here are used.
+   */
+  private static SpringApplicationBuilder applicationBuilder(Class<?>... sources) {
+    return new SpringApplicationBuilder(sources)
+        .initializers(context -> context.getBeanFactory()
+            .registerSingleton("mainSourcesOnlyFilter", new MainSourcesOnlyFilter()));
+  }
+
+  static class MainSourcesOnlyFilter extends TypeExcludeFilter {
+
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+      String className = metadataReader.getClassMetadata().getClassName();
+      return className.startsWith("edu.ucsb.cs156.example.testconfig.")
+          || className.startsWith("edu.ucsb.cs156.example.benchmarks.");
+    }
+  }
+
+  private static String[] withRandomPort(String... extraArgs) {
+    List<String> args = new ArrayList<>(Arrays.asList(extraArgs));
+    args.add(0, "--server.port=0");
+    return args.toArray(new String[0]);
+  }
+
+  /** Command-line arguments for the application against a private in-memory H2 database. */
+  static String[] args(String database, String... extra) {
+    List<String> args = new ArrayList<>();
+    args.add("--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+    args.addAll(Arrays.asList(extra));
+    return commonArgs(database, args);
+  }
+
+  private static String[] commonArgs(String database, List<String> extra) {
+    List<String> args = new ArrayList<>(Arrays.asList(
+        "--spring.jpa.hibernate.ddl-auto=create",
+        "--app.search.indexDirectory=target/search-index-" + database,
+        "--spring.main.banner-mode=off",
+        "--logging.level.root=WARN",
+        "--logging.level.sql=WARN",
+        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+    args.addAll(extra);
+    return args.toArray(new String[0]);
+  }
+
+  /** Inserts <code>rows</code> help requests in one JDBC batch. */
+  public static void seedHelpRequests(JdbcTemplate jdbcTemplate, int rows) {
+    Timestamp requested = Timestamp.valueOf(LocalDateTime.parse("2022-10-24T12:00:00"));
+    jdbcTemplate.batchUpdate(
+        "INSERT INTO help_request (requester_email, team_id, table_or_breakout_room, request_time, explanation, solved) VALUES (?, ?, ?, ?, ?, ?)",
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement ps, int i) throws SQLException {
+            ps.setString(1, "student" + i + "@ucsb.edu");
+            ps.setString(2, "f22-5pm-" + (i % 8));
+            ps.setString(3, Integer.toString(i % 12));
+            ps.setTimestamp(4, requested);
+            ps.setString(5, "Help request number " + i);
+            ps.setBoolean(6, i % 3 == 0);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return rows;
+          }
+        });
+  }
+
+  /**
+   * Inserts <code>rows</code> menu item reviews with ids 1..rows, spread over
+   * 500 items, using JDBC batches so that seeding a million rows stays quick.
+   */
+  public static void seedMenuItemReviews(JdbcTemplate jdbcTemplate, int rows) {
+    Timestamp reviewed = Timestamp.valueOf(LocalDateTime.parse("2022-10-24T12:00:00"));
+    for (int start = 0; start < rows; start += SEED_BATCH_SIZE) {
+      final int first = start;
+      final int size = Math.min(SEED_BATCH_SIZE, rows - start);
+      jdbcTemplate.batchUpdate(
+          "INSERT INTO menuitemreview (item_id, reviewer_email, stars, date_reviewed, comments) VALUES (?, ?, ?, ?, ?)",
+          new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+              int n = first + i;
+              ps.setLong(1, n % 500);
+              ps.setString(2, "reviewer" + (n % 1000) + "@ucsb.edu");
+              ps.setInt(3, 1 + n % 5);
+              ps.setTimestamp(4, reviewed);
+              ps.setString(5, "Review number " + n);
+            }
+
+            @Override
+            public int getBatchSize() {
+              return size;
+            }
+          });
+    }
+  }
+}
@@ -0,0 +1,153 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Closed-loop load test comparing Tomcat's platform-thread pool with the
+ * virtual-thread mode (<code>app.virtualThreads.enabled</code>) on
+ * <code>/api/HelpRequest/all</code> and <code>/api/currentUser</code>.
+ *
+ * For each mode, endpoint and number of concurrent clients it reports the
+ * throughput reached and the latency percentiles, on stdout and as JSON in
+ * <code>loadtest.resultFile</code>. The virtual-thread runs are skipped on a
+ * JVM older than 21.
+ *
+ * Run with <code>mvn -Pbenchmark test-compile exec:exec@load-test</code>;
+ * see the benchmark profile in pom.xml for the knobs.
+ */
+
+public class ConcurrencyLoadTest {
+
+  static final List<String> PATHS = List.of("/api/HelpRequest/all", "/api/currentUser");
+  static final int HELP_REQUESTS = 100;
+
+  public static void main(String[] args) throws Exception {
+    int[] clientCounts = Arrays.stream(System.getProperty("loadtest.clients", "200,1000,4000").split(","))
+        .mapToInt(count -> Integer.parseInt(count.trim()))
+        .toArray();
+    Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+    Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+    File resultFile = new File(System.getProperty("loadtest.resultFile", "target/loadtest-result.json"));
+
+    List<Boolean> modes = new ArrayList<>(List.of(false));
+    if (Runtime.version().feature() >= 21) {
+      modes.add(true);
+    } else {
+      System.out.printf("Java %s has no virtual threads; only measuring the platform-thread pool%n", Runtime.version());
+    }
+
+    List<Map<String, Object>> results = new ArrayList<>();
+    for (boolean virtualThreads : modes) {
+      String mode = virtualThreads ? "virtual" : "platform";
+      ConfigurableApplicationContext context = BenchmarkContexts.authenticatedApplication("loadtest_" + mode,
+          "--app.virtualThreads.enabled=" + virtualThreads,
+          "--server.tomcat.max-connections=20000",
+          "--server.tomcat.accept-count=1000",
+          "--app.logging.requestSampleRate=0");
+      try {
+        BenchmarkContexts.seedHelpRequests(context.getBean(JdbcTemplate.class), HELP_REQUESTS);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        for (String path : PATHS) {
+          URI uri = URI.create("http://localhost:" + port + path);
+          for (int clients : clientCounts) {
+            run(uri, clients, warmup);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("mode", mode);
+            result.put("path", path);
+            result.put("clients", clients);
+            result.putAll(run(uri, clients, duration));
+            System.out.println(result);
+            results.add(result);
+          }
+        }
+      } finally {
+        context.close();
+      }
+    }
+
+    resultFile.getParentFile().mkdirs();
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, results);
+    System.out.println("Results written to " + resultFile);
+  }
+
+  static Map<String, Object> run(URI uri, int clients, Duration duration) throws InterruptedException {
+    HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    HttpRequest request = HttpRequest.newBuilder(uri)
+        .header("Accept", "application/json")
+        .timeout(Duration.ofSeconds(30))
+        .build();
+
+    ConcurrentHistogram latencies = new ConcurrentHistogram(3);
+    LongAdder errors = new LongAdder();
+    CountDownLatch done = new CountDownLatch(clients);
+    ExecutorService pool = Executors.newFixedThreadPool(clients);
+
+    long start = System.nanoTime();
+    long deadline = start + duration.toNanos();
+    for (int i = 0; i < clients; i++) {
+      pool.execute(() -> {
+        try {
+          while (System.nanoTime() < deadline) {
+            long sent = System.nanoTime();
+            try {
+              HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+              if (response.statusCode() == 200) {
+                latencies.recordValue(System.nanoTime() - sent);
+              } else {
+                errors.increment();
+              }
+            } catch (IOException e) {
+              errors.increment();
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    done.await();
+    double seconds = (System.nanoTime() - start) / 1e9;
+    pool.shutdown();
+    pool.awaitTermination(10, TimeUnit.SECONDS);
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("requests", latencies.getTotalCount());
+    result.put("errors", errors.sum());
+    result.put("requestsPerSecond", latencies.getTotalCount() / seconds);
+    result.put("p50Ms", latencies.getValueAtPercentile(50) / 1e6);
+    result.put("p95Ms", latencies.getValueAtPercentile(95) / 1e6);
+    result.put("p99Ms", latencies.getValueAtPercentile(99) / 1e6);
+    result.put("p999Ms", latencies.getValueAtPercentile(99.9) / 1e6);
+    result.put("maxMs", latencies.getMaxValue() / 1e6);
+    return result;
+  }
+}
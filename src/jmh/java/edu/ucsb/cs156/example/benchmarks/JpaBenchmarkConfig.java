@@ -0,0 +1,33 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import edu.ucsb.cs156.example.config.JpaConfig;
+
+/**
+ * Just the persistence layer (DataSource, Hibernate, the repositories), without
+ * the web, security and OAuth configuration, for the repository benchmarks.
+ * The repositories are declared by JpaConfig, which leaves out the reactive
+ * ones.
+ */
+
+@SpringBootConfiguration
+@ImportAutoConfiguration({
+    DataSourceAutoConfiguration.class,
+    DataSourceTransactionManagerAutoConfiguration.class,
+    HibernateJpaAutoConfiguration.class,
+    JdbcTemplateAutoConfiguration.class,
+    TransactionAutoConfiguration.class
+})
+@EntityScan("edu.ucsb.cs156.example.entities")
+@Import(JpaConfig.class)
+public class JpaBenchmarkConfig {
+}
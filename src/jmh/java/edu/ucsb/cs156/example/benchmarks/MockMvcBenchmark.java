@@ -0,0 +1,96 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.UserRequestPostProcessor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+/**
+ * The full request path for the menu item review endpoints: security filter
+ * chain, method security, controller, repository and JSON serialization,
+ * against the whole application context with 1k seeded reviews.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MockMvcBenchmark {
+
+  static final int ROWS = 1000;
+
+  ConfigurableApplicationContext context;
+  MockMvc mockMvc;
+  UserRequestPostProcessor user = user("cgaucho@ucsb.edu").roles("USER");
+  UserRequestPostProcessor admin = user("admin@ucsb.edu").roles("USER", "ADMIN");
+
+  @Setup
+  public void setup() {
+    context = BenchmarkContexts.application("mockmvc");
+    BenchmarkContexts.seedMenuItemReviews(context.getBean(JdbcTemplate.class), ROWS);
+    mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+        .apply(springSecurity())
+        .build();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public byte[] getAll() throws Exception {
+    return mockMvc.perform(get("/api/menuitemreview/all").with(user))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+
+  @Benchmark
+  public byte[] getPage() throws Exception {
+    return mockMvc.perform(get("/api/menuitemreview/all?limit=100").with(user))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+
+  @Benchmark
+  public byte[] getById() throws Exception {
+    long id = ThreadLocalRandom.current().nextLong(1, ROWS + 1);
+    return mockMvc.perform(get("/api/menuitemreview").param("id", Long.toString(id)).with(user))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+
+  @Benchmark
+  public byte[] postReview() throws Exception {
+    return mockMvc.perform(post("/api/menuitemreview/post")
+        .param("itemId", "27")
+        .param("reviewerEmail", "cgaucho@ucsb.edu")
+        .param("stars", "4")
+        .param("dateReviewed", "2022-10-24T12:00:00")
+        .param("comments", "benchmark")
+        .with(csrf())
+        .with(admin))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+}
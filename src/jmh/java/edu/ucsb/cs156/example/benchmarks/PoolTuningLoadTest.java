@@ -0,0 +1,126 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.io.File;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zaxxer.hikari.HikariDataSource;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+/**
+ * Compares the perf profile (<code>application-perf.properties</code>: pool
+ * sized from the core count, server-side prepared statements, fetch size,
+ * rewritten batch inserts, Hibernate batching) with the driver and pool
+ * defaults, against a Postgres started in Docker with Testcontainers.
+ *
+ * For each configuration it times a bulk insert of menu item reviews through
+ * <code>MenuItemReviewRepository.insertAll</code>, then drives
+ * <code>/api/HelpRequest?id=</code>, <code>/api/HelpRequest/open</code> and
+ * <code>/api/HelpRequest/all</code> with closed-loop clients as in
+ * {@link ConcurrencyLoadTest}. Results go to stdout and, as JSON, to
+ * <code>loadtest.resultFile</code>.
+ *
+ * Run with <code>mvn -Pbenchmark test-compile exec:exec@pool-load-test</code>
+ * (needs Docker); <code>-Dloadtest.postgresImage</code> picks the Postgres
+ * version.
+ */
+
+public class PoolTuningLoadTest {
+
+  static final List<String> PATHS = List.of("/api/HelpRequest?id=1", "/api/HelpRequest/open", "/api/HelpRequest/all");
+  static final int HELP_REQUESTS = 1000;
+  static final int BULK_REVIEWS = 100_000;
+  static final int BULK_CHUNK_SIZE = 500;
+
+  public static void main(String[] args) throws Exception {
+    int[] clientCounts = Arrays.stream(System.getProperty("loadtest.clients", "16,64,256").split(","))
+        .mapToInt(count -> Integer.parseInt(count.trim()))
+        .toArray();
+    Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 10));
+    Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+    File resultFile = new File(System.getProperty("loadtest.resultFile", "target/pool-loadtest-result.json"));
+    DockerImageName image = DockerImageName.parse(System.getProperty("loadtest.postgresImage", "postgres:14-alpine"));
+
+    List<Map<String, Object>> results = new ArrayList<>();
+    try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(image)) {
+      postgres.start();
+      for (String profile : List.of("defaults", "perf")) {
+        String profiles = profile.equals("perf") ? "development,perf" : "development";
+        ConfigurableApplicationContext context = BenchmarkContexts.authenticatedApplication(postgres, "pool_" + profile,
+            "--spring.profiles.active=" + profiles,
+            "--app.logging.requestSampleRate=0");
+        try {
+          int poolSize = context.getBean(HikariDataSource.class).getMaximumPoolSize();
+
+          Map<String, Object> bulk = new LinkedHashMap<>();
+          bulk.put("profile", profile);
+          bulk.put("poolSize", poolSize);
+          bulk.put("operation", "bulk insert");
+          bulk.put("rows", BULK_REVIEWS);
+          bulk.put("rowsPerSecond", bulkInsert(context.getBean(MenuItemReviewRepository.class)));
+          System.out.println(bulk);
+          results.add(bulk);
+
+          BenchmarkContexts.seedHelpRequests(context.getBean(JdbcTemplate.class), HELP_REQUESTS);
+          int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+          for (String path : PATHS) {
+            URI uri = URI.create("http://localhost:" + port + path);
+            for (int clients : clientCounts) {
+              ConcurrencyLoadTest.run(uri, clients, warmup);
+              Map<String, Object> result = new LinkedHashMap<>();
+              result.put("profile", profile);
+              result.put("poolSize", poolSize);
+              result.put("path", path);
+              result.put("clients", clients);
+              result.putAll(ConcurrencyLoadTest.run(uri, clients, duration));
+              System.out.println(result);
+              results.add(result);
+            }
+          }
+        } finally {
+          context.close();
+        }
+      }
+    }
+
+    resultFile.getParentFile().mkdirs();
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, results);
+    System.out.println("Results written to " + resultFile);
+  }
+
+  /** Inserts {@link #BULK_REVIEWS} reviews in chunks, as the bulk endpoint does, and returns rows per second. */
+  static double bulkInsert(MenuItemReviewRepository repository) {
+    LocalDateTime reviewed = LocalDateTime.parse("2022-10-24T12:00:00");
+    long start = System.nanoTime();
+    for (int first = 0; first < BULK_REVIEWS; first += BULK_CHUNK_SIZE) {
+      List<MenuItemReview> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+      for (int n = first; n < first + BULK_CHUNK_SIZE; n++) {
+        chunk.add(MenuItemReview.builder()
+            .itemId(n % 500)
+            .reviewerEmail("reviewer" + (n % 1000) + "@ucsb.edu")
+            .stars(1 + n % 5)
+            .dateReviewed(reviewed)
+            .comments("Review number " + n)
+            .build());
+      }
+      repository.insertAll(chunk);
+    }
+    return BULK_REVIEWS / ((System.nanoTime() - start) / 1e9);
+  }
+}
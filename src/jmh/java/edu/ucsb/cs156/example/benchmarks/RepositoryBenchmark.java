@@ -0,0 +1,66 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+/**
+ * <code>findAll</code> and <code>findById</code> through the Spring Data
+ * repository, against an embedded H2 database seeded with 1k, 100k and 1M rows.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class RepositoryBenchmark {
+
+  @Param({ "1000", "100000", "1000000" })
+  int rows;
+
+  ConfigurableApplicationContext context;
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Setup
+  public void setup() {
+    context = BenchmarkContexts.jpa("repository_" + rows);
+    BenchmarkContexts.seedMenuItemReviews(context.getBean(JdbcTemplate.class), rows);
+    menuItemReviewRepository = context.getBean(MenuItemReviewRepository.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public Iterable<MenuItemReview> findAll() {
+    return menuItemReviewRepository.findAll();
+  }
+
+  @Benchmark
+  public Optional<MenuItemReview> findById() {
+    return menuItemReviewRepository.findById(ThreadLocalRandom.current().nextLong(1, rows + 1));
+  }
+}
@@ -0,0 +1,182 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+
+/**
+ * JSON serialization cost of each entity, using an ObjectMapper configured the
+ * same way Spring Boot configures the one the controllers use.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+  ObjectMapper mapper;
+
+  Article article;
+  HelpRequest helpRequest;
+  MenuItemReview menuItemReview;
+  Recommendation recommendation;
+  UCSBDate ucsbDate;
+  UCSBDiningCommons diningCommons;
+  UCSBDiningCommonsMenuItem menuItem;
+  UCSBOrganization organization;
+  List<MenuItemReview> reviewPage;
+
+  @Setup
+  public void setup() {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+    LocalDateTime now = LocalDateTime.parse("2022-10-24T12:00:00");
+
+    article = Article.builder()
+        .id(1L)
+        .title("Using JMH")
+        .url("https://openjdk.org/projects/code-tools/jmh/")
+        .explanation("Microbenchmark harness")
+        .email("cgaucho@ucsb.edu")
+        .dateAdded(now)
+        .build();
+    helpRequest = HelpRequest.builder()
+        .id(1L)
+        .requesterEmail("cgaucho@ucsb.edu")
+        .teamId("f22-5pm-4")
+        .tableOrBreakoutRoom("7")
+        .requestTime(now)
+        .explanation("Need help with Swagger-ui")
+        .solved(false)
+        .build();
+    menuItemReview = MenuItemReview.builder()
+        .id(1L)
+        .itemId(27L)
+        .reviewerEmail("cgaucho@ucsb.edu")
+        .stars(4)
+        .dateReviewed(now)
+        .comments("Pretty good, could use more salt")
+        .build();
+    recommendation = Recommendation.builder()
+        .id(1L)
+        .requesterEmail("cgaucho@ucsb.edu")
+        .professorEmail("phtcon@ucsb.edu")
+        .explanation("BS/MS program")
+        .dateRequested(now)
+        .dateNeeded(now.plusMonths(1))
+        .done(false)
+        .build();
+    ucsbDate = UCSBDate.builder()
+        .id(1L)
+        .quarterYYYYQ("20224")
+        .name("Halloween")
+        .localDateTime(now)
+        .build();
+    diningCommons = UCSBDiningCommons.builder()
+        .code("ortega")
+        .name("Ortega")
+        .hasSackMeal(true)
+        .hasTakeOutMeal(true)
+        .hasDiningCam(true)
+        .latitude(34.410987)
+        .longitude(-119.84709)
+        .build();
+    menuItem = UCSBDiningCommonsMenuItem.builder()
+        .id(1L)
+        .diningCommonsCode("ortega")
+        .name("Baked Pesto Pasta with Chicken")
+        .station("Entree Specials")
+        .build();
+    organization = UCSBOrganization.builder()
+        .orgCode("ZPR")
+        .orgTranslationShort("ZETA PHI RHO")
+        .orgTranslation("ZETA PHI RHO")
+        .inactive(false)
+        .build();
+
+    reviewPage = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      reviewPage.add(MenuItemReview.builder()
+          .id(i)
+          .itemId(i % 50)
+          .reviewerEmail("cgaucho@ucsb.edu")
+          .stars(1 + i % 5)
+          .dateReviewed(now)
+          .comments("Review number " + i)
+          .build());
+    }
+  }
+
+  @Benchmark
+  public byte[] article() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(article);
+  }
+
+  @Benchmark
+  public byte[] helpRequest() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(helpRequest);
+  }
+
+  @Benchmark
+  public byte[] menuItemReview() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(menuItemReview);
+  }
+
+  @Benchmark
+  public byte[] recommendation() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(recommendation);
+  }
+
+  @Benchmark
+  public byte[] ucsbDate() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(ucsbDate);
+  }
+
+  @Benchmark
+  public byte[] ucsbDiningCommons() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(diningCommons);
+  }
+
+  @Benchmark
+  public byte[] ucsbDiningCommonsMenuItem() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(menuItem);
+  }
+
+  @Benchmark
+  public byte[] ucsbOrganization() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(organization);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  public byte[] menuItemReviewList1000() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(reviewPage);
+  }
+}
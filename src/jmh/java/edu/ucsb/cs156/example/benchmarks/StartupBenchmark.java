@@ -0,0 +1,207 @@
+package edu.ucsb.cs156.example.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import edu.ucsb.cs156.example.ExampleApplication;
+
+/**
+ * Measures how long a freshly started JVM takes to serve its first request,
+ * with the default settings, with the faststart profile
+ * (<code>application-faststart.properties</code>) and with the faststart
+ * profile plus an AppCDS archive, and how much memory the process then uses.
+ * With <code>-Dstartup.nativeImage=target/example</code> (built by
+ * <code>mvn -Pnative,localhost package</code>) the native binary is measured
+ * too.
+ *
+ * Each run starts the application in a new JVM on the benchmark classpath
+ * (against a private H2 database, every request authenticated as in
+ * {@link BenchmarkAuthenticationConfig}) and records the time from launching
+ * the process until <code>/actuator/health</code> first answers, and until
+ * the first <code>/api/HelpRequest/all</code> has been answered. The second
+ * number includes the beans that the faststart profile only creates on first
+ * use; the native binary doesn't contain BenchmarkAuthenticationConfig, so
+ * for it only the first is measured. The resident set size (Linux only) is
+ * read from <code>/proc</code> once the process has answered. The AppCDS
+ * archive is recorded by a training run with
+ * <code>app.startup.exitAfterStartup=true</code>, as <code>appcds.sh</code>
+ * does. Medians go to stdout and, as JSON, to <code>startup.resultFile</code>;
+ * the application output of each run goes to
+ * <code>target/startup-benchmark-*.log</code>.
+ *
+ * Run with <code>mvn -Pbenchmark test-compile exec:exec@startup-benchmark</code>.
+ */
+
+public class StartupBenchmark {
+
+  static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+  public static void main(String[] args) throws Exception {
+    int runs = Integer.getInteger("startup.runs", 5);
+    File resultFile = new File(System.getProperty("startup.resultFile", "target/startup-result.json"));
+    File archive = new File("target/startup-benchmark.jsa");
+
+    train(archive);
+
+    List<Map<String, Object>> results = new ArrayList<>();
+    results.add(measure("default", runs, port -> start("default", List.of(), "development", port), true));
+    results.add(measure("faststart", runs, port -> start("faststart", List.of(), "development,faststart", port), true));
+    results.add(measure("faststart+appcds", runs,
+        port -> start("faststart+appcds", List.of("-XX:SharedArchiveFile=" + archive), "development,faststart", port), true));
+    String nativeImage = System.getProperty("startup.nativeImage", "");
+    if (!nativeImage.isBlank()) {
+      results.add(measure("native", runs, port -> startNative(nativeImage, port), false));
+    }
+
+    resultFile.getParentFile().mkdirs();
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(resultFile, results);
+    System.out.println("Results written to " + resultFile);
+  }
+
+  static void train(File archive) throws IOException, InterruptedException {
+    archive.delete();
+    Process process = start("train", List.of("-XX:ArchiveClassesAtExit=" + archive), "development,faststart",
+        freePort(), "--app.startup.exitAfterStartup=true");
+    if (!process.waitFor(TIMEOUT.toSeconds(), TimeUnit.SECONDS) || !archive.exists()) {
+      process.destroyForcibly();
+      throw new IllegalStateException("AppCDS training run failed; see target/startup-benchmark-train.log");
+    }
+  }
+
+  interface Launcher {
+    Process start(int port) throws IOException;
+  }
+
+  static Map<String, Object> measure(String name, int runs, Launcher launcher, boolean authenticated)
+      throws IOException, InterruptedException {
+    long[] healthyMs = new long[runs];
+    long[] firstRequestMs = new long[runs];
+    long[] rssMb = new long[runs];
+    for (int run = 0; run < runs; run++) {
+      int port = freePort();
+      long start = System.nanoTime();
+      Process process = launcher.start(port);
+      try {
+        awaitOk(process, URI.create("http://localhost:" + port + "/actuator/health"));
+        healthyMs[run] = (System.nanoTime() - start) / 1_000_000;
+        if (authenticated) {
+          awaitOk(process, URI.create("http://localhost:" + port + "/api/HelpRequest/all"));
+          firstRequestMs[run] = (System.nanoTime() - start) / 1_000_000;
+        }
+        rssMb[run] = residentSetMb(process.pid());
+      } finally {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+          process.destroyForcibly();
+        }
+      }
+    }
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("configuration", name);
+    result.put("runs", runs);
+    result.put("healthyMs", median(healthyMs));
+    result.put("firstRequestMs", authenticated ? median(firstRequestMs) : null);
+    result.put("rssMb", median(rssMb));
+    System.out.println(result);
+    return result;
+  }
+
+  static Process start(String name, List<String> jvmArgs, String profiles, int port, String... extraArgs)
+      throws IOException {
+    List<String> command = new ArrayList<>();
+    command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+    command.addAll(jvmArgs);
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(ExampleApplication.class.getName());
+    command.addAll(Arrays.asList(BenchmarkContexts.args("startup",
+        "--spring.profiles.active=" + profiles,
+        "--spring.main.sources=" + BenchmarkAuthenticationConfig.class.getName(),
+        "--server.port=" + port,
+        "--app.search.reindexIfEmpty=false",
+        "--app.logging.requestSampleRate=0")));
+    command.addAll(Arrays.asList(extraArgs));
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(new File("target/startup-benchmark-" + name + ".log"))
+        .start();
+  }
+
+  static Process startNative(String binary, int port) throws IOException {
+    List<String> command = new ArrayList<>();
+    command.add(binary);
+    command.addAll(Arrays.asList(BenchmarkContexts.args("startup",
+        "--spring.profiles.active=development",
+        "--server.port=" + port,
+        "--app.search.reindexIfEmpty=false",
+        "--app.logging.requestSampleRate=0")));
+    return new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(new File("target/startup-benchmark-native.log"))
+        .start();
+  }
+
+  /** VmRSS from /proc/[pid]/status, or -1 where there is no /proc */
+  static long residentSetMb(long pid) throws IOException {
+    Path status = Path.of("/proc", Long.toString(pid), "status");
+    if (!Files.exists(status)) {
+      return -1;
+    }
+    for (String line : Files.readAllLines(status)) {
+      if (line.startsWith("VmRSS:")) {
+        return Long.parseLong(line.replaceAll("[^0-9]", "")) / 1024;
+      }
+    }
+    return -1;
+  }
+
+  static void awaitOk(Process process, URI uri) throws InterruptedException {
+    HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    HttpRequest request = HttpRequest.newBuilder(uri).timeout(TIMEOUT).build();
+    long deadline = System.nanoTime() + TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("the application exited with " + process.exitValue() + " before " + uri + " answered");
+      }
+      try {
+        if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // not listening yet
+      }
+      Thread.sleep(10);
+    }
+    throw new IllegalStateException(uri + " did not answer within " + TIMEOUT);
+  }
+
+  static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  static long median(long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    return sorted[sorted.length / 2];
+  }
+}
@@ -2,12 +2,18 @@ package edu.ucsb.cs156.example;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class ExampleApplication {
 
+  /** Startup steps kept for <code>/actuator/startup</code>; later steps are dropped. */
+  static final int STARTUP_STEPS = 4096;
+
   public static void main(String[] args) {
-    SpringApplication.run(ExampleApplication.class, args);
+    SpringApplication application = new SpringApplication(ExampleApplication.class);
+    application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+    application.run(args);
   }
 
 }
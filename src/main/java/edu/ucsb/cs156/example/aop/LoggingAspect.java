@@ -1,19 +1,21 @@
 package edu.ucsb.cs156.example.aop;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import javax.servlet.http.HttpServletRequest;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Aspect
@@ -29,21 +31,35 @@ public class LoggingAspect {
       @annotation(org.springframework.web.bind.annotation.PatchMapping)
       """;
 
-  private ArrayList<String> stoplist = new ArrayList<String>(Arrays.asList(
-      "edu.ucsb.cs156.example.controllers.FrontendProxyController"));
+  private static final Set<String> stoplist = Set.of(
+      "edu.ucsb.cs156.example.controllers.FrontendProxyController");
+
+  /** fraction of requests to log, from 0.0 (none) to 1.0 (all) */
+  @Value("${app.logging.requestSampleRate:1.0}")
+  private double requestSampleRate;
 
   @Before(pointcut)
   public void logControllers(JoinPoint joinPoint) {
+    if (!log.isInfoEnabled() || !sampled()) {
+      return;
+    }
     getCurrentHttpRequest().ifPresent(
         request -> {
           String declaringTypeName = joinPoint.getSignature().getDeclaringTypeName();
           if (!stoplist.contains(declaringTypeName)) {
-            log.info("===== %s %s handled by %s in %s".formatted(request.getMethod(), request.getRequestURI(),
-                joinPoint.getSignature().getName(), declaringTypeName));
+            log.info("===== {} {} handled by {} in {}",
+                kv("method", request.getMethod()),
+                kv("uri", request.getRequestURI()),
+                kv("handler", joinPoint.getSignature().getName()),
+                kv("controller", declaringTypeName));
           }
         });
   }
 
+  private boolean sampled() {
+    return requestSampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < requestSampleRate;
+  }
+
   private static Optional<HttpServletRequest> getCurrentHttpRequest() {
     return Optional.ofNullable(RequestContextHolder.getRequestAttributes())
         .filter(ServletRequestAttributes.class::isInstance)
@@ -0,0 +1,49 @@
+package edu.ucsb.cs156.example.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.swagger.annotations.ApiOperation;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every controller method that has an <code>@ApiOperation</code>, as the
+ * <code>api.operation</code> timer tagged with the operation's description, so
+ * that dashboards show e.g. "List all menu item reviews" rather than a URI
+ * template. Failed calls are tagged with the exception's class name and
+ * <code>outcome=ERROR</code>. Percentiles are set with
+ * <code>management.metrics.distribution.*</code> in application.properties.
+ */
+
+@Aspect
+@Component
+public class MetricsAspect {
+  public static final String TIMER_NAME = "api.operation";
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Around("@annotation(apiOperation) && within(edu.ucsb.cs156.example.controllers..*)")
+  public Object timeApiOperation(ProceedingJoinPoint joinPoint, ApiOperation apiOperation) throws Throwable {
+    Timer.Sample sample = Timer.start(meterRegistry);
+    String exception = "none";
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable t) {
+      exception = t.getClass().getSimpleName();
+      throw t;
+    } finally {
+      sample.stop(Timer.builder(TIMER_NAME)
+          .description("Time spent in controller methods, by @ApiOperation")
+          .tag("operation", apiOperation.value())
+          .tag("controller", joinPoint.getSignature().getDeclaringType().getSimpleName())
+          .tag("method", joinPoint.getSignature().getName())
+          .tag("exception", exception)
+          .tag("outcome", "none".equals(exception) ? "SUCCESS" : "ERROR")
+          .register(meterRegistry));
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package edu.ucsb.cs156.example.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Lets a single request run asynchronously for longer than the default async
+ * timeout, without raising it for every endpoint.
+ *
+ * A handler that returns a <code>StreamingResponseBody</code> (or a
+ * <code>Callable</code>) calls {@link #setTimeout} while it runs; the timeout
+ * is applied just before Spring MVC starts the async processing. Registered
+ * in {@link WebConfig}.
+ */
+
+public class AsyncTimeoutInterceptor implements CallableProcessingInterceptor {
+
+  static final String TIMEOUT_ATTRIBUTE = AsyncTimeoutInterceptor.class.getName() + ".timeout";
+
+  /**
+   * Sets the async timeout of the current request; does nothing outside a
+   * request.
+   */
+  public static void setTimeout(Duration timeout) {
+    RequestAttributes request = RequestContextHolder.getRequestAttributes();
+    if (request != null) {
+      request.setAttribute(TIMEOUT_ATTRIBUTE, timeout.toMillis(), RequestAttributes.SCOPE_REQUEST);
+    }
+  }
+
+  @Override
+  public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+    Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (timeout instanceof Long && request instanceof AsyncWebRequest) {
+      ((AsyncWebRequest) request).setTimeout((Long) timeout);
+    }
+  }
+}
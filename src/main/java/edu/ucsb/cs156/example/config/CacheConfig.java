@@ -0,0 +1,16 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Spring's cache abstraction. The cache provider, the cache names and
+ * the size/TTL eviction policy are set with the <code>spring.cache.*</code>
+ * properties in <code>application.properties</code>; the repositories declare
+ * what is cached and what evicts it.
+ */
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,182 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Conditional GETs for the handlers listed with {@link ETagVersioned}.
+ *
+ * Each table has an in-memory version counter. A listed GET gets the weak
+ * ETag <code>W/"&lt;boot id&gt;-&lt;handler and caller&gt;-&lt;versions of
+ * its tables&gt;"</code>, and if the request's <code>If-None-Match</code>
+ * matches, the interceptor answers 304 without calling the controller (and so
+ * without touching the database, or method security). So it only does this
+ * for callers with ROLE_USER, which is all that the listed reads require;
+ * everyone else goes through to method security. The handler method and the
+ * caller's authorities are part of the tag, so a tag from one endpoint or
+ * role doesn't match another. Server-sent event streams are never
+ * handled, even if listed.
+ *
+ * Writes bump the counters both before the handler runs and after it
+ * completes. The second bump makes sure a GET that raced with the write,
+ * and read the old rows, can't keep its ETag afterwards.
+ *
+ * The ETag is weak because it names the data rather than the bytes: the
+ * same version is sent gzipped or not, and Tomcat only compresses responses
+ * whose ETag is weak. <code>If-None-Match</code> uses weak comparison, so
+ * either form of the tag matches.
+ *
+ * The counters live in this JVM. The boot id means a restart never reuses
+ * an ETag, but with more than one instance a write on one instance would
+ * not be seen by the others.
+ */
+
+@Component
+public class ETagInterceptor implements HandlerInterceptor {
+
+  private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+
+  private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!(handler instanceof HandlerMethod)) {
+      return true;
+    }
+    HandlerMethod handlerMethod = (HandlerMethod) handler;
+    if (!isRead(request)) {
+      String[] tables = writtenTables(handlerMethod);
+      if (tables != null) {
+        bump(tables);
+      }
+      return true;
+    }
+    String[] tables = readTables(handlerMethod);
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (tables == null || isEventStream(handlerMethod) || !hasRoleUser(authentication)) {
+      return true;
+    }
+    String etag = etag(handlerMethod, authentication, tables);
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    if (handler instanceof HandlerMethod && !isRead(request)) {
+      String[] tables = writtenTables((HandlerMethod) handler);
+      if (tables != null) {
+        bump(tables);
+      }
+    }
+  }
+
+  /** the current ETag of a GET handled by this method, for this caller, that reads these tables */
+  String etag(HandlerMethod handlerMethod, Authentication authentication, String... tables) {
+    TreeSet<String> authorities = new TreeSet<>();
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      authorities.add(authority.getAuthority());
+    }
+    int key = Objects.hash(handlerMethod.getMethod().toGenericString(), authorities);
+    StringBuilder etag = new StringBuilder("W/\"").append(bootId).append('-').append(Integer.toHexString(key));
+    for (String table : tables) {
+      etag.append('-').append(version(table).get());
+    }
+    return etag.append('"').toString();
+  }
+
+  private void bump(String[] tables) {
+    for (String table : tables) {
+      version(table).incrementAndGet();
+    }
+  }
+
+  private AtomicLong version(String table) {
+    return versions.computeIfAbsent(table, t -> new AtomicLong());
+  }
+
+  /** the tables named on the controller, or null if it isn't versioned */
+  private static String[] writtenTables(HandlerMethod handlerMethod) {
+    ETagVersioned versioned = handlerMethod.getBeanType().getAnnotation(ETagVersioned.class);
+    return versioned == null ? null : versioned.value();
+  }
+
+  /** the tables of a listed GET handler, or null if it isn't listed */
+  private static String[] readTables(HandlerMethod handlerMethod) {
+    ETagVersioned listed = handlerMethod.getMethodAnnotation(ETagVersioned.class);
+    if (listed == null) {
+      return null;
+    }
+    return listed.value().length > 0 ? listed.value() : writtenTables(handlerMethod);
+  }
+
+  private static boolean isEventStream(HandlerMethod handlerMethod) {
+    if (ResponseBodyEmitter.class.isAssignableFrom(handlerMethod.getReturnType().getParameterType())) {
+      return true;
+    }
+    RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), RequestMapping.class);
+    return mapping != null && Arrays.asList(mapping.produces()).contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+  }
+
+  private static boolean isRead(HttpServletRequest request) {
+    return "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+  }
+
+  private static boolean hasRoleUser(Authentication authentication) {
+    if (authentication == null || !authentication.isAuthenticated()
+        || authentication instanceof AnonymousAuthenticationToken) {
+      return false;
+    }
+    for (GrantedAuthority authority : authentication.getAuthorities()) {
+      if ("ROLE_USER".equals(authority.getAuthority())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    String opaque = opaque(etag);
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || opaque(tag).equals(opaque)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** the tag without its weak prefix, for weak comparison */
+  private static String opaque(String tag) {
+    return tag.startsWith("W/") ? tag.substring(2) : tag;
+  }
+}
@@ -0,0 +1,26 @@
+package edu.ucsb.cs156.example.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * On a controller, names the tables that its POST/PUT/PATCH/DELETE handlers
+ * write; {@link ETagInterceptor} bumps their versions on every write.
+ *
+ * On a GET handler, lists it for conditional GETs: it gets an ETag built from
+ * the versions of its tables (those of its controller if none are named here),
+ * and a matching <code>If-None-Match</code> is answered with 304 before the
+ * controller runs. Only list reads that are open to every user
+ * (<code>hasRole('ROLE_USER')</code>) and whose response only changes when
+ * those tables are written through an <code>@ETagVersioned</code> controller.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+public @interface ETagVersioned {
+  /** the tables that the controller writes, or that the GET handler reads */
+  String[] value() default {};
+}
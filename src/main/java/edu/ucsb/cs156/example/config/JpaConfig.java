@@ -0,0 +1,49 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.config.BootstrapMode;
+
+/**
+ * Declares the JPA repositories explicitly, leaving out
+ * <code>repositories.reactive</code>. Those interfaces are typed on the same
+ * <code>@Entity</code> classes, so Boot's default scan of the whole application
+ * package would hand them to JPA, which rejects reactive repositories even when
+ * <code>app.reactive.enabled</code> is false; they belong to ReactiveConfig.
+ *
+ * Because this replaces Boot's JPA repository auto-configuration,
+ * <code>spring.data.jpa.repositories.bootstrap-mode=deferred</code> (see
+ * application-faststart.properties) is honoured here as well.
+ * <code>@DataJpaTest</code> classes import this configuration.
+ */
+
+@Configuration
+public class JpaConfig {
+
+  static final String BOOTSTRAP_MODE = "spring.data.jpa.repositories.bootstrap-mode";
+
+  @Configuration
+  @ConditionalOnProperty(name = BOOTSTRAP_MODE, havingValue = "default", matchIfMissing = true)
+  @EnableJpaRepositories(basePackages = "edu.ucsb.cs156.example.repositories", excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "edu\\.ucsb\\.cs156\\.example\\.repositories\\.reactive\\..*"))
+  static class DefaultBootstrap {
+  }
+
+  @Configuration
+  @ConditionalOnProperty(name = BOOTSTRAP_MODE, havingValue = "deferred")
+  @EnableJpaRepositories(basePackages = "edu.ucsb.cs156.example.repositories", excludeFilters = @ComponentScan.Filter(type = FilterType.REGEX, pattern = "edu\\.ucsb\\.cs156\\.example\\.repositories\\.reactive\\..*"), bootstrapMode = BootstrapMode.DEFERRED)
+  static class DeferredBootstrap {
+
+    @Bean
+    public EntityManagerFactoryBuilderCustomizer entityManagerFactoryBootstrapExecutorCustomizer(
+        @Qualifier("applicationTaskExecutor") AsyncTaskExecutor applicationTaskExecutor) {
+      return builder -> builder.setBootstrapExecutor(applicationTaskExecutor);
+    }
+  }
+}
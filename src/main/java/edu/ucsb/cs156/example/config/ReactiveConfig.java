@@ -0,0 +1,60 @@
+package edu.ucsb.cs156.example.config;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Opt-in (<code>app.reactive.enabled=true</code>) R2DBC connection pool and
+ * repositories for the read-only reactive API in ReactiveReadController.
+ *
+ * Spring Boot's own R2DBC auto-configuration is excluded in
+ * application.properties. Otherwise it would add a second, reactive
+ * transaction manager next to the JPA one and make the existing
+ * <code>@Transactional</code> methods ambiguous. The reactive reads don't
+ * need transactions. The pool connects to the same database as the
+ * JDBC DataSource, through <code>app.reactive.url</code>, and uses the
+ * same credentials.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+@EnableR2dbcRepositories(basePackages = "edu.ucsb.cs156.example.repositories.reactive")
+public class ReactiveConfig extends AbstractR2dbcConfiguration {
+
+  @Value("${app.reactive.url}")
+  private String url;
+
+  @Value("${spring.datasource.username:}")
+  private String username;
+
+  @Value("${spring.datasource.password:}")
+  private String password;
+
+  @Value("${app.reactive.maxPoolSize:10}")
+  private int maxPoolSize;
+
+  @Override
+  @Bean
+  public ConnectionFactory connectionFactory() {
+    ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+        .option(USER, username)
+        .option(PASSWORD, password)
+        .build();
+    return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+        .maxSize(maxPoolSize)
+        .build());
+  }
+}
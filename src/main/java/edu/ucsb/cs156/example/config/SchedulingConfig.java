@@ -0,0 +1,14 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on <code>@Scheduled</code> methods, which are used by services that
+ * keep an in-memory copy of database tables up to date.
+ */
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,94 @@
+package edu.ucsb.cs156.example.config;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refuses to start the application if any of the indexes that the repository
+ * lookups depend on is missing from the database. Without them
+ * <code>findByEmail</code>, <code>findAllByQuarterYYYYQ</code>, etc. still
+ * work, but silently turn into full table scans.
+ *
+ * The indexes are created by the Flyway migrations
+ * <code>db/migration/V5__Add_lookup_indexes.sql</code>,
+ * <code>V7__Add_open_help_request_index.sql</code> and
+ * <code>V8__Make_users_email_unique.sql</code> (and by Hibernate from the
+ * <code>@Table(indexes = ...)</code> on the entities when it creates the
+ * schema itself, as the benchmarks do). Set
+ * <code>app.schema.verifyIndexes=false</code> to skip the check.
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.schema.verifyIndexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexCheck implements ApplicationRunner {
+
+  /** table, leading column */
+  static final String[][] REQUIRED_INDEXES = {
+      { "users", "email" },
+      { "ucsbdates", "quarteryyyyq" },
+      { "ucsbdiningcommonsmenuitem", "dining_commons_code" },
+      { "menuitemreview", "item_id" },
+      { "help_request", "request_time" },
+      { "help_request", "solved" },
+  };
+
+  @Autowired
+  DataSource dataSource;
+
+  @Override
+  public void run(ApplicationArguments args) throws SQLException {
+    List<String> missing = missingIndexes();
+    if (!missing.isEmpty()) {
+      throw new IllegalStateException(
+          "Missing database indexes on " + missing + "; apply the migrations in db/migration");
+    }
+    log.info("All {} required lookup indexes are present", REQUIRED_INDEXES.length);
+  }
+
+  /** the required indexes that the database doesn't have, as table(column) */
+  public List<String> missingIndexes() throws SQLException {
+    List<String> missing = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection()) {
+      DatabaseMetaData metaData = connection.getMetaData();
+      for (String[] required : REQUIRED_INDEXES) {
+        if (!hasIndex(connection, metaData, required[0], required[1])) {
+          missing.add(required[0] + "(" + required[1] + ")");
+        }
+      }
+    }
+    return missing;
+  }
+
+  private boolean hasIndex(Connection connection, DatabaseMetaData metaData, String table, String column)
+      throws SQLException {
+    String tableName = table;
+    if (metaData.storesUpperCaseIdentifiers()) {
+      tableName = table.toUpperCase();
+    } else if (metaData.storesLowerCaseIdentifiers()) {
+      tableName = table.toLowerCase();
+    }
+    try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), tableName, false, true)) {
+      while (indexes.next()) {
+        if (indexes.getShort("ORDINAL_POSITION") == 1 && column.equalsIgnoreCase(indexes.getString("COLUMN_NAME"))) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,61 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import edu.ucsb.cs156.example.services.SearchService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rebuilds the search index at startup when it is empty (a new machine, or a
+ * Heroku dyno, whose disk starts out blank), unless
+ * <code>app.search.reindexIfEmpty=false</code>. The rebuild runs in the
+ * background so startup doesn't wait for it; until it finishes, searches read
+ * the database.
+ *
+ * Started with <code>--reindex</code>, the application instead rebuilds the
+ * index and exits; add <code>--spring.main.web-application-type=none</code>
+ * to do that without opening the HTTP port. It fails at startup if another
+ * process has the index open.
+ */
+
+@Slf4j
+@Component
+public class SearchIndexRunner implements ApplicationRunner {
+
+  @Autowired
+  SearchService searchService;
+
+  @Autowired
+  TaskExecutor applicationTaskExecutor;
+
+  @Autowired
+  ConfigurableApplicationContext context;
+
+  @Value("${app.search.reindexIfEmpty:true}")
+  boolean reindexIfEmpty;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (args.containsOption("reindex")) {
+      searchService.reindex();
+      System.exit(SpringApplication.exit(context));
+    } else if (reindexIfEmpty && searchService.isEmpty()) {
+      log.info("search index is empty, rebuilding it in the background");
+      searchService.markStale();
+      applicationTaskExecutor.execute(() -> {
+        try {
+          searchService.reindex();
+        } catch (RuntimeException e) {
+          log.error("rebuilding the search index failed; searches keep reading the database", e);
+        }
+      });
+    }
+  }
+}
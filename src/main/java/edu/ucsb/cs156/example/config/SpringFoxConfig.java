@@ -1,14 +1,22 @@
 package edu.ucsb.cs156.example.config;
 
+import java.lang.reflect.Field;
 import java.util.Collections;
+import java.util.List;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfoHandlerMapping;
 
 import springfox.documentation.service.Contact;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.service.ApiInfo;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.WebMvcRequestHandlerProvider;
 import springfox.documentation.swagger.web.SecurityConfiguration;
 import springfox.documentation.swagger.web.SecurityConfigurationBuilder;
 
@@ -17,12 +25,24 @@ import static springfox.documentation.builders.PathSelectors.regex;
 /**
  * Configuration for Swagger, a package that provides documentation
  * for REST API endpoints.
+ *
+ * Turned off with <code>springfox.documentation.enabled=false</code> (as in
+ * production), where the spec generated at build time is served instead; see
+ * ApiDocsController.
+ *
+ * SpringFox 3 only understands handler mappings that use the ant path matcher.
+ * The actuator's endpoint mappings use a PathPatternParser whatever
+ * <code>spring.mvc.pathmatch.matching-strategy</code> says, and would make
+ * <code>documentationPluginsBootstrapper</code> fail with a
+ * NullPointerException, so they are left out of the mappings SpringFox reads
+ * (they are not under /api anyway).
  * 
  * @see <a href=
  *      "https://www.baeldung.com/swagger-2-documentation-for-spring-rest-api">https://www.baeldung.com/swagger-2-documentation-for-spring-rest-api</a>
  */
 
 @Configuration
+@ConditionalOnProperty(name = "springfox.documentation.enabled", havingValue = "true", matchIfMissing = true)
 public class SpringFoxConfig {
     @Bean
     public Docket api() {
@@ -42,6 +62,26 @@ public class SpringFoxConfig {
           .build();
     }
 
+    @Bean
+    public static BeanPostProcessor springfoxHandlerProviderBeanPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof WebMvcRequestHandlerProvider) {
+                    handlerMappings(bean).removeIf(mapping -> mapping.getPatternParser() != null);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<RequestMappingInfoHandlerMapping> handlerMappings(Object bean) {
+        Field field = ReflectionUtils.findField(bean.getClass(), "handlerMappings");
+        ReflectionUtils.makeAccessible(field);
+        return (List<RequestMappingInfoHandlerMapping>) ReflectionUtils.getField(field, bean);
+    }
+
     private ApiInfo apiInfo() {
         return new ApiInfo("demo-spring-react-example-v2", "<a href=\"/\">home</a>", null, null, null, null, null, Collections.EMPTY_LIST);
     }
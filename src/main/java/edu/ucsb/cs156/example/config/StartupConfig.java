@@ -0,0 +1,61 @@
+package edu.ucsb.cs156.example.config;
+
+import java.lang.reflect.Method;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Support for the faststart profile (<code>application-faststart.properties</code>).
+ *
+ * With <code>spring.main.lazy-initialization=true</code> a bean is only
+ * created when something first asks for it, so a bean that nothing asks for
+ * but that has <code>@Scheduled</code> methods (the menu item catalog refresh,
+ * the search index commit, the help request heartbeat) would never run them.
+ * {@link #scheduledBeansAreEager()} keeps those beans eager.
+ *
+ * <code>app.startup.exitAfterStartup=true</code> stops the application as
+ * soon as it is ready; <code>appcds.sh</code> uses it for the training run
+ * that writes the AppCDS archive.
+ */
+
+@Slf4j
+@Configuration
+public class StartupConfig {
+
+  @Bean
+  public static LazyInitializationExcludeFilter scheduledBeansAreEager() {
+    return (beanName, beanDefinition, beanType) -> hasScheduledMethods(beanType);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.startup.exitAfterStartup", havingValue = "true")
+  public ApplicationListener<ApplicationReadyEvent> exitAfterStartup() {
+    return event -> {
+      log.info("app.startup.exitAfterStartup is set, exiting");
+      System.exit(SpringApplication.exit(event.getApplicationContext()));
+    };
+  }
+
+  static boolean hasScheduledMethods(Class<?> beanType) {
+    if (beanType == null) {
+      return false;
+    }
+    for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType, ReflectionUtils.USER_DECLARED_METHODS)) {
+      if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
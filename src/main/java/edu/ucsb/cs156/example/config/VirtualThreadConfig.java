@@ -0,0 +1,61 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Opt-in mode (<code>app.virtualThreads.enabled=true</code>) that runs each
+ * servlet request, and so every blocking repository call it makes, on its own
+ * virtual thread instead of Tomcat's bounded platform-thread pool. The
+ * application task executor (used for async MVC such as the
+ * <code>/export</code> endpoints) is switched to virtual threads as well.
+ *
+ * Virtual threads need a Java 21 runtime. The project still compiles for
+ * Java 17, so the executor is looked up reflectively and startup fails with
+ * an explanation on an older JVM. With this mode on, concurrency is bounded
+ * by the Hikari pool rather than by Tomcat threads; size
+ * <code>spring.datasource.hikari.maximum-pool-size</code> accordingly.
+ */
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.virtualThreads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean
+  public ExecutorService virtualThreadExecutor() {
+    log.info("Running requests on virtual threads ({})", Runtime.version());
+    return newVirtualThreadPerTaskExecutor();
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadExecutor) {
+    return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+  }
+
+  @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+    return new TaskExecutorAdapter(virtualThreadExecutor);
+  }
+
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(
+          "app.virtualThreads.enabled=true needs Java 21 or later, but this is Java " + Runtime.version(), e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create a virtual thread executor", e);
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package edu.ucsb.cs156.example.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+  @Autowired
+  ETagInterceptor eTagInterceptor;
+
+  @Value("${springfox.documentation.enabled:true}")
+  boolean springfoxEnabled;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(eTagInterceptor).addPathPatterns("/api/**");
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.registerCallableInterceptors(new AsyncTimeoutInterceptor());
+  }
+
+  /**
+   * The files under build/static have a content hash in their names, so they
+   * can be cached for a year. The frontend build writes a .br and a .gz next
+   * to each of them (frontend/scripts/compress-build.js), and the encoded
+   * resolver serves whichever of those the browser accepts.
+   */
+  @Override
+  public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler("/static/**")
+        .addResourceLocations("classpath:/public/static/")
+        .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic())
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver())
+        .addResolver(new PathResourceResolver());
+
+    addApiDocsResourceHandlers(registry);
+  }
+
+  /**
+   * The API spec generated at build time (swagger-maven-plugin in pom.xml)
+   * and its .gz, for <code>/api/docs</code> when SpringFox is turned off (see
+   * {@link edu.ucsb.cs156.example.controllers.ApiDocsController}). SpringFox
+   * then no longer serves the Swagger UI either, so its files are served from
+   * the springfox-swagger-ui jar here.
+   */
+  private void addApiDocsResourceHandlers(ResourceHandlerRegistry registry) {
+    registry.addResourceHandler("/api-docs/**")
+        .addResourceLocations("classpath:/api-docs/")
+        .setCacheControl(CacheControl.noCache())
+        .resourceChain(true)
+        .addResolver(new EncodedResourceResolver())
+        .addResolver(new PathResourceResolver());
+    if (!springfoxEnabled) {
+      registry.addResourceHandler("/swagger-ui/**")
+          .addResourceLocations("classpath:/META-INF/resources/webjars/springfox-swagger-ui/")
+          .resourceChain(false);
+    }
+  }
+}
@@ -1,17 +1,23 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
 import net.bytebuddy.implementation.bytecode.Throw;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @Slf4j
 public abstract class ApiController {
@@ -26,6 +32,32 @@ public abstract class ApiController {
     return Map.of("message", message);
   }
 
+  public static final int MAX_PAGE_SIZE = 1000;
+
+  /**
+   * The page for the keyset (<code>limit</code>) form of an
+   * <code>/all</code> endpoint, which always returns whole rows in key order,
+   * so it rejects the <code>filter</code>, <code>sort</code> and
+   * <code>fields</code> parameters of the other form rather than ignore them.
+   */
+  protected Pageable keysetPageRequest(int limit, List<String> filter, String sort, String fields) {
+    if (filter != null || sort != null || fields != null) {
+      throw new InvalidQueryException("filter, sort and fields can't be combined with limit");
+    }
+    return PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+  }
+
+  protected <T> KeysetPage<T> keysetPage(List<T> items, Pageable pageable, Function<T, ?> key) {
+    String nextCursor = null;
+    if (items.size() == pageable.getPageSize()) {
+      nextCursor = key.apply(items.get(items.size() - 1)).toString();
+    }
+    return KeysetPage.<T>builder()
+      .items(items)
+      .nextCursor(nextCursor)
+      .build();
+  }
+
   @ExceptionHandler({ EntityNotFoundException.class })
   @ResponseStatus(HttpStatus.NOT_FOUND)
   public Object handleGenericException(Throwable e) {
@@ -34,4 +66,13 @@ public abstract class ApiController {
       "message", e.getMessage()
     );
   }
+
+  @ExceptionHandler({ InvalidQueryException.class })
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public Object handleInvalidQuery(Throwable e) {
+    return Map.of(
+      "type", e.getClass().getSimpleName(),
+      "message", e.getMessage()
+    );
+  }
 }
@@ -0,0 +1,42 @@
+package edu.ucsb.cs156.example.controllers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+
+/**
+ * Serves the API spec and the Swagger UI configuration as static files when
+ * the SpringFox runtime scanner is turned off
+ * (<code>springfox.documentation.enabled=false</code>, as in production).
+ *
+ * The spec is generated from the <code>@Api</code> annotations at build time
+ * (swagger-maven-plugin in pom.xml) into <code>api-docs/swagger.json</code>,
+ * next to a gzipped copy that is sent to clients that accept it (see
+ * WebConfig). The <code>/swagger-resources</code> answers are the ones
+ * SpringFox would give for SpringFoxConfig.
+ */
+
+@Controller
+@ConditionalOnProperty(name = "springfox.documentation.enabled", havingValue = "false")
+public class ApiDocsController {
+
+  @GetMapping("/api/docs")
+  public String docs() {
+    return "forward:/api-docs/swagger.json";
+  }
+
+  @GetMapping("/swagger-resources")
+  public String swaggerResources() {
+    return "forward:/api-docs/swagger-resources.json";
+  }
+
+  @GetMapping("/swagger-resources/configuration/ui")
+  public String uiConfiguration() {
+    return "forward:/api-docs/swagger-resources-ui.json";
+  }
+
+  @GetMapping("/swagger-resources/configuration/security")
+  public String securityConfiguration() {
+    return "forward:/api-docs/swagger-resources-security.json";
+  }
+}
@@ -1,8 +1,14 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.Article;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.ListQueryService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -11,41 +17,93 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Api(description = "Articles")
 @RequestMapping("/api/Article")
 @RestController
+@ETagVersioned("articles")
 @Slf4j
 public class ArticleController extends ApiController {
     
     @Autowired
     ArticleRepository articleRespository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    PartialUpdateService partialUpdateService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    SearchService searchService;
+
     @ApiOperation(value = "List all articles")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<Article> allArticles(){
+    public Iterable<?> allArticles(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(Article.class, filter, sort, fields);
+        }
         Iterable<Article> articles = articleRespository.findAll();
         return articles;
     }
 
+    @ApiOperation(value = "List articles one page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<Article> pageArticles(
+            @ApiParam("return rows with id greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<Article> articles = articleRespository.findByIdGreaterThanOrderByIdAsc(after, pageable);
+        return keysetPage(articles, pageable, Article::getId);
+    }
+
+    @ApiOperation(value = "Stream all articles as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportArticles() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(articleRespository::streamAllByOrderByIdAsc));
+    }
+
     
     @ApiOperation(value = "Get a single article")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("")
     public Article getById(
             @ApiParam("id") @RequestParam Long id) {
@@ -70,7 +128,7 @@ public class ArticleController extends ApiController {
         // For an explanation of @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
         // See: https://www.baeldung.com/spring-date-parameters
 
-        log.info("localDateTime={}", localDateTime);
+        log.debug("localDateTime={}", localDateTime);
 
         Article article = new Article();
         article.setTitle(title);
@@ -80,6 +138,7 @@ public class ArticleController extends ApiController {
         article.setDateAdded(localDateTime);
 
         Article savedArticle = articleRespository.save(article);
+        searchService.index(savedArticle);
 
         return savedArticle;
     }
@@ -89,10 +148,10 @@ public class ArticleController extends ApiController {
     @DeleteMapping("")
     public Object deleteArticle(
             @ApiParam("id") @RequestParam Long id) {
-        Article article = articleRespository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Article.class, id));
-
-        articleRespository.delete(article);
+        if (articleRespository.removeById(id) == 0) {
+            throw new EntityNotFoundException(Article.class, id);
+        }
+        searchService.delete(SearchService.ARTICLE, id);
         return genericMessage("Article with id %s deleted".formatted(id));
     }
 
@@ -102,18 +161,24 @@ public class ArticleController extends ApiController {
     public Article updateArticle(
             @ApiParam("id") @RequestParam Long id,
             @RequestBody @Valid Article incoming) {
+        incoming.setId(id);
+        if (articleRespository.updateById(id, incoming) == 0) {
+            throw new EntityNotFoundException(Article.class, id);
+        }
+        searchService.index(incoming);
 
-        Article article = articleRespository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Article.class, id));
-
-        article.setTitle(incoming.getTitle());
-        article.setUrl(incoming.getUrl());
-        article.setExplanation(incoming.getExplanation());
-        article.setEmail(incoming.getEmail());
-        article.setDateAdded(incoming.getDateAdded());
-
-        articleRespository.save(article);
+        return incoming;
+    }
 
+    @ApiOperation(value = "Update some fields of a single article")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public Article patchArticle(
+            @ApiParam("id") @RequestParam Long id,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        Article article = partialUpdateService.patch(Article.class, id, changes)
+                .orElseThrow(() -> new EntityNotFoundException(Article.class, id));
+        searchService.index(article);
         return article;
     }
 }
@@ -0,0 +1,51 @@
+package edu.ucsb.cs156.example.controllers;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.ucsb.cs156.example.models.CacheStatistics;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Api(description = "Cache statistics (admin only)")
+@RequestMapping("/api/admin/caches")
+@RestController
+public class CachesController extends ApiController {
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @ApiOperation(value = "Get hit/miss counters for each cache")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("")
+    public List<CacheStatistics> caches() {
+        List<CacheStatistics> statistics = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof CaffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache = ((CaffeineCache) cache).getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                statistics.add(CacheStatistics.builder()
+                        .name(name)
+                        .size(nativeCache.estimatedSize())
+                        .hitCount(stats.hitCount())
+                        .missCount(stats.missCount())
+                        .hitRate(stats.hitRate())
+                        .evictionCount(stats.evictionCount())
+                        .build());
+            }
+        }
+        return statistics;
+    }
+}
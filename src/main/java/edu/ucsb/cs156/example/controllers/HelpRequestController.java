@@ -1,8 +1,15 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.HelpRequest;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.HelpRequestEvents;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.ListQueryService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -11,38 +18,108 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Api(description = "HelpRequest")
 @RequestMapping("/api/HelpRequest")
 @RestController
+@ETagVersioned("help_request")
 @Slf4j
 public class HelpRequestController extends ApiController {
 
     @Autowired
     HelpRequestRepository helpRequestRepository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    PartialUpdateService partialUpdateService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    SearchService searchService;
+
+    @Autowired
+    HelpRequestEvents helpRequestEvents;
+
     @ApiOperation(value = "List all help requests")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<HelpRequest> allHelpRequests() {
+    public Iterable<?> allHelpRequests(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(HelpRequest.class, filter, sort, fields);
+        }
         Iterable<HelpRequest> requests = helpRequestRepository.findAll();
         return requests;
     }
 
+    @ApiOperation(value = "List help requests one page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<HelpRequest> pageHelpRequests(
+            @ApiParam("return rows with id greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<HelpRequest> requests = helpRequestRepository.findByIdGreaterThanOrderByIdAsc(after, pageable);
+        return keysetPage(requests, pageable, HelpRequest::getId);
+    }
+
+    @ApiOperation(value = "Stream all help requests as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportHelpRequests() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(helpRequestRepository::streamAllByOrderByIdAsc));
+    }
+
+    @ApiOperation(value = "List unsolved help requests, oldest first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping("/open")
+    public List<HelpRequest> openHelpRequests() {
+        return helpRequestRepository.findAllBySolvedFalseOrderByRequestTimeAsc();
+    }
+
+    @ApiOperation(value = "Stream help request changes as server-sent events (created, updated, deleted)")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamHelpRequests() {
+        return helpRequestEvents.subscribe();
+    }
+
     @ApiOperation(value = "Create a new help request")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/post")
@@ -55,7 +132,7 @@ public class HelpRequestController extends ApiController {
             @ApiParam("solved") @RequestParam boolean solved)
             throws JsonProcessingException {
 
-        log.info("requestTime={}", requestTime);
+        log.debug("requestTime={}", requestTime);
 
         HelpRequest helpRequest = new HelpRequest();
         helpRequest.setRequesterEmail(requesterEmail);
@@ -66,12 +143,15 @@ public class HelpRequestController extends ApiController {
         helpRequest.setSolved(solved);
 
         HelpRequest savedHelpRequest = helpRequestRepository.save(helpRequest);
+        searchService.index(savedHelpRequest);
+        helpRequestEvents.publish(HelpRequestEvents.CREATED, savedHelpRequest);
 
         return savedHelpRequest;
     }
 
     @ApiOperation(value = "Get a single help request")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("")
     public HelpRequest getById(
             @ApiParam("id") @RequestParam Long id) {
@@ -87,19 +167,26 @@ public class HelpRequestController extends ApiController {
     public HelpRequest updateHelpRequest(
             @ApiParam("id") @RequestParam Long id,
             @RequestBody @Valid HelpRequest incoming) {
+        incoming.setId(id);
+        if (helpRequestRepository.updateById(id, incoming) == 0) {
+            throw new EntityNotFoundException(HelpRequest.class, id);
+        }
+        searchService.index(incoming);
+        helpRequestEvents.publish(HelpRequestEvents.UPDATED, incoming);
+
+        return incoming;
+    }
 
-        HelpRequest helpRequest = helpRequestRepository.findById(id)
+    @ApiOperation(value = "Update some fields of a single help request")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public HelpRequest patchHelpRequest(
+            @ApiParam("id") @RequestParam Long id,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        HelpRequest helpRequest = partialUpdateService.patch(HelpRequest.class, id, changes)
                 .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
-
-        helpRequest.setRequesterEmail(incoming.getRequesterEmail());
-        helpRequest.setTeamId(incoming.getTeamId());
-        helpRequest.setTableOrBreakoutRoom(incoming.getTableOrBreakoutRoom());
-        helpRequest.setRequestTime(incoming.getRequestTime());
-        helpRequest.setExplanation(incoming.getExplanation());
-        helpRequest.setSolved(incoming.getSolved());
-
-        helpRequestRepository.save(helpRequest);
-
+        searchService.index(helpRequest);
+        helpRequestEvents.publish(HelpRequestEvents.UPDATED, helpRequest);
         return helpRequest;
     }
 
@@ -108,10 +195,12 @@ public class HelpRequestController extends ApiController {
     @DeleteMapping("")
     public Object deleteHelpRequest(
             @ApiParam("id") @RequestParam Long id) {
-        HelpRequest helpRequest = helpRequestRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(HelpRequest.class, id));
-
-        helpRequestRepository.delete(helpRequest);
+        if (helpRequestRepository.removeById(id) == 0) {
+            throw new EntityNotFoundException(HelpRequest.class, id);
+        }
+        searchService.delete(SearchService.HELP_REQUEST, id);
+        // the row is gone; subscribers only need its id
+        helpRequestEvents.publish(HelpRequestEvents.DELETED, HelpRequest.builder().id(id).build());
         return genericMessage("HelpRequest with id %s deleted".formatted(id));
     }
 
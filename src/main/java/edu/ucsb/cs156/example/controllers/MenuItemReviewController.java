@@ -1,50 +1,147 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.BulkInsertException;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.InvalidRecordException;
+import edu.ucsb.cs156.example.models.KeysetPage;
+import edu.ucsb.cs156.example.models.MenuItemRatingSummary;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.MenuItemRatingStatsService;
+import edu.ucsb.cs156.example.services.MenuItemReviewService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.services.ListQueryService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 @Api(description = "MenuItemReview")
 @RequestMapping("/api/menuitemreview")
 @RestController
+@ETagVersioned("menuitemreview")
 @Slf4j
 public class MenuItemReviewController extends ApiController {
 
     @Autowired
     MenuItemReviewRepository menuItemReviewRepository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    MenuItemRatingStatsService ratingStatsService;
+
+    @Autowired
+    MenuItemReviewService menuItemReviewService;
+
+    @Autowired
+    SearchService searchService;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @Value("${app.bulk.chunkSize:500}")
+    int bulkChunkSize;
+
     @ApiOperation(value = "List all menu item reviews")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<MenuItemReview> allMenuItemReview() {
+    public Iterable<?> allMenuItemReview(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(MenuItemReview.class, filter, sort, fields);
+        }
         Iterable<MenuItemReview> reviews = menuItemReviewRepository.findAll();
         return reviews;
     }
 
+    @ApiOperation(value = "List menu item reviews one page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<MenuItemReview> pageMenuItemReviews(
+            @ApiParam("return rows with id greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<MenuItemReview> reviews = menuItemReviewRepository.findByIdGreaterThanOrderByIdAsc(after, pageable);
+        return keysetPage(reviews, pageable, MenuItemReview::getId);
+    }
+
+    @ApiOperation(value = "Stream all menu item reviews as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMenuItemReviews() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(menuItemReviewRepository::streamAllByOrderByIdAsc));
+    }
+
+    @ApiOperation(value = "Get the review count, mean stars, star histogram and last review time of a menu item")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/stats")
+    public MenuItemRatingSummary getStats(
+            @ApiParam("itemId") @RequestParam Long itemId) {
+        return ratingStatsService.getSummary(itemId);
+    }
+
+    @ApiOperation(value = "Recompute the rating statistics of every menu item from its reviews")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/stats/rebuild")
+    public Object rebuildStats() {
+        int items = ratingStatsService.rebuild();
+        return genericMessage("Rebuilt rating statistics for %d menu items".formatted(items));
+    }
+
     @ApiOperation(value = "Get a menu item review")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("")
     public MenuItemReview getById(
             @ApiParam("id") @RequestParam Long id) {
@@ -68,7 +165,7 @@ public class MenuItemReviewController extends ApiController {
         // For an explanation of @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
         // See: https://www.baeldung.com/spring-date-parameters
 
-        log.info("localDateTime={}", localDateTime);
+        log.debug("localDateTime={}", localDateTime);
 
         MenuItemReview menuItemReview = new MenuItemReview();
         menuItemReview.setItemId(itemId);
@@ -77,20 +174,73 @@ public class MenuItemReviewController extends ApiController {
         menuItemReview.setDateReviewed(localDateTime);
         menuItemReview.setComments(comments);
 
-        MenuItemReview savedMenuItemReview = menuItemReviewRepository.save(menuItemReview);
+        MenuItemReview savedMenuItemReview = menuItemReviewService.create(menuItemReview);
+        searchService.index(savedMenuItemReview);
 
         return savedMenuItemReview;
     }
 
+    @ApiOperation(value = "Create many menu item reviews from a JSON array or NDJSON, read as a stream and committed app.bulk.chunkSize at a time; "
+            + "a malformed or invalid review stops the upload, and the 400 response says how many reviews before it were inserted")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Object postMenuItemReviews(HttpServletRequest request) throws IOException {
+        long lastIdBefore = menuItemReviewRepository.findMaxId();
+        int inserted = 0;
+        int chunks = 0;
+        // each chunk is read before its transaction starts, so a slow upload doesn't hold one open
+        List<MenuItemReview> chunk = new ArrayList<>();
+        try (MappingIterator<MenuItemReview> values = mapper.readerFor(MenuItemReview.class)
+                .readValues(request.getInputStream())) {
+            while (values.hasNextValue()) {
+                chunk.add(values.nextValue());
+                if (chunk.size() == bulkChunkSize || !values.hasNextValue()) {
+                    menuItemReviewService.insertChunk(inserted, chunk);
+                    inserted += chunk.size();
+                    chunks++;
+                    chunk = new ArrayList<>();
+                }
+            }
+        } catch (InvalidRecordException e) {
+            throw new BulkInsertException(e.getIndex(), inserted, chunks, e.getMessage(), e);
+        } catch (JsonProcessingException e) {
+            throw new BulkInsertException(inserted + chunk.size(), inserted, chunks, e.getOriginalMessage(), e);
+        } finally {
+            if (inserted > 0) {
+                searchService.indexMenuItemReviewsAfter(lastIdBefore);
+            }
+        }
+        return Map.of("inserted", inserted, "chunks", chunks);
+    }
+
+    @ExceptionHandler({ JsonProcessingException.class })
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Object handleMalformedJson(JsonProcessingException e) {
+        return Map.of(
+            "type", e.getClass().getSimpleName(),
+            "message", e.getOriginalMessage()
+        );
+    }
+
+    @ExceptionHandler({ BulkInsertException.class })
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Object handleBulkInsertFailure(BulkInsertException e) {
+        return Map.of(
+            "type", e.getCause().getClass().getSimpleName(),
+            "message", e.getMessage(),
+            "index", e.getIndex(),
+            "inserted", e.getInserted(),
+            "chunks", e.getChunks()
+        );
+    }
+
     @ApiOperation(value = "Delete a menu item review")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping("")
     public Object deleteUCSBDate(
             @ApiParam("id") @RequestParam Long id) {
-        MenuItemReview menuItemReview = menuItemReviewRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
-
-        menuItemReviewRepository.delete(menuItemReview);
+        menuItemReviewService.delete(id);
+        searchService.delete(SearchService.MENU_ITEM_REVIEW, id);
         return genericMessage("MenuItemReview with id %s deleted".formatted(id));
     }
 
@@ -100,18 +250,20 @@ public class MenuItemReviewController extends ApiController {
     public MenuItemReview updateMenuItemReview(
             @ApiParam("id") @RequestParam Long id,
             @RequestBody @Valid MenuItemReview  incoming) {
+        MenuItemReview menuItemReview = menuItemReviewService.update(id, incoming);
+        searchService.index(menuItemReview);
 
-        MenuItemReview menuItemReview = menuItemReviewRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
-
-        menuItemReview.setItemId(incoming.getItemId());
-        menuItemReview.setReviewerEmail(incoming.getReviewerEmail());
-        menuItemReview.setStars(incoming.getStars());
-        menuItemReview.setDateReviewed(incoming.getDateReviewed());
-        menuItemReview.setComments(incoming.getComments());
-
-        menuItemReviewRepository.save(menuItemReview);
+        return menuItemReview;
+    }
 
+    @ApiOperation(value = "Update some fields of a single menu item review")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public MenuItemReview patchMenuItemReview(
+            @ApiParam("id") @RequestParam Long id,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        MenuItemReview menuItemReview = menuItemReviewService.patch(id, changes);
+        searchService.index(menuItemReview);
         return menuItemReview;
     }
 }
@@ -0,0 +1,79 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.config.ETagVersioned;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.repositories.reactive.ReactiveHelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.reactive.ReactiveMenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.reactive.ReactiveUCSBDiningCommonsMenuItemRepository;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only versions of the big list endpoints, backed by R2DBC. Rows are
+ * written as newline-delimited JSON while they arrive from the database.
+ * The next row is only requested once the previous one has been written, so
+ * a slow client slows the query down instead of holding a servlet thread
+ * and a JDBC connection for the whole transfer.
+ */
+
+@Api(description = "Reactive read-only API")
+@RequestMapping("/api/reactive")
+@RestController
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveReadController extends ApiController {
+
+    @Autowired
+    ReactiveMenuItemReviewRepository reactiveMenuItemReviewRepository;
+
+    @Autowired
+    ReactiveUCSBDiningCommonsMenuItemRepository reactiveMenuItemRepository;
+
+    @Autowired
+    ReactiveHelpRequestRepository reactiveHelpRequestRepository;
+
+    @ApiOperation(value = "Stream menu item reviews as NDJSON, optionally only those of one item")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned("menuitemreview")
+    @GetMapping(value = "/menuitemreview/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<MenuItemReview> streamMenuItemReviews(
+            @ApiParam("only reviews of this item") @RequestParam(required = false) Long itemId) {
+        if (itemId == null) {
+            return reactiveMenuItemReviewRepository.findAllOrderById();
+        }
+        return reactiveMenuItemReviewRepository.findAllByItemIdOrderById(itemId);
+    }
+
+    @ApiOperation(value = "Stream menu items as NDJSON, optionally only those of one dining commons")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned("ucsbdiningcommonsmenuitem")
+    @GetMapping(value = "/UCSBDiningCommonsMenuItem/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UCSBDiningCommonsMenuItem> streamMenuItems(
+            @ApiParam("only items served at this dining commons") @RequestParam(required = false) String diningCommonsCode) {
+        if (diningCommonsCode == null) {
+            return reactiveMenuItemRepository.findAllOrderById();
+        }
+        return reactiveMenuItemRepository.findAllByDiningCommonsCodeOrderById(diningCommonsCode);
+    }
+
+    @ApiOperation(value = "Stream help requests as NDJSON")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned("help_request")
+    @GetMapping(value = "/HelpRequest/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<HelpRequest> streamHelpRequests() {
+        return reactiveHelpRequestRepository.findAllOrderById();
+    }
+}
@@ -1,8 +1,13 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.Recommendation;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.RecommendationRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -11,38 +16,86 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Api(description = "recommendations")
 @RequestMapping("/api/Recommendation")
 @RestController
+@ETagVersioned("recommendations")
 @Slf4j
 public class RecommendationController extends ApiController {
 
     @Autowired
     RecommendationRepository recommendationRepository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    PartialUpdateService partialUpdateService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
     @ApiOperation(value = "List all recommendations")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<Recommendation> allRecommendations() {
+    public Iterable<?> allRecommendations(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(Recommendation.class, filter, sort, fields);
+        }
         Iterable<Recommendation> recommendations = recommendationRepository.findAll();
         return recommendations;
     }
 
+    @ApiOperation(value = "List recommendations one page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<Recommendation> pageRecommendations(
+            @ApiParam("return rows with id greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<Recommendation> recommendations = recommendationRepository.findByIdGreaterThanOrderByIdAsc(after, pageable);
+        return keysetPage(recommendations, pageable, Recommendation::getId);
+    }
+
+    @ApiOperation(value = "Stream all recommendations as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRecommendations() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(recommendationRepository::streamAllByOrderByIdAsc));
+    }
+
     @ApiOperation(value = "Create a new recommendation")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PostMapping("/post")
@@ -74,6 +127,7 @@ public Recommendation postRecommendation(
 
     @ApiOperation(value = "Get a single recommendation")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("")
     public Recommendation getById(
         @ApiParam("id") @RequestParam Long id) {
@@ -89,19 +143,22 @@ public Recommendation postRecommendation(
     public Recommendation updateRecommendation(
             @ApiParam("id") @RequestParam Long id,
             @RequestBody @Valid edu.ucsb.cs156.example.entities.Recommendation incoming) {
+        incoming.setId(id);
+        if (recommendationRepository.updateById(id, incoming) == 0) {
+            throw new EntityNotFoundException(Recommendation.class, id);
+        }
 
-        Recommendation recommendation = recommendationRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Recommendation.class, id));
-
-        recommendation.setRequesterEmail(incoming.getRequesterEmail());
-        recommendation.setProfessorEmail(incoming.getProfessorEmail());
-        recommendation.setExplanation(incoming.getExplanation());
-        recommendation.setDateRequested(incoming.getDateRequested());
-        recommendation.setDateNeeded(incoming.getDateNeeded());
-        recommendation.setDone(incoming.getDone());
-        recommendationRepository.save(recommendation);
+        return incoming;
+    }
 
-        return recommendation;
+    @ApiOperation(value = "Update some fields of a single recommendation")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public Recommendation patchRecommendation(
+            @ApiParam("id") @RequestParam Long id,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        return partialUpdateService.patch(Recommendation.class, id, changes)
+                .orElseThrow(() -> new EntityNotFoundException(Recommendation.class, id));
     }
 
     @ApiOperation(value = "Delete a Recommendation")
@@ -109,10 +166,9 @@ public Recommendation postRecommendation(
     @DeleteMapping("")
     public Object deleteRecommendation(
             @ApiParam("id") @RequestParam Long id) {
-        Recommendation recommendation = recommendationRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(Recommendation.class, id));
-
-        recommendationRepository.delete(recommendation);
+        if (recommendationRepository.removeById(id) == 0) {
+            throw new EntityNotFoundException(Recommendation.class, id);
+        }
         return genericMessage("Recommendation with id %s deleted".formatted(id));
     }
 }
@@ -0,0 +1,36 @@
+package edu.ucsb.cs156.example.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.ucsb.cs156.example.models.AdminRoles;
+import edu.ucsb.cs156.example.services.RoleRegistry;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+@Api(description = "Admin role registry (admin only)")
+@RequestMapping("/api/admin/roles")
+@RestController
+public class RolesController extends ApiController {
+
+    @Autowired
+    RoleRegistry roleRegistry;
+
+    @ApiOperation(value = "Get the configured admins and the users with the admin flag, as used at login")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("")
+    public AdminRoles roles() {
+        return roleRegistry.getAdminRoles();
+    }
+
+    @ApiOperation(value = "Reload the configured admins and the admin users now")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/reload")
+    public AdminRoles reload() {
+        return roleRegistry.reload();
+    }
+}
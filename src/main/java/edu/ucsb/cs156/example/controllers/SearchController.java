@@ -0,0 +1,44 @@
+package edu.ucsb.cs156.example.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import edu.ucsb.cs156.example.models.SearchResults;
+import edu.ucsb.cs156.example.services.SearchService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+
+import java.util.Map;
+
+@Api(description = "Full-text search over articles, help requests and menu item reviews")
+@RequestMapping("/api/search")
+@RestController
+public class SearchController extends ApiController {
+
+    @Autowired
+    SearchService searchService;
+
+    @ApiOperation(value = "Search article titles and explanations, help request explanations and review comments, best matches first")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("")
+    public SearchResults search(
+            @ApiParam("query, e.g. pasta, \"too salty\", chick* AND NOT soup") @RequestParam String q,
+            @ApiParam("article, helprequest or menuitemreview; omit for all") @RequestParam(required = false) String type,
+            @ApiParam("page number, starting at 0") @RequestParam(defaultValue = "0") int page,
+            @ApiParam("results per page") @RequestParam(defaultValue = "20") int size) {
+        return searchService.search(q, type, page, size);
+    }
+
+    @ApiOperation(value = "Rebuild the search index from the database")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/reindex")
+    public Map<String, Long> reindex() {
+        return searchService.reindex();
+    }
+}
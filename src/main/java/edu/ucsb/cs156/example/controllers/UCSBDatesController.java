@@ -1,8 +1,13 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.UCSBDate;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -11,40 +16,89 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Api(description = "UCSBDates")
 @RequestMapping("/api/ucsbdates")
 @RestController
+@ETagVersioned("ucsbdates")
 @Slf4j
 public class UCSBDatesController extends ApiController {
 
     @Autowired
     UCSBDateRepository ucsbDateRepository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    PartialUpdateService partialUpdateService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
     @ApiOperation(value = "List all ucsb dates")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<UCSBDate> allUCSBDates() {
+    public Iterable<?> allUCSBDates(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(UCSBDate.class, filter, sort, fields);
+        }
         Iterable<UCSBDate> dates = ucsbDateRepository.findAll();
         return dates;
     }
 
+    @ApiOperation(value = "List ucsb dates one page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<UCSBDate> pageUCSBDates(
+            @ApiParam("return rows with id greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<UCSBDate> dates = ucsbDateRepository.findByIdGreaterThanOrderByIdAsc(after, pageable);
+        return keysetPage(dates, pageable, UCSBDate::getId);
+    }
+
+    @ApiOperation(value = "Stream all ucsb dates as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUCSBDates() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(ucsbDateRepository::streamAllByOrderByIdAsc));
+    }
+
     @ApiOperation(value = "Get a single date")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("")
     public UCSBDate getById(
             @ApiParam("id") @RequestParam Long id) {
@@ -66,7 +120,7 @@ public class UCSBDatesController extends ApiController {
         // For an explanation of @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
         // See: https://www.baeldung.com/spring-date-parameters
 
-        log.info("localDateTime={}", localDateTime);
+        log.debug("localDateTime={}", localDateTime);
 
         UCSBDate ucsbDate = new UCSBDate();
         ucsbDate.setQuarterYYYYQ(quarterYYYYQ);
@@ -83,10 +137,9 @@ public class UCSBDatesController extends ApiController {
     @DeleteMapping("")
     public Object deleteUCSBDate(
             @ApiParam("id") @RequestParam Long id) {
-        UCSBDate ucsbDate = ucsbDateRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
-
-        ucsbDateRepository.delete(ucsbDate);
+        if (ucsbDateRepository.removeById(id) == 0) {
+            throw new EntityNotFoundException(UCSBDate.class, id);
+        }
         return genericMessage("UCSBDate with id %s deleted".formatted(id));
     }
 
@@ -96,16 +149,21 @@ public class UCSBDatesController extends ApiController {
     public UCSBDate updateUCSBDate(
             @ApiParam("id") @RequestParam Long id,
             @RequestBody @Valid UCSBDate incoming) {
+        incoming.setId(id);
+        if (ucsbDateRepository.updateById(id, incoming) == 0) {
+            throw new EntityNotFoundException(UCSBDate.class, id);
+        }
 
-        UCSBDate ucsbDate = ucsbDateRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
-
-        ucsbDate.setQuarterYYYYQ(incoming.getQuarterYYYYQ());
-        ucsbDate.setName(incoming.getName());
-        ucsbDate.setLocalDateTime(incoming.getLocalDateTime());
-
-        ucsbDateRepository.save(ucsbDate);
+        return incoming;
+    }
 
-        return ucsbDate;
+    @ApiOperation(value = "Update some fields of a single date")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public UCSBDate patchUCSBDate(
+            @ApiParam("id") @RequestParam Long id,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        return ucsbDateRepository.patchById(partialUpdateService, id, changes)
+                .orElseThrow(() -> new EntityNotFoundException(UCSBDate.class, id));
     }
 }
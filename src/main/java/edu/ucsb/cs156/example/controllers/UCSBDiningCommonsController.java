@@ -1,46 +1,101 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
+import java.util.List;
+import java.util.Map;
+
 
 @Api(description = "UCSBDiningCommons")
 @RequestMapping("/api/ucsbdiningcommons")
 @RestController
+@ETagVersioned("ucsbdiningcommons")
 @Slf4j
 public class UCSBDiningCommonsController extends ApiController {
 
     @Autowired
     UCSBDiningCommonsRepository ucsbDiningCommonsRepository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    PartialUpdateService partialUpdateService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
     @ApiOperation(value = "List all ucsb dining commons")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<UCSBDiningCommons> allCommonss() {
+    public Iterable<?> allCommonss(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(UCSBDiningCommons.class, filter, sort, fields);
+        }
         Iterable<UCSBDiningCommons> commons = ucsbDiningCommonsRepository.findAll();
         return commons;
     }
 
+    @ApiOperation(value = "List ucsb dining commons one page at a time, ordered by code")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<UCSBDiningCommons> pageCommons(
+            @ApiParam("return rows with code greater than this cursor") @RequestParam(defaultValue = "") String after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<UCSBDiningCommons> commons = ucsbDiningCommonsRepository.findByCodeGreaterThanOrderByCodeAsc(after, pageable);
+        return keysetPage(commons, pageable, UCSBDiningCommons::getCode);
+    }
+
+    @ApiOperation(value = "Stream all ucsb dining commons as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCommons() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(ucsbDiningCommonsRepository::streamAllByOrderByCodeAsc));
+    }
+
     @ApiOperation(value = "Get a single commons")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("")
     public UCSBDiningCommons getById(
             @ApiParam("code") @RequestParam String code) {
@@ -83,10 +138,9 @@ public class UCSBDiningCommonsController extends ApiController {
     @DeleteMapping("")
     public Object deleteCommons(
             @ApiParam("code") @RequestParam String code) {
-        UCSBDiningCommons commons = ucsbDiningCommonsRepository.findById(code)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
-
-        ucsbDiningCommonsRepository.delete(commons);
+        if (ucsbDiningCommonsRepository.removeById(code) == 0) {
+            throw new EntityNotFoundException(UCSBDiningCommons.class, code);
+        }
         return genericMessage("UCSBDiningCommons with id %s deleted".formatted(code));
     }
 
@@ -96,20 +150,21 @@ public class UCSBDiningCommonsController extends ApiController {
     public UCSBDiningCommons updateCommons(
             @ApiParam("code") @RequestParam String code,
             @RequestBody @Valid UCSBDiningCommons incoming) {
+        incoming.setCode(code);
+        if (ucsbDiningCommonsRepository.updateById(code, incoming) == 0) {
+            throw new EntityNotFoundException(UCSBDiningCommons.class, code);
+        }
 
-        UCSBDiningCommons commons = ucsbDiningCommonsRepository.findById(code)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
-
-
-        commons.setName(incoming.getName());  
-        commons.setHasSackMeal(incoming.getHasSackMeal());
-        commons.setHasTakeOutMeal(incoming.getHasTakeOutMeal());
-        commons.setHasDiningCam(incoming.getHasDiningCam());
-        commons.setLatitude(incoming.getLatitude());
-        commons.setLongitude(incoming.getLongitude());
-
-        ucsbDiningCommonsRepository.save(commons);
+        return incoming;
+    }
 
-        return commons;
+    @ApiOperation(value = "Update some fields of a single commons")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public UCSBDiningCommons patchCommons(
+            @ApiParam("code") @RequestParam String code,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        return ucsbDiningCommonsRepository.patchById(partialUpdateService, code, changes)
+                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommons.class, code));
     }
 }
@@ -1,8 +1,15 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.KeysetPage;
+import edu.ucsb.cs156.example.models.MenuItemCatalogStats;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.MenuItemCatalog;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -12,38 +19,116 @@ import lombok.extern.slf4j.Slf4j;
 import com.fasterxml.jackson.core.JsonProcessingException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.util.List;
+import java.util.Map;
 
 
 @Api(description = "UCSBDiningCommonsMenuItem")
 @RequestMapping("/api/UCSBDiningCommonsMenuItem")
 @RestController
+@ETagVersioned("ucsbdiningcommonsmenuitem")
 @Slf4j
 public class UCSBDiningCommonsMenuItemController extends ApiController {
 
     @Autowired
     UCSBDiningCommonsMenuItemRepository ucsbDiningCommonsMenuItemRepository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    PartialUpdateService partialUpdateService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
+    @Autowired
+    MenuItemCatalog menuItemCatalog;
+
     @ApiOperation(value = "List all ucsb menu items")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<UCSBDiningCommonsMenuItem> allUCSBDates() {
+    public Iterable<?> allUCSBDates(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(UCSBDiningCommonsMenuItem.class, filter, sort, fields);
+        }
         Iterable<UCSBDiningCommonsMenuItem> menuItems = ucsbDiningCommonsMenuItemRepository.findAll();
         return menuItems;
     }
+
+    @ApiOperation(value = "List ucsb menu items one page at a time, ordered by id")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<UCSBDiningCommonsMenuItem> pageUCSBDiningCommonsMenuItems(
+            @ApiParam("return rows with id greater than this cursor") @RequestParam(defaultValue = "0") long after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<UCSBDiningCommonsMenuItem> menuItems = ucsbDiningCommonsMenuItemRepository.findByIdGreaterThanOrderByIdAsc(after, pageable);
+        return keysetPage(menuItems, pageable, UCSBDiningCommonsMenuItem::getId);
+    }
+
+    @ApiOperation(value = "Find menu items by dining commons, station and/or name prefix, from the in-memory catalog")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/search")
+    public List<UCSBDiningCommonsMenuItem> searchUCSBDiningCommonsMenuItems(
+            @ApiParam("dining commons code, e.g. ortega") @RequestParam(required = false) String diningCommonsCode,
+            @ApiParam("station, e.g. Entrees") @RequestParam(required = false) String station,
+            @ApiParam("start of the item name (case insensitive)") @RequestParam(required = false) String namePrefix,
+            @ApiParam("maximum number of rows to return") @RequestParam(defaultValue = "100") int limit) {
+        return menuItemCatalog.find(diningCommonsCode, station, namePrefix, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @ApiOperation(value = "Get the size and memory use of the in-memory menu item catalog")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/catalog")
+    public MenuItemCatalogStats getCatalogStats() {
+        return menuItemCatalog.getStats();
+    }
+
+    @ApiOperation(value = "Reload the in-memory menu item catalog from the database")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/catalog/reload")
+    public MenuItemCatalogStats reloadCatalog() {
+        menuItemCatalog.reload();
+        return menuItemCatalog.getStats();
+    }
+
+    @ApiOperation(value = "Stream all ucsb menu items as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUCSBDiningCommonsMenuItems() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(ucsbDiningCommonsMenuItemRepository::streamAllByOrderByIdAsc));
+    }
  
     @ApiOperation(value = "Get a single menu item") 
     @PreAuthorize("hasRole('ROLE_USER')") 
+    @ETagVersioned
     @GetMapping("") 
     public UCSBDiningCommonsMenuItem getById(
             @ApiParam("id") @RequestParam Long id) {
@@ -68,6 +153,7 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
         ucsbDiningCommonsMenuItem.setStation(station);
 
         UCSBDiningCommonsMenuItem savedUcsbDiningCommonsMenuItem = ucsbDiningCommonsMenuItemRepository.save(ucsbDiningCommonsMenuItem);
+        menuItemCatalog.put(savedUcsbDiningCommonsMenuItem);
 
         return savedUcsbDiningCommonsMenuItem;
     }
@@ -77,10 +163,10 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
     @DeleteMapping("")
     public Object deleteUCSBDiningCommonsMenuItem(
             @ApiParam("id") @RequestParam Long id) {
-        UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem = ucsbDiningCommonsMenuItemRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
-
-        ucsbDiningCommonsMenuItemRepository.delete(ucsbDiningCommonsMenuItem);
+        if (ucsbDiningCommonsMenuItemRepository.removeById(id) == 0) {
+            throw new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id);
+        }
+        menuItemCatalog.remove(id);
         return genericMessage("UCSBDiningCommonsMenuItem with id %s deleted".formatted(id));
     }
 
@@ -90,16 +176,24 @@ public class UCSBDiningCommonsMenuItemController extends ApiController {
     public UCSBDiningCommonsMenuItem updateUCSBDiningCommonsMenuItem(
             @ApiParam("id") @RequestParam Long id,
             @RequestBody @Valid UCSBDiningCommonsMenuItem incoming) {
+        incoming.setId(id);
+        if (ucsbDiningCommonsMenuItemRepository.updateById(id, incoming) == 0) {
+            throw new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id);
+        }
+        menuItemCatalog.put(incoming);
 
-        UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem = ucsbDiningCommonsMenuItemRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
-
-                ucsbDiningCommonsMenuItem.setDiningCommonsCode(incoming.getDiningCommonsCode());
-                ucsbDiningCommonsMenuItem.setName(incoming.getName());
-                ucsbDiningCommonsMenuItem.setStation(incoming.getStation());
-
-        ucsbDiningCommonsMenuItemRepository.save(ucsbDiningCommonsMenuItem);
+        return incoming;
+    }
 
+    @ApiOperation(value = "Update some fields of a single menu item")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public UCSBDiningCommonsMenuItem patchUCSBDiningCommonsMenuItem(
+            @ApiParam("id") @RequestParam Long id,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem = partialUpdateService.patch(UCSBDiningCommonsMenuItem.class, id, changes)
+                .orElseThrow(() -> new EntityNotFoundException(UCSBDiningCommonsMenuItem.class, id));
+        menuItemCatalog.put(ucsbDiningCommonsMenuItem);
         return ucsbDiningCommonsMenuItem;
     }
 }
@@ -1,46 +1,101 @@
 package edu.ucsb.cs156.example.controllers;
 
+import edu.ucsb.cs156.example.config.ETagVersioned;
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
 import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
 
+import java.util.List;
+import java.util.Map;
+
 
 @Api(description = "UCSBOrganization")
 @RequestMapping("/api/ucsborganizations")
 @RestController
+@ETagVersioned("ucsborganization")
 @Slf4j
 public class UCSBOrganizationController extends ApiController {
 
     @Autowired
     UCSBOrganizationRepository ucsbOrganizationRepository;
 
+    @Autowired
+    ListQueryService listQueryService;
+
+    @Autowired
+    PartialUpdateService partialUpdateService;
+
+    @Autowired
+    JsonStreamingService jsonStreamingService;
+
     @ApiOperation(value = "List all ucsb organizations")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("/all")
-    public Iterable<UCSBOrganization> allOrganization() {
+    public Iterable<?> allOrganization(
+            @ApiParam(ListQueryService.FILTER_DESCRIPTION) @RequestParam(required = false) List<String> filter,
+            @ApiParam(ListQueryService.SORT_DESCRIPTION) @RequestParam(required = false) String sort,
+            @ApiParam(ListQueryService.FIELDS_DESCRIPTION) @RequestParam(required = false) String fields) {
+        if (filter != null || sort != null || fields != null) {
+            return listQueryService.findAll(UCSBOrganization.class, filter, sort, fields);
+        }
         Iterable<UCSBOrganization> organization = ucsbOrganizationRepository.findAll();
         return organization;
     }
 
+    @ApiOperation(value = "List ucsb organizations one page at a time, ordered by orgCode")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
+    @GetMapping(value = "/all", params = "limit")
+    public KeysetPage<UCSBOrganization> pageOrganizations(
+            @ApiParam("return rows with orgCode greater than this cursor") @RequestParam(defaultValue = "") String after,
+            @ApiParam("maximum number of rows to return") @RequestParam int limit,
+            @ApiParam(hidden = true) @RequestParam(required = false) List<String> filter,
+            @ApiParam(hidden = true) @RequestParam(required = false) String sort,
+            @ApiParam(hidden = true) @RequestParam(required = false) String fields) {
+        Pageable pageable = keysetPageRequest(limit, filter, sort, fields);
+        List<UCSBOrganization> organizations = ucsbOrganizationRepository.findByOrgCodeGreaterThanOrderByOrgCodeAsc(after, pageable);
+        return keysetPage(organizations, pageable, UCSBOrganization::getOrgCode);
+    }
+
+    @ApiOperation(value = "Stream all ucsb organizations as a JSON array")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrganizations() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jsonStreamingService.streamArray(ucsbOrganizationRepository::streamAllByOrderByOrgCodeAsc));
+    }
+
     @ApiOperation(value = "Get a single organization")
     @PreAuthorize("hasRole('ROLE_USER')")
+    @ETagVersioned
     @GetMapping("")
     public UCSBOrganization getById(
             @ApiParam("orgCode") @RequestParam String orgCode) {
@@ -77,10 +132,9 @@ public class UCSBOrganizationController extends ApiController {
     @DeleteMapping("")
     public Object deleteOrganization(
             @ApiParam("orgCode") @RequestParam String orgCode) {
-        UCSBOrganization organization = ucsbOrganizationRepository.findById(orgCode)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
-
-        ucsbOrganizationRepository.delete(organization);
+        if (ucsbOrganizationRepository.removeById(orgCode) == 0) {
+            throw new EntityNotFoundException(UCSBOrganization.class, orgCode);
+        }
         return genericMessage("UCSBOrganization with orgCode %s deleted".formatted(orgCode));
     }
 
@@ -90,18 +144,21 @@ public class UCSBOrganizationController extends ApiController {
     public UCSBOrganization updateOrganization(
             @ApiParam("orgCode") @RequestParam String orgCode,
             @RequestBody @Valid UCSBOrganization incoming) {
+        incoming.setOrgCode(orgCode);
+        if (ucsbOrganizationRepository.updateById(orgCode, incoming) == 0) {
+            throw new EntityNotFoundException(UCSBOrganization.class, orgCode);
+        }
 
-        UCSBOrganization organization = ucsbOrganizationRepository.findById(orgCode)
-                .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
-
-
-        organization.setOrgCode(incoming.getOrgCode());  
-        organization.setOrgTranslationShort(incoming.getOrgTranslationShort());
-        organization.setOrgTranslation(incoming.getOrgTranslation());
-        organization.setInactive(incoming.getInactive());
-
-        ucsbOrganizationRepository.save(organization);
+        return incoming;
+    }
 
-        return organization;
+    @ApiOperation(value = "Update some fields of a single organization")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PatchMapping("")
+    public UCSBOrganization patchOrganization(
+            @ApiParam("orgCode") @RequestParam String orgCode,
+            @ApiParam(PartialUpdateService.CHANGES_DESCRIPTION) @RequestBody Map<String, Object> changes) {
+        return ucsbOrganizationRepository.patchById(partialUpdateService, orgCode, changes)
+                .orElseThrow(() -> new EntityNotFoundException(UCSBOrganization.class, orgCode));
     }
 }
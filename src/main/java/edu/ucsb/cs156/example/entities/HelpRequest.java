@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import javax.persistence.Entity;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import javax.persistence.GeneratedValue;
 
 import lombok.Data;
@@ -17,6 +19,10 @@ import lombok.Builder;
 @NoArgsConstructor
 @Builder
 @Entity(name = "HelpRequest")
+@Table(indexes = {
+    @Index(name = "help_request_request_time_idx", columnList = "requestTime"),
+    @Index(name = "help_request_solved_request_time_idx", columnList = "solved, requestTime")
+})
 public class HelpRequest {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,35 @@
+package edu.ucsb.cs156.example.entities;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+
+/**
+ * Running totals of the reviews of one menu item, kept up to date by
+ * MenuItemRatingStatsService whenever a review is created, edited or deleted.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity(name = "menuitemratingstats")
+public class MenuItemRatingStats {
+  @Id
+  private long itemId;
+
+  private long reviewCount;
+  private long starTotal;
+  private long oneStarCount;
+  private long twoStarCount;
+  private long threeStarCount;
+  private long fourStarCount;
+  private long fiveStarCount;
+  private LocalDateTime lastReviewed;
+}
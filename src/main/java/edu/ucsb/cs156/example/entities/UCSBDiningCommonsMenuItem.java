@@ -3,6 +3,8 @@ package edu.ucsb.cs156.example.entities;
 import javax.persistence.Entity;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import javax.persistence.GeneratedValue;
 
 import lombok.Data;
@@ -15,6 +17,7 @@ import lombok.Builder;
 @NoArgsConstructor
 @Builder
 @Entity(name = "ucsbdiningcommonsmenuitem")
+@Table(indexes = @Index(name = "ucsbdiningcommonsmenuitem_dining_commons_code_idx", columnList = "diningCommonsCode"))
 public class UCSBDiningCommonsMenuItem {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.AccessLevel;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 
@@ -15,6 +17,7 @@ import javax.persistence.GenerationType;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Builder
 @Entity(name = "users")
+@Table(indexes = @Index(name = "users_email_idx", columnList = "email", unique = true))
 public class User {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
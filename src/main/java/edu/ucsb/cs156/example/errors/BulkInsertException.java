@@ -0,0 +1,30 @@
+package edu.ucsb.cs156.example.errors;
+
+/**
+ * A bulk upload stopped at record <code>index</code>; the <code>inserted</code>
+ * records before it, in <code>chunks</code> chunks, are already committed.
+ */
+public class BulkInsertException extends RuntimeException {
+  private final int index;
+  private final int inserted;
+  private final int chunks;
+
+  public BulkInsertException(int index, int inserted, int chunks, String message, Throwable cause) {
+    super(message, cause);
+    this.index = index;
+    this.inserted = inserted;
+    this.chunks = chunks;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getInserted() {
+    return inserted;
+  }
+
+  public int getChunks() {
+    return chunks;
+  }
+}
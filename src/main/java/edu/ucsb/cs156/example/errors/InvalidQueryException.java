@@ -0,0 +1,7 @@
+package edu.ucsb.cs156.example.errors;
+
+public class InvalidQueryException extends RuntimeException {
+  public InvalidQueryException(String message) {
+    super(message);
+  }
+}
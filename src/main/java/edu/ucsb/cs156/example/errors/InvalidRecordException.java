@@ -0,0 +1,14 @@
+package edu.ucsb.cs156.example.errors;
+
+public class InvalidRecordException extends RuntimeException {
+  private final int index;
+
+  public InvalidRecordException(int index, String message) {
+    super("record %d: %s".formatted(index, message));
+    this.index = index;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+}
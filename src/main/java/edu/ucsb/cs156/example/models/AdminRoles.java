@@ -0,0 +1,23 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class AdminRoles {
+  /** from app.admin.emails and app.admin.emailsFile */
+  private List<String> configuredAdmins;
+  /** users rows with admin set */
+  private List<String> userAdmins;
+  private LocalDateTime loadedAt;
+}
@@ -0,0 +1,26 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.util.List;
+
+/**
+ * One page of rows from a keyset-paginated <code>/all</code> endpoint.
+ * 
+ * <code>nextCursor</code> is the key of the last row in <code>items</code>; pass it
+ * back as <code>after</code> to fetch the following page. It is null once the
+ * last page has been reached.
+ */
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class KeysetPage<T> {
+  private List<T> items;
+  private String nextCursor;
+}
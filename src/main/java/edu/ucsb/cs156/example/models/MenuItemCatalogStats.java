@@ -0,0 +1,24 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class MenuItemCatalogStats {
+  private long rows;
+  private long maxId;
+  private LocalDateTime loadedAt;
+  /** approximate heap used by the row arrays and by each index, in bytes */
+  private Map<String, Long> indexBytes;
+  private long totalBytes;
+}
@@ -0,0 +1,24 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class MenuItemRatingSummary {
+  private long itemId;
+  private long count;
+  private double mean;
+  /** number of reviews with each star rating, keyed 1 through 5 */
+  private Map<Integer, Long> histogram;
+  private LocalDateTime lastReviewed;
+}
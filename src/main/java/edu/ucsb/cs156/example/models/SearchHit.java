@@ -0,0 +1,22 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class SearchHit {
+  /** article, helprequest or menuitemreview */
+  private String type;
+  private long id;
+  private float score;
+  private String title;
+  /** the start of the matched text */
+  private String summary;
+}
@@ -0,0 +1,24 @@
+package edu.ucsb.cs156.example.models;
+
+import lombok.Data;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.AccessLevel;
+
+import java.util.List;
+
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Builder
+public class SearchResults {
+  private String query;
+  private long totalHits;
+  private int page;
+  private int size;
+  private List<SearchHit> hits;
+  /** the index was being rebuilt, so the hits are plain text matches from the database, unscored */
+  private boolean indexRebuilding;
+}
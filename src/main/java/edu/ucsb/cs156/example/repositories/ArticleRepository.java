@@ -1,11 +1,45 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import edu.ucsb.cs156.example.entities.Article;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ArticleRepository extends CrudRepository<Article, Long> {
-    
+    List<Article> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    /** search while the index is being rebuilt (SearchService) */
+    List<Article> findByTitleContainingIgnoreCaseOrExplanationContainingIgnoreCaseOrderByIdAsc(String title, String explanation, Pageable pageable);
+
+    long countByTitleContainingIgnoreCaseOrExplanationContainingIgnoreCase(String title, String explanation);
+
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<Article> streamAllByOrderByIdAsc();
+
+    /** Writes every column of <code>incoming</code> to row <code>id</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+    @Modifying
+    @Transactional
+    @Query("update articles e set e.title = :#{#incoming.title}, e.url = :#{#incoming.url}, e.explanation = :#{#incoming.explanation}, e.email = :#{#incoming.email}, e.dateAdded = :#{#incoming.dateAdded} where e.id = :id")
+    int updateById(@Param("id") long id, @Param("incoming") Article incoming);
+
+    /** Deletes row <code>id</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+    @Modifying
+    @Transactional
+    @Query("delete from articles e where e.id = :id")
+    int removeById(@Param("id") long id);
 }
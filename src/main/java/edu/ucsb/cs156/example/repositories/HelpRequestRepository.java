@@ -1,12 +1,49 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import edu.ucsb.cs156.example.entities.HelpRequest;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface HelpRequestRepository extends CrudRepository<HelpRequest, Long> {
+  List<HelpRequest> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  /** search while the index is being rebuilt (SearchService) */
+  List<HelpRequest> findByExplanationContainingIgnoreCaseOrderByIdAsc(String explanation, Pageable pageable);
+
+  long countByExplanationContainingIgnoreCase(String explanation);
+
+  /** the open queue, oldest first; served by help_request_solved_request_time_idx */
+  List<HelpRequest> findAllBySolvedFalseOrderByRequestTimeAsc();
+
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+  Stream<HelpRequest> streamAllByOrderByIdAsc();
+
+  /** Writes every column of <code>incoming</code> to row <code>id</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+  @Modifying
+  @Transactional
+  @Query("update HelpRequest e set e.requesterEmail = :#{#incoming.requesterEmail}, e.teamId = :#{#incoming.teamId}, e.tableOrBreakoutRoom = :#{#incoming.tableOrBreakoutRoom}, e.requestTime = :#{#incoming.requestTime}, e.explanation = :#{#incoming.explanation}, e.solved = :#{#incoming.solved} where e.id = :id")
+  int updateById(@Param("id") long id, @Param("incoming") HelpRequest incoming);
 
+  /** Deletes row <code>id</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+  @Modifying
+  @Transactional
+  @Query("delete from HelpRequest e where e.id = :id")
+  int removeById(@Param("id") long id);
 }
\ No newline at end of file
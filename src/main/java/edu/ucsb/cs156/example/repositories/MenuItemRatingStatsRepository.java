@@ -0,0 +1,11 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
+
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+
+@Repository
+public interface MenuItemRatingStatsRepository extends CrudRepository<MenuItemRatingStats, Long>, MenuItemRatingStatsUpsertRepository {
+}
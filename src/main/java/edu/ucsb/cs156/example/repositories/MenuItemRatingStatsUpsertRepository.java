@@ -0,0 +1,35 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
+
+import java.time.LocalDateTime;
+
+/**
+ * Custom fragment of {@link MenuItemRatingStatsRepository} that adjusts an
+ * item's totals in the database instead of reading, changing and saving the
+ * entity, so that two transactions adding the first reviews of an item can't
+ * both insert its row.
+ */
+public interface MenuItemRatingStatsUpsertRepository {
+  /**
+   * Adds the counts of <code>delta</code> to the row of its item, inserting
+   * the row if there is none, in one statement that keeps the row locked until
+   * the transaction ends. <code>last_reviewed</code> becomes the later of the
+   * two.
+   */
+  void addTotals(MenuItemRatingStats delta);
+
+  /**
+   * Deletes the row of <code>itemId</code> if it has no reviews left.
+   *
+   * @return the number of rows deleted (0 or 1)
+   */
+  int deleteIfEmpty(long itemId);
+
+  /**
+   * Sets <code>last_reviewed</code> of <code>itemId</code> from its reviews,
+   * unless it is later than <code>removed</code>, the date of a review that
+   * was removed or changed.
+   */
+  void resetLastReviewed(long itemId, LocalDateTime removed);
+}
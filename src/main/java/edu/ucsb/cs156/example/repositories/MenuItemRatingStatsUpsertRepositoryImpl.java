@@ -0,0 +1,87 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+public class MenuItemRatingStatsUpsertRepositoryImpl implements MenuItemRatingStatsUpsertRepository {
+
+  static final String UPSERT_SQL = "INSERT INTO menuitemratingstats AS s (item_id, review_count, star_total,"
+      + " one_star_count, two_star_count, three_star_count, four_star_count, five_star_count, last_reviewed)"
+      + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"
+      + " ON CONFLICT (item_id) DO UPDATE SET review_count = s.review_count + EXCLUDED.review_count,"
+      + " star_total = s.star_total + EXCLUDED.star_total,"
+      + " one_star_count = s.one_star_count + EXCLUDED.one_star_count,"
+      + " two_star_count = s.two_star_count + EXCLUDED.two_star_count,"
+      + " three_star_count = s.three_star_count + EXCLUDED.three_star_count,"
+      + " four_star_count = s.four_star_count + EXCLUDED.four_star_count,"
+      + " five_star_count = s.five_star_count + EXCLUDED.five_star_count,"
+      + " last_reviewed = GREATEST(s.last_reviewed, EXCLUDED.last_reviewed)";
+
+  /** H2 has no ON CONFLICT; its MERGE does the same. */
+  static final String MERGE_SQL = "MERGE INTO menuitemratingstats s"
+      + " USING (SELECT CAST(? AS BIGINT) item_id, CAST(? AS BIGINT) review_count, CAST(? AS BIGINT) star_total,"
+      + " CAST(? AS BIGINT) one_star_count, CAST(? AS BIGINT) two_star_count, CAST(? AS BIGINT) three_star_count,"
+      + " CAST(? AS BIGINT) four_star_count, CAST(? AS BIGINT) five_star_count, CAST(? AS TIMESTAMP) last_reviewed) d"
+      + " ON s.item_id = d.item_id"
+      + " WHEN MATCHED THEN UPDATE SET review_count = s.review_count + d.review_count,"
+      + " star_total = s.star_total + d.star_total,"
+      + " one_star_count = s.one_star_count + d.one_star_count,"
+      + " two_star_count = s.two_star_count + d.two_star_count,"
+      + " three_star_count = s.three_star_count + d.three_star_count,"
+      + " four_star_count = s.four_star_count + d.four_star_count,"
+      + " five_star_count = s.five_star_count + d.five_star_count,"
+      + " last_reviewed = GREATEST(s.last_reviewed, d.last_reviewed)"
+      + " WHEN NOT MATCHED THEN INSERT (item_id, review_count, star_total,"
+      + " one_star_count, two_star_count, three_star_count, four_star_count, five_star_count, last_reviewed)"
+      + " VALUES (d.item_id, d.review_count, d.star_total,"
+      + " d.one_star_count, d.two_star_count, d.three_star_count, d.four_star_count, d.five_star_count, d.last_reviewed)";
+
+  static final String DELETE_IF_EMPTY_SQL = "DELETE FROM menuitemratingstats WHERE item_id = ? AND review_count <= 0";
+
+  static final String RESET_LAST_REVIEWED_SQL = "UPDATE menuitemratingstats"
+      + " SET last_reviewed = (SELECT MAX(r.date_reviewed) FROM menuitemreview r WHERE r.item_id = ?)"
+      + " WHERE item_id = ? AND (last_reviewed IS NULL OR last_reviewed <= ?)";
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  private volatile String upsertSql;
+
+  @Override
+  public void addTotals(MenuItemRatingStats delta) {
+    jdbcTemplate.update(upsertSql(),
+        delta.getItemId(),
+        delta.getReviewCount(),
+        delta.getStarTotal(),
+        delta.getOneStarCount(),
+        delta.getTwoStarCount(),
+        delta.getThreeStarCount(),
+        delta.getFourStarCount(),
+        delta.getFiveStarCount(),
+        delta.getLastReviewed() == null ? null : Timestamp.valueOf(delta.getLastReviewed()));
+  }
+
+  @Override
+  public int deleteIfEmpty(long itemId) {
+    return jdbcTemplate.update(DELETE_IF_EMPTY_SQL, itemId);
+  }
+
+  @Override
+  public void resetLastReviewed(long itemId, LocalDateTime removed) {
+    jdbcTemplate.update(RESET_LAST_REVIEWED_SQL, itemId, itemId, Timestamp.valueOf(removed));
+  }
+
+  private String upsertSql() {
+    if (upsertSql == null) {
+      String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+      upsertSql = "PostgreSQL".equals(database) ? UPSERT_SQL : MERGE_SQL;
+    }
+    return upsertSql;
+  }
+}
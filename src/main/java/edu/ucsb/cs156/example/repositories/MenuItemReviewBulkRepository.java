@@ -0,0 +1,20 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+
+import java.util.List;
+
+/**
+ * Custom fragment of {@link MenuItemReviewRepository} for inserting many
+ * reviews at once. <code>save()</code> can't batch because the ids are
+ * <code>IDENTITY</code> generated, so this goes straight to a JDBC batch.
+ */
+public interface MenuItemReviewBulkRepository {
+  /**
+   * Inserts all of <code>reviews</code> in one JDBC batch and one transaction.
+   * The ids of the reviews are ignored and not filled in.
+   *
+   * @return the number of rows inserted
+   */
+  int insertAll(List<MenuItemReview> reviews);
+}
@@ -0,0 +1,31 @@
+package edu.ucsb.cs156.example.repositories;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+public class MenuItemReviewBulkRepositoryImpl implements MenuItemReviewBulkRepository {
+
+  static final String INSERT_SQL = "INSERT INTO menuitemreview (item_id, reviewer_email, stars, date_reviewed, comments) VALUES (?, ?, ?, ?, ?)";
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Override
+  @Transactional
+  public int insertAll(List<MenuItemReview> reviews) {
+    jdbcTemplate.batchUpdate(INSERT_SQL, reviews, reviews.size(), (ps, review) -> {
+      ps.setLong(1, review.getItemId());
+      ps.setString(2, review.getReviewerEmail());
+      ps.setInt(3, review.getStars());
+      ps.setTimestamp(4, review.getDateReviewed() == null ? null : Timestamp.valueOf(review.getDateReviewed()));
+      ps.setString(5, review.getComments());
+    });
+    return reviews.size();
+  }
+}
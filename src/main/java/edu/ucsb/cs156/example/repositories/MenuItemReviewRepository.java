@@ -1,12 +1,68 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
 import edu.ucsb.cs156.example.entities.MenuItemReview;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
-public interface MenuItemReviewRepository extends CrudRepository<MenuItemReview, Long> {
- 
+public interface MenuItemReviewRepository extends CrudRepository<MenuItemReview, Long>, MenuItemReviewBulkRepository {
+  List<MenuItemReview> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  /** search while the index is being rebuilt (SearchService) */
+  List<MenuItemReview> findByCommentsContainingIgnoreCaseOrderByIdAsc(String comments, Pageable pageable);
+
+  long countByCommentsContainingIgnoreCase(String comments);
+
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+  Stream<MenuItemReview> streamAllByOrderByIdAsc();
+
+  /** Reads row <code>id</code> and locks it until the transaction ends, so the old stars and item id stay current. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<MenuItemReview> findWithLockById(long id);
+
+  @Query("select coalesce(max(r.id), 0) from menuitemreview r")
+  long findMaxId();
+
+  @Query("select max(r.dateReviewed) from menuitemreview r where r.itemId = :itemId")
+  Optional<LocalDateTime> findLastReviewedByItemId(@Param("itemId") long itemId);
+
+  @Query("select new edu.ucsb.cs156.example.entities.MenuItemRatingStats(r.itemId, count(r), sum(r.stars),"
+      + " sum(case when r.stars = 1 then 1 else 0 end), sum(case when r.stars = 2 then 1 else 0 end),"
+      + " sum(case when r.stars = 3 then 1 else 0 end), sum(case when r.stars = 4 then 1 else 0 end),"
+      + " sum(case when r.stars = 5 then 1 else 0 end), max(r.dateReviewed))"
+      + " from menuitemreview r group by r.itemId")
+  List<MenuItemRatingStats> computeRatingStats();
+
+  /** Writes every column of <code>incoming</code> to row <code>id</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+  @Modifying
+  @Transactional
+  @Query("update menuitemreview e set e.itemId = :#{#incoming.itemId}, e.reviewerEmail = :#{#incoming.reviewerEmail}, e.stars = :#{#incoming.stars}, e.dateReviewed = :#{#incoming.dateReviewed}, e.comments = :#{#incoming.comments} where e.id = :id")
+  int updateById(@Param("id") long id, @Param("incoming") MenuItemReview incoming);
+
+  /** Deletes row <code>id</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+  @Modifying
+  @Transactional
+  @Query("delete from menuitemreview e where e.id = :id")
+  int removeById(@Param("id") long id);
 }
@@ -1,12 +1,41 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import edu.ucsb.cs156.example.entities.Recommendation;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface RecommendationRepository extends CrudRepository<Recommendation, Long> {
+  List<Recommendation> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+  Stream<Recommendation> streamAllByOrderByIdAsc();
+
+  /** Writes every column of <code>incoming</code> to row <code>id</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+  @Modifying
+  @Transactional
+  @Query("update recommendations e set e.requesterEmail = :#{#incoming.requesterEmail}, e.professorEmail = :#{#incoming.professorEmail}, e.explanation = :#{#incoming.explanation}, e.dateRequested = :#{#incoming.dateRequested}, e.dateNeeded = :#{#incoming.dateNeeded}, e.done = :#{#incoming.done} where e.id = :id")
+  int updateById(@Param("id") long id, @Param("incoming") Recommendation incoming);
 
+  /** Deletes row <code>id</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+  @Modifying
+  @Transactional
+  @Query("delete from recommendations e where e.id = :id")
+  int removeById(@Param("id") long id);
 };
\ No newline at end of file
@@ -1,12 +1,100 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Reads are cached in <code>ucsbdates</code> and every write method here
+ * evicts it, so writes to this table must go through this repository. The
+ * cached entities are detached and shared between requests: don't modify
+ * one that came from the cache; copy it, or write with save, updateById or
+ * patchById.
+ */
 @Repository
 public interface UCSBDateRepository extends CrudRepository<UCSBDate, Long> {
+  String CACHE = "ucsbdates";
+
+  @Override
+  @Cacheable(CACHE)
+  Iterable<UCSBDate> findAll();
+
+  @Override
+  @Cacheable(CACHE)
+  Optional<UCSBDate> findById(Long id);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  <S extends UCSBDate> S save(S entity);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  <S extends UCSBDate> Iterable<S> saveAll(Iterable<S> entities);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void delete(UCSBDate entity);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteById(Long id);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteAll();
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteAll(Iterable<? extends UCSBDate> entities);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteAllById(Iterable<? extends Long> ids);
+
+  @Cacheable(CACHE)
   Iterable<UCSBDate> findAllByQuarterYYYYQ(String quarterYYYYQ);
-}
\ No newline at end of file
+  List<UCSBDate> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+  Stream<UCSBDate> streamAllByOrderByIdAsc();
+
+  /** Writes every column of <code>incoming</code> to row <code>id</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+  @Modifying
+  @Transactional
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  @Query("update ucsbdates e set e.quarterYYYYQ = :#{#incoming.quarterYYYYQ}, e.name = :#{#incoming.name}, e.localDateTime = :#{#incoming.localDateTime} where e.id = :id")
+  int updateById(@Param("id") long id, @Param("incoming") UCSBDate incoming);
+
+  /** Deletes row <code>id</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+  @Modifying
+  @Transactional
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  @Query("delete from ucsbdates e where e.id = :id")
+  int removeById(@Param("id") long id);
+
+  /** Applies a PATCH through PartialUpdateService, evicting the cache like the other writes. */
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  default Optional<UCSBDate> patchById(PartialUpdateService partialUpdateService, long id, Map<String, Object> changes) {
+    return partialUpdateService.patch(UCSBDate.class, id, changes);
+  }
+}
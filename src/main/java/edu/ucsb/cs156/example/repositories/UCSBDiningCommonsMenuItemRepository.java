@@ -1,12 +1,42 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+
+import java.util.List;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface UCSBDiningCommonsMenuItemRepository extends CrudRepository<UCSBDiningCommonsMenuItem, Long> {
     Iterable<UCSBDiningCommonsMenuItem> findAllByDiningCommonsCode(String diningCommonsCode);
+    List<UCSBDiningCommonsMenuItem> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<UCSBDiningCommonsMenuItem> streamAllByOrderByIdAsc();
+
+    /** Writes every column of <code>incoming</code> to row <code>id</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+    @Modifying
+    @Transactional
+    @Query("update ucsbdiningcommonsmenuitem e set e.diningCommonsCode = :#{#incoming.diningCommonsCode}, e.name = :#{#incoming.name}, e.station = :#{#incoming.station} where e.id = :id")
+    int updateById(@Param("id") long id, @Param("incoming") UCSBDiningCommonsMenuItem incoming);
+
+    /** Deletes row <code>id</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+    @Modifying
+    @Transactional
+    @Query("delete from ucsbdiningcommonsmenuitem e where e.id = :id")
+    int removeById(@Param("id") long id);
 }
\ No newline at end of file
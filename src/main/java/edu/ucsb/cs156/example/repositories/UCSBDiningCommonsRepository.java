@@ -1,13 +1,98 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
-import org.springframework.beans.propertyeditors.StringArrayPropertyEditor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Reads are cached in <code>ucsbdiningcommons</code> and every write method
+ * here evicts it, so writes to this table must go through this repository.
+ * The cached entities are detached and shared between requests: don't
+ * modify one that came from the cache; copy it, or write with save,
+ * updateById or patchById.
+ */
 @Repository
 public interface UCSBDiningCommonsRepository extends CrudRepository<UCSBDiningCommons, String> {
- 
-}
\ No newline at end of file
+  String CACHE = "ucsbdiningcommons";
+
+  @Override
+  @Cacheable(CACHE)
+  Iterable<UCSBDiningCommons> findAll();
+
+  @Override
+  @Cacheable(CACHE)
+  Optional<UCSBDiningCommons> findById(String code);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  <S extends UCSBDiningCommons> S save(S entity);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  <S extends UCSBDiningCommons> Iterable<S> saveAll(Iterable<S> entities);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void delete(UCSBDiningCommons entity);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteById(String code);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteAll();
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteAll(Iterable<? extends UCSBDiningCommons> entities);
+
+  @Override
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  void deleteAllById(Iterable<? extends String> ids);
+
+  List<UCSBDiningCommons> findByCodeGreaterThanOrderByCodeAsc(String code, Pageable pageable);
+
+  @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+  Stream<UCSBDiningCommons> streamAllByOrderByCodeAsc();
+
+  /** Writes every column of <code>incoming</code> to row <code>code</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+  @Modifying
+  @Transactional
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  @Query("update ucsbdiningcommons e set e.name = :#{#incoming.name}, e.hasSackMeal = :#{#incoming.hasSackMeal}, e.hasTakeOutMeal = :#{#incoming.hasTakeOutMeal}, e.hasDiningCam = :#{#incoming.hasDiningCam}, e.latitude = :#{#incoming.latitude}, e.longitude = :#{#incoming.longitude} where e.code = :code")
+  int updateById(@Param("code") String code, @Param("incoming") UCSBDiningCommons incoming);
+
+  /** Deletes row <code>code</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+  @Modifying
+  @Transactional
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  @Query("delete from ucsbdiningcommons e where e.code = :code")
+  int removeById(@Param("code") String code);
+
+  /** Applies a PATCH through PartialUpdateService, evicting the cache like the other writes. */
+  @CacheEvict(cacheNames = CACHE, allEntries = true)
+  default Optional<UCSBDiningCommons> patchById(PartialUpdateService partialUpdateService, String code, Map<String, Object> changes) {
+    return partialUpdateService.patch(UCSBDiningCommons.class, code, changes);
+  }
+}
@@ -1,11 +1,98 @@
 package edu.ucsb.cs156.example.repositories;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Reads are cached in <code>ucsborganizations</code> and every write method
+ * here evicts it, so writes to this table must go through this repository.
+ * The cached entities are detached and shared between requests: don't
+ * modify one that came from the cache; copy it, or write with save,
+ * updateById or patchById.
+ */
 @Repository
 public interface UCSBOrganizationRepository extends CrudRepository<UCSBOrganization, String>{
-    
+    String CACHE = "ucsborganizations";
+
+    @Override
+    @Cacheable(CACHE)
+    Iterable<UCSBOrganization> findAll();
+
+    @Override
+    @Cacheable(CACHE)
+    Optional<UCSBOrganization> findById(String orgCode);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    <S extends UCSBOrganization> S save(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    <S extends UCSBOrganization> Iterable<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    void delete(UCSBOrganization entity);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    void deleteById(String orgCode);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    void deleteAll(Iterable<? extends UCSBOrganization> entities);
+
+    @Override
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    void deleteAllById(Iterable<? extends String> ids);
+
+    List<UCSBOrganization> findByOrgCodeGreaterThanOrderByOrgCodeAsc(String orgCode, Pageable pageable);
+
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READONLY, value = "true") })
+    Stream<UCSBOrganization> streamAllByOrderByOrgCodeAsc();
+
+    /** Writes every column of <code>incoming</code> to row <code>orgCode</code> in one UPDATE; returns the number of rows changed (0 or 1). */
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    @Query("update ucsborganization e set e.orgTranslationShort = :#{#incoming.orgTranslationShort}, e.orgTranslation = :#{#incoming.orgTranslation}, e.inactive = :#{#incoming.inactive} where e.orgCode = :orgCode")
+    int updateById(@Param("orgCode") String orgCode, @Param("incoming") UCSBOrganization incoming);
+
+    /** Deletes row <code>orgCode</code> in one DELETE; returns the number of rows deleted (0 or 1). */
+    @Modifying
+    @Transactional
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    @Query("delete from ucsborganization e where e.orgCode = :orgCode")
+    int removeById(@Param("orgCode") String orgCode);
+
+    /** Applies a PATCH through PartialUpdateService, evicting the cache like the other writes. */
+    @CacheEvict(cacheNames = CACHE, allEntries = true)
+    default Optional<UCSBOrganization> patchById(PartialUpdateService partialUpdateService, String orgCode, Map<String, Object> changes) {
+        return partialUpdateService.patch(UCSBOrganization.class, orgCode, changes);
+    }
 }
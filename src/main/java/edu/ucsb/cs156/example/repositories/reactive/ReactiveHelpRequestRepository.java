@@ -0,0 +1,17 @@
+package edu.ucsb.cs156.example.repositories.reactive;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of <code>help_request</code> over R2DBC; only created
+ * when <code>app.reactive.enabled=true</code>.
+ */
+public interface ReactiveHelpRequestRepository extends Repository<HelpRequest, Long> {
+  @Query("SELECT * FROM help_request ORDER BY id")
+  Flux<HelpRequest> findAllOrderById();
+}
@@ -0,0 +1,21 @@
+package edu.ucsb.cs156.example.repositories.reactive;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of <code>menuitemreview</code> over R2DBC; only created
+ * when <code>app.reactive.enabled=true</code> (see ReactiveConfig). Writes
+ * stay on the JPA repository.
+ */
+public interface ReactiveMenuItemReviewRepository extends Repository<MenuItemReview, Long> {
+  @Query("SELECT * FROM menuitemreview ORDER BY id")
+  Flux<MenuItemReview> findAllOrderById();
+
+  @Query("SELECT * FROM menuitemreview WHERE item_id = :itemId ORDER BY id")
+  Flux<MenuItemReview> findAllByItemIdOrderById(long itemId);
+}
@@ -0,0 +1,20 @@
+package edu.ucsb.cs156.example.repositories.reactive;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of <code>ucsbdiningcommonsmenuitem</code> over R2DBC;
+ * only created when <code>app.reactive.enabled=true</code>.
+ */
+public interface ReactiveUCSBDiningCommonsMenuItemRepository extends Repository<UCSBDiningCommonsMenuItem, Long> {
+  @Query("SELECT * FROM ucsbdiningcommonsmenuitem ORDER BY id")
+  Flux<UCSBDiningCommonsMenuItem> findAllOrderById();
+
+  @Query("SELECT * FROM ucsbdiningcommonsmenuitem WHERE dining_commons_code = :diningCommonsCode ORDER BY id")
+  Flux<UCSBDiningCommonsMenuItem> findAllByDiningCommonsCodeOrderById(String diningCommonsCode);
+}
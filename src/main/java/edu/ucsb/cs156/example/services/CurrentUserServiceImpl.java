@@ -5,13 +5,10 @@ import edu.ucsb.cs156.example.models.CurrentUser;
 import edu.ucsb.cs156.example.repositories.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
@@ -30,21 +27,38 @@ public class CurrentUserServiceImpl extends CurrentUserService {
   @Autowired
   GrantedAuthoritiesService grantedAuthoritiesService;
 
-  @Value("${app.admin.emails}")
-  final private List<String> adminEmails = new ArrayList<String>();
+  @Autowired
+  UserCache userCache;
+
+  @Autowired
+  RoleRegistry roleRegistry;
 
   public CurrentUser getCurrentUser() {
     CurrentUser cu = CurrentUser.builder()
       .user(this.getUser())
       .roles(this.getRoles())
       .build();
-    log.info("getCurrentUser returns {}",cu);
+    log.debug("getCurrentUser returns {}",cu);
     return cu;
   }
 
   
   public User getOAuth2AuthenticatedUser(SecurityContext securityContext, Authentication authentication) {
     OAuth2User oAuthUser = ((OAuth2AuthenticationToken) authentication).getPrincipal();
+    String googleSub = oAuthUser.getAttribute("sub");
+
+    Optional<User> cached = userCache.get(googleSub);
+    // a configured admin that isn't marked as one yet goes through loadOrCreateUser to be promoted
+    if (cached.isPresent() && (cached.get().getAdmin() || !roleRegistry.isConfiguredAdmin(cached.get().getEmail()))) {
+      return cached.get();
+    }
+
+    User u = loadOrCreateUser(oAuthUser);
+    userCache.put(googleSub, u);
+    return u;
+  }
+
+  private User loadOrCreateUser(OAuth2User oAuthUser) {
     String email = oAuthUser.getAttribute("email");
     String googleSub = oAuthUser.getAttribute("sub");
     String pictureUrl = oAuthUser.getAttribute("picture");
@@ -56,14 +70,14 @@ public class CurrentUserServiceImpl extends CurrentUserService {
     String hostedDomain = oAuthUser.getAttribute("hd");
 
     java.util.Map<java.lang.String,java.lang.Object> attrs = oAuthUser.getAttributes();
-    log.info("attrs={}",attrs);
+    log.debug("attrs={}",attrs);
 
     Optional<User> ou = userRepository.findByEmail(email);
     if (ou.isPresent()) {
       User u = ou.get();
-      if (adminEmails.contains(email) && !u.getAdmin()) {
+      if (roleRegistry.isConfiguredAdmin(email) && !u.getAdmin()) {
         u.setAdmin(true);
-        userRepository.save(u);
+        save(u);
       }
       return u;
     }
@@ -78,12 +92,18 @@ public class CurrentUserServiceImpl extends CurrentUserService {
         .emailVerified(emailVerified)
         .locale(locale)
         .hostedDomain(hostedDomain)
-        .admin(adminEmails.contains(email))
+        .admin(roleRegistry.isConfiguredAdmin(email))
         .build();
-    userRepository.save(u);
+    save(u);
     return u;
   }
 
+  private void save(User u) {
+    userRepository.save(u);
+    userCache.invalidate(u.getGoogleSub());
+    roleRegistry.userSaved(u);
+  }
+
   public User getUser() {
     SecurityContext securityContext = SecurityContextHolder.getContext();
     Authentication authentication = securityContext.getAuthentication();
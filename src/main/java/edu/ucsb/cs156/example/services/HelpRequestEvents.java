@@ -0,0 +1,98 @@
+package edu.ucsb.cs156.example.services;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The change feed behind <code>GET /api/HelpRequest/stream</code>.
+ *
+ * The help request handlers call {@link #publish} after each write, and every
+ * connected dashboard receives a <code>created</code>, <code>updated</code>
+ * or <code>deleted</code> event whose data is the help request as JSON.
+ * Events are sent from a single background thread, so a slow client never
+ * holds up the write that caused the event; a client whose connection fails
+ * is dropped. A comment is sent every <code>app.helpRequests.heartbeatMillis</code>
+ * so that idle connections aren't closed by proxies.
+ *
+ * Events are not replayed: a client that reconnects should reload
+ * <code>/api/HelpRequest/open</code>.
+ */
+
+@Slf4j
+@Service
+public class HelpRequestEvents {
+
+  public static final String CREATED = "created";
+  public static final String UPDATED = "updated";
+  public static final String DELETED = "deleted";
+
+  @Value("${app.helpRequests.streamTimeoutMillis:1800000}")
+  long streamTimeoutMillis;
+
+  private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+  private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "help-request-events");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicLong nextEventId = new AtomicLong();
+
+  public SseEmitter subscribe() {
+    SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+    emitters.add(emitter);
+    emitter.onCompletion(() -> emitters.remove(emitter));
+    emitter.onTimeout(() -> emitters.remove(emitter));
+    emitter.onError(e -> emitters.remove(emitter));
+    log.debug("help request stream subscribed, {} clients", emitters.size());
+    return emitter;
+  }
+
+  public int getSubscriberCount() {
+    return emitters.size();
+  }
+
+  public void publish(String eventName, HelpRequest helpRequest) {
+    String id = Long.toString(nextEventId.incrementAndGet());
+    sender.execute(() -> sendToAll(() -> SseEmitter.event().id(id).name(eventName).data(helpRequest)));
+  }
+
+  @Scheduled(initialDelayString = "${app.helpRequests.heartbeatMillis:25000}", fixedDelayString = "${app.helpRequests.heartbeatMillis:25000}")
+  public void heartbeat() {
+    if (!emitters.isEmpty()) {
+      sender.execute(() -> sendToAll(() -> SseEmitter.event().comment("heartbeat")));
+    }
+  }
+
+  @PreDestroy
+  public void close() {
+    sender.shutdownNow();
+    emitters.forEach(SseEmitter::complete);
+  }
+
+  /** an SseEventBuilder can only be sent once, so this makes one per client */
+  void sendToAll(Supplier<SseEmitter.SseEventBuilder> event) {
+    for (SseEmitter emitter : emitters) {
+      try {
+        emitter.send(event.get());
+      } catch (IOException | IllegalStateException e) {
+        emitters.remove(emitter);
+        emitter.completeWithError(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package edu.ucsb.cs156.example.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import edu.ucsb.cs156.example.config.AsyncTimeoutInterceptor;
+
+/**
+ * Writes the rows of a repository <code>Stream</code> query to the response as a
+ * JSON array, one row at a time, instead of building the whole list (and the
+ * whole JSON string) in memory first.
+ * 
+ * The query runs inside a read-only transaction opened on the thread that
+ * writes the response, since a <code>Stream</code> result is only usable while its
+ * transaction is open. Each row is detached once written so the persistence
+ * context does not grow with the size of the table.
+ *
+ * Writing a whole table can take longer than the default async timeout, so
+ * the request that asked for the stream gets <code>app.export.timeout</code>
+ * instead (see AsyncTimeoutInterceptor).
+ */
+
+@Service
+public class JsonStreamingService {
+
+  @Autowired
+  ObjectMapper mapper;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Value("${app.export.timeout:10m}")
+  Duration exportTimeout = Duration.ofMinutes(10);
+
+  public <T> StreamingResponseBody streamArray(Supplier<Stream<T>> query) {
+    AsyncTimeoutInterceptor.setTimeout(exportTimeout);
+    ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    return out -> {
+      TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+      transactionTemplate.setReadOnly(true);
+      transactionTemplate.executeWithoutResult(status -> {
+        try (Stream<T> rows = query.get();
+            JsonGenerator generator = writer.createGenerator(out)) {
+          generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          generator.writeStartArray();
+          Iterator<T> iterator = rows.iterator();
+          while (iterator.hasNext()) {
+            T row = iterator.next();
+            writer.writeValue(generator, row);
+            entityManager.detach(row);
+          }
+          generator.writeEndArray();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    };
+  }
+}
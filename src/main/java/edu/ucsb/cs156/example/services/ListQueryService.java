@@ -0,0 +1,193 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+
+/**
+ * Runs the <code>filter</code>, <code>sort</code> and <code>fields</code>
+ * parameters of the <code>/all</code> endpoints as a single SQL query.
+ *
+ * <ul>
+ * <li><code>filter=field:op:value,field:op:value</code> (or the parameter
+ * repeated); all must match. op is one of eq, ne, lt, le, gt, ge, like
+ * (case-insensitive substring) or in (values separated by <code>|</code>).
+ * Values can't contain commas.</li>
+ * <li><code>sort=field,-field</code>; a leading <code>-</code> sorts
+ * descending</li>
+ * <li><code>fields=field,field</code> selects only those columns and returns
+ * each row as a JSON object with just those keys</li>
+ * </ul>
+ *
+ * Field names are the entity's Java property names; anything that is not a
+ * column of the entity is rejected with {@link InvalidQueryException}.
+ */
+
+@Service
+@Transactional(readOnly = true)
+public class ListQueryService {
+
+  public static final String FILTER_DESCRIPTION = "comma-separated field:op:value conditions, all of which must match; op is eq, ne, lt, le, gt, ge, like or in (values separated by |), e.g. stars:ge:4,comments:like:salty";
+  public static final String SORT_DESCRIPTION = "comma-separated fields, - for descending, e.g. -dateReviewed,id";
+  public static final String FIELDS_DESCRIPTION = "comma-separated fields to return, e.g. id,stars";
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  public <E> List<?> findAll(Class<E> entityType, List<String> filters, String sort, String fields) {
+    Map<String, SingularAttribute<? super E, ?>> attributes = attributes(entityType);
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+    if (fields == null) {
+      CriteriaQuery<E> query = cb.createQuery(entityType);
+      Root<E> root = query.from(entityType);
+      query.select(root);
+      restrict(cb, query, root, attributes, filters, sort);
+      return entityManager.createQuery(query).getResultList();
+    }
+
+    List<String> selected = split(fields);
+    if (selected.isEmpty()) {
+      throw new InvalidQueryException("fields must name at least one field");
+    }
+    CriteriaQuery<Tuple> query = cb.createTupleQuery();
+    Root<E> root = query.from(entityType);
+    query.multiselect(selected.stream()
+        .<Selection<?>>map(field -> root.get(attribute(attributes, field)).alias(field))
+        .collect(Collectors.toList()));
+    restrict(cb, query, root, attributes, filters, sort);
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      for (String field : selected) {
+        row.put(field, tuple.get(field));
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  private <E> void restrict(CriteriaBuilder cb, CriteriaQuery<?> query, Root<E> root,
+      Map<String, SingularAttribute<? super E, ?>> attributes, List<String> filters, String sort) {
+    if (filters != null) {
+      List<Predicate> predicates = new ArrayList<>();
+      for (String filter : filters) {
+        predicates.add(predicate(cb, root, attributes, filter));
+      }
+      query.where(predicates.toArray(new Predicate[0]));
+    }
+    if (sort != null) {
+      List<Order> orders = new ArrayList<>();
+      for (String field : split(sort)) {
+        boolean descending = field.startsWith("-");
+        Path<?> path = root.get(attribute(attributes, descending ? field.substring(1) : field));
+        orders.add(descending ? cb.desc(path) : cb.asc(path));
+      }
+      query.orderBy(orders);
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private <E> Predicate predicate(CriteriaBuilder cb, Root<E> root,
+      Map<String, SingularAttribute<? super E, ?>> attributes, String filter) {
+    String[] parts = filter.split(":", 3);
+    if (parts.length != 3) {
+      throw new InvalidQueryException("filter must be field:op:value, got %s".formatted(filter));
+    }
+    SingularAttribute<? super E, ?> attribute = attribute(attributes, parts[0]);
+    Class<?> type = attribute.getJavaType();
+    Path path = root.get(attribute);
+    String op = parts[1];
+    String value = parts[2];
+
+    switch (op) {
+      case "eq":
+        return cb.equal(path, convert(value, type, parts[0]));
+      case "ne":
+        return cb.notEqual(path, convert(value, type, parts[0]));
+      case "lt":
+        return cb.lessThan(path, (Comparable) convert(value, type, parts[0]));
+      case "le":
+        return cb.lessThanOrEqualTo(path, (Comparable) convert(value, type, parts[0]));
+      case "gt":
+        return cb.greaterThan(path, (Comparable) convert(value, type, parts[0]));
+      case "ge":
+        return cb.greaterThanOrEqualTo(path, (Comparable) convert(value, type, parts[0]));
+      case "like":
+        if (type != String.class) {
+          throw new InvalidQueryException("like only applies to text fields, not %s".formatted(parts[0]));
+        }
+        String pattern = "%" + value.toLowerCase(Locale.ROOT).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return cb.like(cb.lower(path), pattern, '\\');
+      case "in":
+        return path.in(Arrays.stream(value.split("\\|"))
+            .map(v -> convert(v, type, parts[0]))
+            .collect(Collectors.toList()));
+      default:
+        throw new InvalidQueryException("unknown filter operator %s in %s".formatted(op, filter));
+    }
+  }
+
+  private Object convert(String value, Class<?> type, String field) {
+    try {
+      if (type == LocalDateTime.class) {
+        return LocalDateTime.parse(value);
+      }
+      if (type == LocalDate.class) {
+        return LocalDate.parse(value);
+      }
+      return DefaultConversionService.getSharedInstance().convert(value, type);
+    } catch (ConversionException | DateTimeParseException e) {
+      throw new InvalidQueryException("%s is not a valid value for %s".formatted(value, field));
+    }
+  }
+
+  private <E> Map<String, SingularAttribute<? super E, ?>> attributes(Class<E> entityType) {
+    Map<String, SingularAttribute<? super E, ?>> attributes = new LinkedHashMap<>();
+    for (SingularAttribute<? super E, ?> attribute : entityManager.getMetamodel().entity(entityType).getSingularAttributes()) {
+      attributes.put(attribute.getName(), attribute);
+    }
+    return attributes;
+  }
+
+  private static <E> SingularAttribute<? super E, ?> attribute(Map<String, SingularAttribute<? super E, ?>> attributes, String field) {
+    SingularAttribute<? super E, ?> attribute = attributes.get(field);
+    if (attribute == null) {
+      throw new InvalidQueryException("unknown field %s; expected one of %s".formatted(field, attributes.keySet()));
+    }
+    return attribute;
+  }
+
+  private static List<String> split(String list) {
+    return Arrays.stream(list.split(","))
+        .map(String::trim)
+        .filter(s -> !s.isEmpty())
+        .collect(Collectors.toList());
+  }
+}
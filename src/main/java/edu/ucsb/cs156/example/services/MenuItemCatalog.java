@@ -0,0 +1,328 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.MenuItemCatalogStats;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * An in-memory copy of <code>ucsbdiningcommonsmenuitem</code> for menu
+ * browsing, so that lookups by dining commons, station and name prefix don't
+ * go to the database.
+ *
+ * The rows are held column-wise in arrays, partitioned by dining commons code
+ * (each commons' rows are contiguous and in id order), with a postings list per
+ * commons and station and a name-sorted index for prefix search. A snapshot is
+ * never modified once built; writers build a new one and swap it in, so
+ * readers don't lock.
+ *
+ * The menu item handlers call {@link #put} and {@link #remove} after each
+ * write. Rows inserted by other instances are picked up by {@link #refresh()},
+ * which reads only ids above the highest one loaded; updates and deletes made
+ * elsewhere are picked up by the periodic full {@link #reload()}.
+ */
+
+@Slf4j
+@Service
+public class MenuItemCatalog {
+
+  static final int LOAD_BATCH_SIZE = 1000;
+
+  @Autowired
+  UCSBDiningCommonsMenuItemRepository menuItemRepository;
+
+  private volatile Snapshot snapshot;
+
+  /**
+   * Finds menu items, ignoring any criterion that is null. Results are in id
+   * order within each dining commons, except that a name prefix search across
+   * all dining commons is in name order.
+   */
+  public List<UCSBDiningCommonsMenuItem> find(String diningCommonsCode, String station, String namePrefix, int limit) {
+    return snapshot().find(diningCommonsCode, station, namePrefix, limit);
+  }
+
+  public MenuItemCatalogStats getStats() {
+    Snapshot current = snapshot();
+    Map<String, Long> indexBytes = current.indexBytes();
+    return MenuItemCatalogStats.builder()
+        .rows(current.ids.length)
+        .maxId(current.maxId)
+        .loadedAt(current.loadedAt)
+        .indexBytes(indexBytes)
+        .totalBytes(indexBytes.values().stream().mapToLong(Long::longValue).sum())
+        .build();
+  }
+
+  public synchronized void put(UCSBDiningCommonsMenuItem item) {
+    Map<Long, UCSBDiningCommonsMenuItem> rows = snapshot().rows();
+    rows.put(item.getId(), copyOf(item));
+    snapshot = new Snapshot(rows.values());
+  }
+
+  public synchronized void remove(long id) {
+    Map<Long, UCSBDiningCommonsMenuItem> rows = snapshot().rows();
+    if (rows.remove(id) != null) {
+      snapshot = new Snapshot(rows.values());
+    }
+  }
+
+  /**
+   * Adds the rows inserted since the last load.
+   *
+   * @return the number of rows added
+   */
+  @Scheduled(initialDelayString = "${app.catalog.refreshMillis:30000}", fixedDelayString = "${app.catalog.refreshMillis:30000}")
+  public synchronized int refresh() {
+    if (snapshot == null) {
+      return reload();
+    }
+    List<UCSBDiningCommonsMenuItem> added = loadAfter(snapshot.maxId);
+    if (!added.isEmpty()) {
+      Map<Long, UCSBDiningCommonsMenuItem> rows = snapshot.rows();
+      added.forEach(item -> rows.put(item.getId(), item));
+      snapshot = new Snapshot(rows.values());
+      log.debug("menu item catalog: added {} rows", added.size());
+    }
+    return added.size();
+  }
+
+  /**
+   * Replaces the catalog with the current contents of the table.
+   *
+   * @return the number of rows loaded
+   */
+  @Scheduled(initialDelayString = "${app.catalog.reloadMillis:600000}", fixedDelayString = "${app.catalog.reloadMillis:600000}")
+  public synchronized int reload() {
+    snapshot = new Snapshot(loadAfter(0));
+    log.info("menu item catalog: loaded {} rows", snapshot.ids.length);
+    return snapshot.ids.length;
+  }
+
+  private Snapshot snapshot() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          reload();
+        }
+        current = snapshot;
+      }
+    }
+    return current;
+  }
+
+  private List<UCSBDiningCommonsMenuItem> loadAfter(long id) {
+    List<UCSBDiningCommonsMenuItem> rows = new ArrayList<>();
+    List<UCSBDiningCommonsMenuItem> batch;
+    do {
+      batch = menuItemRepository.findByIdGreaterThanOrderByIdAsc(id, PageRequest.of(0, LOAD_BATCH_SIZE));
+      rows.addAll(batch);
+      if (!batch.isEmpty()) {
+        id = batch.get(batch.size() - 1).getId();
+      }
+    } while (batch.size() == LOAD_BATCH_SIZE);
+    return rows;
+  }
+
+  private static UCSBDiningCommonsMenuItem copyOf(UCSBDiningCommonsMenuItem item) {
+    return UCSBDiningCommonsMenuItem.builder()
+        .id(item.getId())
+        .diningCommonsCode(item.getDiningCommonsCode())
+        .name(item.getName())
+        .station(item.getStation())
+        .build();
+  }
+
+  private static final class Snapshot {
+    // Rough JVM object sizes (64-bit, compressed oops, Latin-1 strings) for getStats()
+    private static final long ARRAY_HEADER = 16;
+    private static final long REFERENCE = 4;
+    private static final long STRING_OVERHEAD = 24 + ARRAY_HEADER;
+    private static final long MAP_ENTRY = 32 + REFERENCE;
+
+    private static final int[] NO_ROWS = {};
+    private static final int[] EMPTY_RANGE = { 0, 0 };
+
+    final long[] ids;
+    final int[] commons;
+    final int[] stations;
+    final String[] names;
+    final String[] commonsCodes;
+    final String[] stationNames;
+
+    /** dining commons code to the {start, end} of its rows */
+    final Map<String, int[]> partitions = new HashMap<>();
+    /** dining commons code and station to the positions of their rows */
+    final Map<String, int[]> byStation = new HashMap<>();
+    /** row positions ordered by lower-case name, and those names */
+    final int[] byName;
+    final String[] nameKeys;
+
+    final long maxId;
+    final LocalDateTime loadedAt = LocalDateTime.now();
+
+    Snapshot(Collection<UCSBDiningCommonsMenuItem> items) {
+      List<UCSBDiningCommonsMenuItem> sorted = new ArrayList<>(items);
+      sorted.sort(Comparator
+          .comparing(UCSBDiningCommonsMenuItem::getDiningCommonsCode, Comparator.nullsFirst(Comparator.naturalOrder()))
+          .thenComparingLong(UCSBDiningCommonsMenuItem::getId));
+
+      int n = sorted.size();
+      ids = new long[n];
+      commons = new int[n];
+      stations = new int[n];
+      names = new String[n];
+      Map<String, Integer> commonsCodeIndex = new LinkedHashMap<>();
+      Map<String, Integer> stationIndex = new LinkedHashMap<>();
+      Map<String, List<Integer>> stationRows = new HashMap<>();
+      long max = 0;
+      for (int row = 0; row < n; row++) {
+        UCSBDiningCommonsMenuItem item = sorted.get(row);
+        String code = item.getDiningCommonsCode();
+        ids[row] = item.getId();
+        commons[row] = commonsCodeIndex.computeIfAbsent(code, c -> commonsCodeIndex.size());
+        stations[row] = stationIndex.computeIfAbsent(item.getStation(), s -> stationIndex.size());
+        names[row] = item.getName();
+        max = Math.max(max, item.getId());
+
+        int[] range = partitions.computeIfAbsent(code, c -> new int[2]);
+        if (range[1] == 0) {
+          range[0] = row;
+        }
+        range[1] = row + 1;
+        stationRows.computeIfAbsent(stationKey(code, item.getStation()), k -> new ArrayList<>()).add(row);
+      }
+      maxId = max;
+      commonsCodes = commonsCodeIndex.keySet().toArray(new String[0]);
+      stationNames = stationIndex.keySet().toArray(new String[0]);
+      stationRows.forEach((key, rows) -> byStation.put(key, rows.stream().mapToInt(Integer::intValue).toArray()));
+
+      String[] lowerNames = new String[n];
+      for (int row = 0; row < n; row++) {
+        lowerNames[row] = names[row] == null ? "" : names[row].toLowerCase(Locale.ROOT);
+      }
+      byName = IntStream.range(0, n).boxed()
+          .sorted(Comparator.comparing((Integer row) -> lowerNames[row]).thenComparingLong(row -> ids[row]))
+          .mapToInt(Integer::intValue)
+          .toArray();
+      nameKeys = new String[n];
+      for (int i = 0; i < n; i++) {
+        nameKeys[i] = lowerNames[byName[i]];
+      }
+    }
+
+    List<UCSBDiningCommonsMenuItem> find(String code, String station, String namePrefix, int limit) {
+      String prefix = namePrefix == null ? null : namePrefix.toLowerCase(Locale.ROOT);
+      List<UCSBDiningCommonsMenuItem> result = new ArrayList<>();
+      if (code != null && station != null) {
+        for (int row : byStation.getOrDefault(stationKey(code, station), NO_ROWS)) {
+          if (result.size() == limit) {
+            break;
+          }
+          if (hasNamePrefix(row, prefix)) {
+            result.add(item(row));
+          }
+        }
+      } else if (code != null) {
+        int[] range = partitions.getOrDefault(code, EMPTY_RANGE);
+        for (int row = range[0]; row < range[1] && result.size() < limit; row++) {
+          if (hasNamePrefix(row, prefix)) {
+            result.add(item(row));
+          }
+        }
+      } else if (prefix != null) {
+        for (int i = firstNameAtLeast(prefix); i < nameKeys.length && nameKeys[i].startsWith(prefix) && result.size() < limit; i++) {
+          if (station == null || station.equals(stationNames[stations[byName[i]]])) {
+            result.add(item(byName[i]));
+          }
+        }
+      } else {
+        for (int row = 0; row < ids.length && result.size() < limit; row++) {
+          if (station == null || station.equals(stationNames[stations[row]])) {
+            result.add(item(row));
+          }
+        }
+      }
+      return result;
+    }
+
+    Map<Long, UCSBDiningCommonsMenuItem> rows() {
+      Map<Long, UCSBDiningCommonsMenuItem> rows = new HashMap<>();
+      for (int row = 0; row < ids.length; row++) {
+        rows.put(ids[row], item(row));
+      }
+      return rows;
+    }
+
+    Map<String, Long> indexBytes() {
+      Map<String, Long> bytes = new LinkedHashMap<>();
+      int n = ids.length;
+      bytes.put("rows", array(8, n) + 2 * array(4, n) + array(REFERENCE, n) + strings(names)
+          + array(REFERENCE, commonsCodes.length) + strings(commonsCodes)
+          + array(REFERENCE, stationNames.length) + strings(stationNames));
+      bytes.put("diningCommonsCode", map(partitions.size()) + partitions.size() * array(4, 2));
+      bytes.put("diningCommonsCodeAndStation", map(byStation.size()) + strings(byStation.keySet().toArray(new String[0]))
+          + byStation.values().stream().mapToLong(rows -> array(4, rows.length)).sum());
+      bytes.put("namePrefix", array(4, n) + array(REFERENCE, n) + strings(nameKeys));
+      return bytes;
+    }
+
+    private UCSBDiningCommonsMenuItem item(int row) {
+      return UCSBDiningCommonsMenuItem.builder()
+          .id(ids[row])
+          .diningCommonsCode(commonsCodes[commons[row]])
+          .name(names[row])
+          .station(stationNames[stations[row]])
+          .build();
+    }
+
+    private boolean hasNamePrefix(int row, String prefix) {
+      return prefix == null || (names[row] != null && names[row].regionMatches(true, 0, prefix, 0, prefix.length()));
+    }
+
+    private int firstNameAtLeast(String prefix) {
+      int position = Arrays.binarySearch(nameKeys, prefix);
+      if (position < 0) {
+        return -position - 1;
+      }
+      while (position > 0 && nameKeys[position - 1].equals(prefix)) {
+        position--;
+      }
+      return position;
+    }
+
+    private static String stationKey(String code, String station) {
+      return code + '\0' + station;
+    }
+
+    private static long array(long elementSize, int length) {
+      return ARRAY_HEADER + elementSize * length;
+    }
+
+    private static long map(int entries) {
+      return ARRAY_HEADER + entries * (MAP_ENTRY + 2 * REFERENCE);
+    }
+
+    private static long strings(String[] strings) {
+      return Arrays.stream(strings).filter(s -> s != null).mapToLong(s -> STRING_OVERHEAD + s.length()).sum();
+    }
+  }
+}
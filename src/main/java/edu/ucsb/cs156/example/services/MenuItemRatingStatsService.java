@@ -0,0 +1,168 @@
+package edu.ucsb.cs156.example.services;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.models.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.repositories.MenuItemRatingStatsRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the per-item rollup in <code>menuitemratingstats</code> so that
+ * the rating of a menu item can be read without touching its reviews.
+ *
+ * MenuItemReviewService calls the <code>record*</code> methods in the same
+ * transaction as each write to the reviews. Each item's row is adjusted with
+ * an upsert that locks it until commit, so concurrent reviews of the same
+ * item, including its first ones, don't lose updates; items are always locked
+ * in id order.
+ * If the rollup ever drifts (e.g. reviews changed directly in the database),
+ * {@link #rebuild()} recomputes it from the reviews.
+ */
+
+@Slf4j
+@Service
+@Transactional
+public class MenuItemRatingStatsService {
+
+  @Autowired
+  MenuItemRatingStatsRepository statsRepository;
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Transactional(readOnly = true)
+  public MenuItemRatingSummary getSummary(long itemId) {
+    MenuItemRatingStats stats = statsRepository.findById(itemId)
+        .orElseGet(() -> MenuItemRatingStats.builder().itemId(itemId).build());
+    return toSummary(stats);
+  }
+
+  public void recordAdded(MenuItemReview review) {
+    recordAdded(List.of(review));
+  }
+
+  public void recordAdded(Collection<MenuItemReview> reviews) {
+    Map<Long, Delta> deltas = new TreeMap<>();
+    for (MenuItemReview review : reviews) {
+      deltas.computeIfAbsent(review.getItemId(), itemId -> new Delta()).add(review);
+    }
+    deltas.forEach(this::apply);
+  }
+
+  public void recordRemoved(MenuItemReview review) {
+    Delta delta = new Delta();
+    delta.remove(review);
+    apply(review.getItemId(), delta);
+  }
+
+  public void recordChanged(MenuItemReview before, MenuItemReview after) {
+    Map<Long, Delta> deltas = new TreeMap<>();
+    deltas.computeIfAbsent(before.getItemId(), itemId -> new Delta()).remove(before);
+    deltas.computeIfAbsent(after.getItemId(), itemId -> new Delta()).add(after);
+    deltas.forEach(this::apply);
+  }
+
+  /**
+   * Throws away the rollup and recomputes it from the reviews.
+   *
+   * @return the number of menu items that have reviews
+   */
+  public int rebuild() {
+    statsRepository.deleteAll();
+    List<MenuItemRatingStats> rebuilt = menuItemReviewRepository.computeRatingStats();
+    statsRepository.saveAll(rebuilt);
+    log.info("Rebuilt rating statistics for {} menu items", rebuilt.size());
+    return rebuilt.size();
+  }
+
+  private void apply(long itemId, Delta delta) {
+    // adds to the row, or inserts it, in one statement that locks it until commit
+    statsRepository.addTotals(MenuItemRatingStats.builder()
+        .itemId(itemId)
+        .reviewCount(delta.count)
+        .starTotal(delta.starTotal)
+        .oneStarCount(delta.histogram[0])
+        .twoStarCount(delta.histogram[1])
+        .threeStarCount(delta.histogram[2])
+        .fourStarCount(delta.histogram[3])
+        .fiveStarCount(delta.histogram[4])
+        .lastReviewed(delta.latestAdded)
+        .build());
+
+    if (delta.count < 0 && statsRepository.deleteIfEmpty(itemId) > 0) {
+      return;
+    }
+    if (delta.latestRemoved != null) {
+      // the newest review may be gone; the reviews table has the answer
+      statsRepository.resetLastReviewed(itemId, delta.latestRemoved);
+    }
+  }
+
+  private static boolean isBefore(LocalDateTime a, LocalDateTime b) {
+    if (a == null) {
+      return b != null;
+    }
+    return b != null && a.isBefore(b);
+  }
+
+  private static MenuItemRatingSummary toSummary(MenuItemRatingStats stats) {
+    Map<Integer, Long> histogram = new TreeMap<>();
+    histogram.put(1, stats.getOneStarCount());
+    histogram.put(2, stats.getTwoStarCount());
+    histogram.put(3, stats.getThreeStarCount());
+    histogram.put(4, stats.getFourStarCount());
+    histogram.put(5, stats.getFiveStarCount());
+
+    double mean = stats.getReviewCount() == 0 ? 0.0 : (double) stats.getStarTotal() / stats.getReviewCount();
+
+    return MenuItemRatingSummary.builder()
+        .itemId(stats.getItemId())
+        .count(stats.getReviewCount())
+        .mean(mean)
+        .histogram(histogram)
+        .lastReviewed(stats.getLastReviewed())
+        .build();
+  }
+
+  /** Net change to one item's totals; stars outside 1..5 count toward the mean but not the histogram. */
+  private static class Delta {
+    long count;
+    long starTotal;
+    long[] histogram = new long[5];
+    LocalDateTime latestAdded;
+    LocalDateTime latestRemoved;
+
+    void add(MenuItemReview review) {
+      change(review, 1);
+      if (isBefore(latestAdded, review.getDateReviewed())) {
+        latestAdded = review.getDateReviewed();
+      }
+    }
+
+    void remove(MenuItemReview review) {
+      change(review, -1);
+      if (isBefore(latestRemoved, review.getDateReviewed())) {
+        latestRemoved = review.getDateReviewed();
+      }
+    }
+
+    private void change(MenuItemReview review, int sign) {
+      count += sign;
+      starTotal += sign * review.getStars();
+      if (review.getStars() >= 1 && review.getStars() <= 5) {
+        histogram[review.getStars() - 1] += sign;
+      }
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.InvalidRecordException;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes menu item reviews together with their rating rollup, so that a
+ * review and the <code>menuitemratingstats</code> row of its item are
+ * committed or rolled back as one. Updates and deletes lock the review first,
+ * so concurrent writes to one review are applied to the rollup one at a time.
+ * The search index isn't transactional; callers update it after these
+ * methods return.
+ */
+
+@Slf4j
+@Service
+@Transactional
+public class MenuItemReviewService {
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Autowired
+  MenuItemRatingStatsService ratingStatsService;
+
+  @Autowired
+  PartialUpdateService partialUpdateService;
+
+  public MenuItemReview create(MenuItemReview review) {
+    MenuItemReview saved = menuItemReviewRepository.save(review);
+    ratingStatsService.recordAdded(saved);
+    return saved;
+  }
+
+  /**
+   * Replaces every field of review <code>id</code>.
+   *
+   * @throws EntityNotFoundException if there is no review with this id
+   */
+  public MenuItemReview update(long id, MenuItemReview incoming) {
+    MenuItemReview before = lock(id);
+    incoming.setId(id);
+    menuItemReviewRepository.updateById(id, incoming);
+    ratingStatsService.recordChanged(before, incoming);
+    return incoming;
+  }
+
+  /**
+   * Changes some fields of review <code>id</code>; see PartialUpdateService.
+   *
+   * @throws EntityNotFoundException if there is no review with this id
+   */
+  public MenuItemReview patch(long id, Map<String, Object> changes) {
+    MenuItemReview before = lock(id);
+    MenuItemReview after = partialUpdateService.patch(MenuItemReview.class, id, changes)
+        .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
+    ratingStatsService.recordChanged(before, after);
+    return after;
+  }
+
+  /**
+   * @throws EntityNotFoundException if there is no review with this id
+   */
+  public void delete(long id) {
+    MenuItemReview review = lock(id);
+    menuItemReviewRepository.removeById(id);
+    ratingStatsService.recordRemoved(review);
+  }
+
+  /**
+   * Validates one chunk of a bulk upload and inserts it in one JDBC batch, in
+   * a transaction of its own: the chunks before it stay committed if this one
+   * is rejected, and nothing of this one is written.
+   *
+   * @param firstIndex position of the chunk's first review in the upload
+   * @throws InvalidRecordException naming the upload index of the first
+   *                                invalid review
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void insertChunk(int firstIndex, List<MenuItemReview> chunk) {
+    for (int i = 0; i < chunk.size(); i++) {
+      validate(firstIndex + i, chunk.get(i));
+    }
+    menuItemReviewRepository.insertAll(chunk);
+    ratingStatsService.recordAdded(chunk);
+    log.debug("bulk insert of menu item reviews {} to {}", firstIndex, firstIndex + chunk.size() - 1);
+  }
+
+  /**
+   * Locks review <code>id</code> so that a concurrent write can't change it
+   * between reading its old stars and adjusting the rollup.
+   *
+   * @return a copy of the review as it was, since the update refreshes the
+   *         locked entity
+   */
+  private MenuItemReview lock(long id) {
+    return menuItemReviewRepository.findWithLockById(id)
+        .map(review -> review.toBuilder().build())
+        .orElseThrow(() -> new EntityNotFoundException(MenuItemReview.class, id));
+  }
+
+  static void validate(int index, MenuItemReview review) {
+    if (review == null) {
+      throw new InvalidRecordException(index, "record is null");
+    }
+    if (review.getItemId() <= 0) {
+      // a missing or null itemId reads as 0
+      throw new InvalidRecordException(index, "itemId is required");
+    }
+    if (review.getStars() < 1 || review.getStars() > 5) {
+      throw new InvalidRecordException(index, "stars must be between 1 and 5, not %d".formatted(review.getStars()));
+    }
+    if (review.getReviewerEmail() == null || review.getReviewerEmail().isBlank()) {
+      throw new InvalidRecordException(index, "reviewerEmail is required");
+    }
+  }
+}
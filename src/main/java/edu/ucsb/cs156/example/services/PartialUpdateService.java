@@ -0,0 +1,107 @@
+package edu.ucsb.cs156.example.services;
+
+import java.util.Map;
+import java.util.Optional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Root;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+
+/**
+ * Runs the <code>PATCH</code> endpoints: a JSON object of
+ * <code>{"field": value}</code> becomes a single
+ * <code>UPDATE ... SET field = value WHERE id = ?</code> that touches only
+ * those columns, followed by a read of the updated row in the same
+ * transaction. The read refreshes the row from the database, so it is
+ * current even if the caller loaded the entity before patching it.
+ *
+ * Field names are the entity's Java property names, and values are converted
+ * the same way as in a request body (e.g. ISO date-times). Unknown fields, the
+ * id, and values that don't convert are rejected with
+ * {@link InvalidQueryException}.
+ */
+
+@Service
+public class PartialUpdateService {
+
+  public static final String CHANGES_DESCRIPTION = "JSON object of the fields to change and their new values, e.g. {\"name\": \"...\"}";
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  @Autowired
+  ObjectMapper mapper;
+
+  /**
+   * @return the updated row, or empty if there is no row with this id
+   */
+  @Transactional
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public <E> Optional<E> patch(Class<E> entityType, Object id, Map<String, Object> changes) {
+    if (changes == null || changes.isEmpty()) {
+      throw new InvalidQueryException("the request body must name at least one field to change");
+    }
+    EntityType<E> entity = entityManager.getMetamodel().entity(entityType);
+    CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+    CriteriaUpdate<E> update = cb.createCriteriaUpdate(entityType);
+    Root<E> root = update.from(entityType);
+
+    SingularAttribute<? super E, ?> idAttribute = null;
+    for (SingularAttribute<? super E, ?> attribute : entity.getSingularAttributes()) {
+      if (attribute.isId()) {
+        idAttribute = attribute;
+      }
+    }
+    for (Map.Entry<String, Object> change : changes.entrySet()) {
+      SingularAttribute attribute = attribute(entity, change.getKey());
+      if (attribute.isId()) {
+        throw new InvalidQueryException("%s can't be changed".formatted(change.getKey()));
+      }
+      update.set(attribute, convert(change.getValue(), attribute.getJavaType(), change.getKey()));
+    }
+    update.where(cb.equal(root.get(idAttribute), id));
+
+    if (entityManager.createQuery(update).executeUpdate() == 0) {
+      return Optional.empty();
+    }
+    // the UPDATE bypasses the persistence context, so a copy of the row loaded
+    // earlier in this transaction still has the old values
+    E updated = entityManager.find(entityType, id);
+    entityManager.refresh(updated);
+    return Optional.of(updated);
+  }
+
+  private Object convert(Object value, Class<?> type, String field) {
+    if (value == null) {
+      if (type.isPrimitive()) {
+        throw new InvalidQueryException("%s can't be null".formatted(field));
+      }
+      return null;
+    }
+    try {
+      return mapper.convertValue(value, type);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidQueryException("%s is not a valid value for %s".formatted(value, field));
+    }
+  }
+
+  private static <E> SingularAttribute<? super E, ?> attribute(EntityType<E> entity, String field) {
+    try {
+      return entity.getSingularAttribute(field);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidQueryException("unknown field %s".formatted(field));
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package edu.ucsb.cs156.example.services;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.AdminRoles;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decides which emails are admins, so that mapping the authorities of a login
+ * doesn't query <code>users</code>.
+ *
+ * An email is an admin if it is configured, in <code>app.admin.emails</code>
+ * or in the optional <code>app.admin.emailsFile</code> (emails separated by
+ * commas, spaces or newlines), or if its <code>users</code> row has
+ * <code>admin</code> set. Both are held as hash sets in a snapshot that is
+ * never modified once built; changes build a new one and swap it in, so
+ * readers don't lock. Emails are compared ignoring case.
+ *
+ * CurrentUserServiceImpl calls {@link #userSaved} after each write to
+ * <code>users</code>. {@link #refresh()} re-reads the emails file when it has
+ * changed, so the configured admins can be changed without a restart, and the
+ * periodic {@link #reload()} picks up admin flags set directly in the
+ * database or by another instance, and then clears the UserCache.
+ */
+
+@Slf4j
+@Service("roleRegistry")
+public class RoleRegistry {
+
+  @Value("${app.admin.emails}")
+  List<String> adminEmails = new ArrayList<>();
+
+  @Value("${app.admin.emailsFile:}")
+  String adminEmailsFile = "";
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  UserCache userCache;
+
+  private volatile Snapshot snapshot;
+
+  /** modification time of the emails file when it was last read */
+  private long emailsFileModified;
+
+  public boolean isAdmin(String email) {
+    if (email == null) {
+      return false;
+    }
+    Snapshot current = snapshot();
+    String key = normalize(email);
+    return current.configuredAdmins.contains(key) || current.userAdmins.contains(key);
+  }
+
+  public boolean isConfiguredAdmin(String email) {
+    return email != null && snapshot().configuredAdmins.contains(normalize(email));
+  }
+
+  public AdminRoles getAdminRoles() {
+    Snapshot current = snapshot();
+    return AdminRoles.builder()
+        .configuredAdmins(sorted(current.configuredAdmins))
+        .userAdmins(sorted(current.userAdmins))
+        .loadedAt(current.loadedAt)
+        .build();
+  }
+
+  /**
+   * Records the admin flag of a <code>users</code> row that has just been
+   * saved.
+   */
+  public synchronized void userSaved(User user) {
+    if (snapshot == null || user.getEmail() == null) {
+      return;
+    }
+    String key = normalize(user.getEmail());
+    if (user.getAdmin() != snapshot.userAdmins.contains(key)) {
+      Set<String> userAdmins = new HashSet<>(snapshot.userAdmins);
+      if (user.getAdmin()) {
+        userAdmins.add(key);
+      } else {
+        userAdmins.remove(key);
+      }
+      snapshot = new Snapshot(snapshot.configuredAdmins, userAdmins);
+    }
+  }
+
+  /**
+   * Re-reads the emails file if it has changed since it was last read.
+   *
+   * @return whether the configured admins were reloaded
+   */
+  @Scheduled(initialDelayString = "${app.admin.refreshMillis:10000}", fixedDelayString = "${app.admin.refreshMillis:10000}")
+  public synchronized boolean refresh() {
+    if (snapshot == null || adminEmailsFile.isBlank()) {
+      return false;
+    }
+    Path file = Path.of(adminEmailsFile);
+    try {
+      if (Files.getLastModifiedTime(file).toMillis() == emailsFileModified) {
+        return false;
+      }
+    } catch (IOException e) {
+      log.warn("admin emails file {} can't be read, keeping the previous admins: {}", file, e.toString());
+      return false;
+    }
+    snapshot = new Snapshot(loadConfiguredAdmins(), snapshot.userAdmins);
+    log.info("role registry: {} configured admins", snapshot.configuredAdmins.size());
+    return true;
+  }
+
+  /**
+   * Replaces the snapshot with the configured admins and the admin rows of
+   * <code>users</code>.
+   */
+  @Scheduled(initialDelayString = "${app.admin.reloadMillis:300000}", fixedDelayString = "${app.admin.reloadMillis:300000}")
+  public synchronized AdminRoles reload() {
+    Set<String> userAdmins = userRepository.findAllByAdminTrue().stream()
+        .map(User::getEmail)
+        .filter(email -> email != null)
+        .map(RoleRegistry::normalize)
+        .collect(Collectors.toSet());
+    if (snapshot != null && !snapshot.userAdmins.equals(userAdmins)) {
+      // the cached users carry the old admin flags
+      userCache.invalidateAll();
+    }
+    snapshot = new Snapshot(loadConfiguredAdmins(), userAdmins);
+    log.info("role registry: {} configured admins, {} admin users",
+        snapshot.configuredAdmins.size(), snapshot.userAdmins.size());
+    return getAdminRoles();
+  }
+
+  private Snapshot snapshot() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      synchronized (this) {
+        if (snapshot == null) {
+          reload();
+        }
+        current = snapshot;
+      }
+    }
+    return current;
+  }
+
+  private Set<String> loadConfiguredAdmins() {
+    Set<String> emails = new HashSet<>();
+    adminEmails.forEach(email -> add(emails, email));
+    if (!adminEmailsFile.isBlank()) {
+      Path file = Path.of(adminEmailsFile);
+      try {
+        emailsFileModified = Files.getLastModifiedTime(file).toMillis();
+        Arrays.stream(Files.readString(file).split("[,\\s]+")).forEach(email -> add(emails, email));
+      } catch (IOException e) {
+        log.warn("admin emails file {} can't be read: {}", file, e.toString());
+        if (snapshot != null) {
+          return snapshot.configuredAdmins;
+        }
+      }
+    }
+    return emails;
+  }
+
+  private static void add(Set<String> emails, String email) {
+    if (!email.isBlank()) {
+      emails.add(normalize(email));
+    }
+  }
+
+  static String normalize(String email) {
+    return email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static List<String> sorted(Collection<String> emails) {
+    return emails.stream().sorted().collect(Collectors.toList());
+  }
+
+  private static final class Snapshot {
+    final Set<String> configuredAdmins;
+    final Set<String> userAdmins;
+    final LocalDateTime loadedAt = LocalDateTime.now();
+
+    Snapshot(Set<String> configuredAdmins, Set<String> userAdmins) {
+      this.configuredAdmins = Set.copyOf(configuredAdmins);
+      this.userAdmins = Set.copyOf(userAdmins);
+    }
+  }
+}
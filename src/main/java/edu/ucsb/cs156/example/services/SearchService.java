@@ -0,0 +1,382 @@
+package edu.ucsb.cs156.example.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.SearchResults;
+import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Full-text search over article titles and explanations, help request
+ * explanations and menu item review comments, using a Lucene index in
+ * <code>app.search.indexDirectory</code>.
+ *
+ * The create/update/delete handlers call {@link #index} and {@link #delete}
+ * after each write; the change is searchable immediately and committed to
+ * disk every <code>app.search.commitMillis</code>. {@link #reindex()} rebuilds
+ * the whole index from the database (<code>POST /api/search/reindex</code>,
+ * or start the application with <code>--reindex</code>).
+ *
+ * While a rebuild runs, or after {@link #markStale()}, searches read the
+ * database instead: rows whose text contains the query as typed, in id order
+ * and unscored, flagged with <code>indexRebuilding</code>.
+ *
+ * The index belongs to one instance. Lucene locks the directory, so each
+ * instance needs its own, and writes on one instance aren't seen by the
+ * index of another.
+ */
+
+@Slf4j
+@Service
+public class SearchService {
+
+  public static final String ARTICLE = "article";
+  public static final String HELP_REQUEST = "helprequest";
+  public static final String MENU_ITEM_REVIEW = "menuitemreview";
+
+  /** deepest result that can be paged to */
+  public static final int MAX_RESULTS = 10_000;
+
+  static final int SUMMARY_LENGTH = 200;
+  static final int LOAD_BATCH_SIZE = 1000;
+
+  @Value("${app.search.indexDirectory:target/search-index}")
+  String indexDirectory;
+
+  @Autowired
+  ArticleRepository articleRepository;
+
+  @Autowired
+  HelpRequestRepository helpRequestRepository;
+
+  @Autowired
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @PersistenceContext
+  EntityManager entityManager;
+
+  private final Analyzer analyzer = new EnglishAnalyzer();
+  private Directory directory;
+  private IndexWriter writer;
+  private SearcherManager searcherManager;
+
+  /** whether searches have to read the database because the index is incomplete */
+  private volatile boolean stale;
+
+  @PostConstruct
+  public void open() throws IOException {
+    directory = FSDirectory.open(Paths.get(indexDirectory));
+    try {
+      writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+          .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+    } catch (LockObtainFailedException e) {
+      directory.close();
+      throw new IllegalStateException(("search index %s is locked by another process: stop the application using it"
+          + " before running --reindex, and give each instance its own app.search.indexDirectory").formatted(indexDirectory), e);
+    }
+    searcherManager = new SearcherManager(writer, null);
+    log.info("search index {} has {} documents", indexDirectory, writer.getDocStats().numDocs);
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    searcherManager.close();
+    writer.close();
+    directory.close();
+  }
+
+  public boolean isEmpty() {
+    return writer.getDocStats().numDocs == 0;
+  }
+
+  public boolean isStale() {
+    return stale;
+  }
+
+  /** Sends searches to the database until the next {@link #reindex()} finishes. */
+  public void markStale() {
+    stale = true;
+  }
+
+  public void index(Article article) {
+    update(ARTICLE, article.getId(), article.getTitle(), article.getExplanation());
+  }
+
+  public void index(HelpRequest helpRequest) {
+    update(HELP_REQUEST, helpRequest.getId(), null, helpRequest.getExplanation());
+  }
+
+  public void index(MenuItemReview review) {
+    update(MENU_ITEM_REVIEW, review.getId(), null, review.getComments());
+  }
+
+  /** Indexes the reviews with ids above <code>afterId</code>, e.g. after a bulk insert. */
+  public int indexMenuItemReviewsAfter(long afterId) {
+    int count = 0;
+    List<MenuItemReview> batch;
+    do {
+      batch = menuItemReviewRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+      for (MenuItemReview review : batch) {
+        addOrUpdate(MENU_ITEM_REVIEW, review.getId(), null, review.getComments());
+        afterId = review.getId();
+        count++;
+      }
+    } while (batch.size() == LOAD_BATCH_SIZE);
+    refresh();
+    return count;
+  }
+
+  public void delete(String type, long id) {
+    try {
+      writer.deleteDocuments(new Term("key", key(type, id)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    refresh();
+  }
+
+  /**
+   * Throws away the index and rebuilds it from the database.
+   *
+   * @return the number of documents indexed of each type
+   */
+  @Transactional(readOnly = true)
+  public Map<String, Long> reindex() {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    // the writes of other requests make the half-built index visible
+    stale = true;
+    try {
+      writer.deleteAll();
+      counts.put(ARTICLE, indexAll(articleRepository.streamAllByOrderByIdAsc(),
+          article -> addOrUpdate(ARTICLE, article.getId(), article.getTitle(), article.getExplanation())));
+      counts.put(HELP_REQUEST, indexAll(helpRequestRepository.streamAllByOrderByIdAsc(),
+          helpRequest -> addOrUpdate(HELP_REQUEST, helpRequest.getId(), null, helpRequest.getExplanation())));
+      counts.put(MENU_ITEM_REVIEW, indexAll(menuItemReviewRepository.streamAllByOrderByIdAsc(),
+          review -> addOrUpdate(MENU_ITEM_REVIEW, review.getId(), null, review.getComments())));
+      writer.commit();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    refresh();
+    stale = false;
+    log.info("rebuilt search index: {}", counts);
+    return counts;
+  }
+
+  /**
+   * Runs a query in Lucene syntax (words, "phrases", AND/OR/NOT, prefix*)
+   * against titles and text, best matches first.
+   *
+   * @param type only return documents of this type, or null for all
+   */
+  public SearchResults search(String queryText, String type, int page, int size) {
+    if (page < 0 || size < 1 || (long) (page + 1) * size > MAX_RESULTS) {
+      throw new InvalidQueryException("page and size must select results within the first %d".formatted(MAX_RESULTS));
+    }
+    Query query = parse(queryText);
+    if (stale) {
+      return searchDatabase(queryText, type, page, size);
+    }
+    if (type != null) {
+      query = new BooleanQuery.Builder()
+          .add(query, BooleanClause.Occur.MUST)
+          .add(new TermQuery(new Term("type", type)), BooleanClause.Occur.FILTER)
+          .build();
+    }
+
+    try {
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        TopDocs topDocs = searcher.search(query, (page + 1) * size);
+        List<SearchHit> hits = new ArrayList<>();
+        for (int i = page * size; i < topDocs.scoreDocs.length; i++) {
+          ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+          Document document = searcher.doc(scoreDoc.doc);
+          hits.add(SearchHit.builder()
+              .type(document.get("type"))
+              .id(document.getField("id").numericValue().longValue())
+              .score(scoreDoc.score)
+              .title(document.get("title"))
+              .summary(document.get("summary"))
+              .build());
+        }
+        return SearchResults.builder()
+            .query(queryText)
+            .totalHits(topDocs.totalHits.value)
+            .page(page)
+            .size(size)
+            .hits(hits)
+            .build();
+      } finally {
+        searcherManager.release(searcher);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Scheduled(initialDelayString = "${app.search.commitMillis:5000}", fixedDelayString = "${app.search.commitMillis:5000}")
+  public void commit() throws IOException {
+    if (writer.hasUncommittedChanges()) {
+      writer.commit();
+    }
+  }
+
+  /**
+   * Rows whose text contains the query, without its quotes and wildcards,
+   * ignoring case: articles, then help requests, then reviews, each in id
+   * order.
+   */
+  private SearchResults searchDatabase(String queryText, String type, int page, int size) {
+    String text = queryText.replaceAll("[\"*]", "").trim();
+    PageRequest first = PageRequest.of(0, (page + 1) * size);
+    List<SearchHit> hits = new ArrayList<>();
+    long totalHits = 0;
+    if (type == null || ARTICLE.equals(type)) {
+      totalHits += articleRepository.countByTitleContainingIgnoreCaseOrExplanationContainingIgnoreCase(text, text);
+      articleRepository.findByTitleContainingIgnoreCaseOrExplanationContainingIgnoreCaseOrderByIdAsc(text, text, first)
+          .forEach(article -> hits.add(hit(ARTICLE, article.getId(), article.getTitle(), article.getExplanation())));
+    }
+    if (type == null || HELP_REQUEST.equals(type)) {
+      totalHits += helpRequestRepository.countByExplanationContainingIgnoreCase(text);
+      helpRequestRepository.findByExplanationContainingIgnoreCaseOrderByIdAsc(text, first)
+          .forEach(helpRequest -> hits.add(hit(HELP_REQUEST, helpRequest.getId(), null, helpRequest.getExplanation())));
+    }
+    if (type == null || MENU_ITEM_REVIEW.equals(type)) {
+      totalHits += menuItemReviewRepository.countByCommentsContainingIgnoreCase(text);
+      menuItemReviewRepository.findByCommentsContainingIgnoreCaseOrderByIdAsc(text, first)
+          .forEach(review -> hits.add(hit(MENU_ITEM_REVIEW, review.getId(), null, review.getComments())));
+    }
+    int from = Math.min(page * size, hits.size());
+    int to = Math.min((page + 1) * size, hits.size());
+    return SearchResults.builder()
+        .query(queryText)
+        .totalHits(totalHits)
+        .page(page)
+        .size(size)
+        .hits(new ArrayList<>(hits.subList(from, to)))
+        .indexRebuilding(true)
+        .build();
+  }
+
+  private static SearchHit hit(String type, long id, String title, String text) {
+    return SearchHit.builder()
+        .type(type)
+        .id(id)
+        .title(title)
+        .summary(summary(text))
+        .build();
+  }
+
+  private static String summary(String text) {
+    return text == null || text.length() <= SUMMARY_LENGTH ? text : text.substring(0, SUMMARY_LENGTH);
+  }
+
+  private Query parse(String queryText) {
+    MultiFieldQueryParser parser = new MultiFieldQueryParser(new String[] { "title", "text" }, analyzer,
+        Map.of("title", 2.0f, "text", 1.0f));
+    try {
+      return parser.parse(queryText);
+    } catch (ParseException e) {
+      throw new InvalidQueryException("could not parse query: %s".formatted(queryText));
+    }
+  }
+
+  private void update(String type, long id, String title, String text) {
+    addOrUpdate(type, id, title, text);
+    refresh();
+  }
+
+  private void addOrUpdate(String type, long id, String title, String text) {
+    Document document = new Document();
+    document.add(new StringField("key", key(type, id), Field.Store.YES));
+    document.add(new StringField("type", type, Field.Store.YES));
+    document.add(new StoredField("id", id));
+    if (title != null) {
+      document.add(new TextField("title", title, Field.Store.YES));
+    }
+    if (text != null) {
+      document.add(new TextField("text", text, Field.Store.NO));
+      document.add(new StoredField("summary", summary(text)));
+    }
+    try {
+      writer.updateDocument(new Term("key", key(type, id)), document);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private <T> long indexAll(Stream<T> rows, Consumer<T> indexer) {
+    long[] count = { 0 };
+    try (rows) {
+      rows.forEach(row -> {
+        indexer.accept(row);
+        entityManager.detach(row);
+        count[0]++;
+      });
+    }
+    return count[0];
+  }
+
+  private void refresh() {
+    try {
+      searcherManager.maybeRefresh();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String key(String type, long id) {
+    return type + ":" + id;
+  }
+}
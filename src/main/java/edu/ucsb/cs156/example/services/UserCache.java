@@ -0,0 +1,74 @@
+package edu.ucsb.cs156.example.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import edu.ucsb.cs156.example.entities.User;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded cache of resolved <code>User</code> rows, keyed by the OAuth
+ * <code>sub</code> of the logged in user.
+ * 
+ * The frontend asks for the current user on nearly every page, and without
+ * this every one of those calls looked the user up by email. Entries are
+ * dropped a fixed time after they were loaded, however often they are read,
+ * so a change made to the row elsewhere shows up within that time.
+ * CurrentUserServiceImpl invalidates the entry whenever it saves the user,
+ * and RoleRegistry clears the cache when the admin flags in the table change.
+ */
+
+@Service("userCache")
+public class UserCache {
+
+  @Value("${app.userCache.maximumSize:10000}")
+  private long maximumSize;
+
+  @Value("${app.userCache.expireAfterWriteMinutes:10}")
+  private long expireAfterWriteMinutes;
+
+  private Cache<String, User> users;
+
+  @PostConstruct
+  public void init() {
+    users = Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(Duration.ofMinutes(expireAfterWriteMinutes))
+        .build();
+  }
+
+  public Optional<User> get(String googleSub) {
+    if (googleSub == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(users.getIfPresent(googleSub));
+  }
+
+  public void put(String googleSub, User user) {
+    if (googleSub != null) {
+      users.put(googleSub, user);
+    }
+  }
+
+  public void invalidate(String googleSub) {
+    if (googleSub != null) {
+      users.invalidate(googleSub);
+    }
+  }
+
+  public void invalidateAll() {
+    users.invalidateAll();
+  }
+
+  public long size() {
+    users.cleanUp();
+    return users.estimatedSize();
+  }
+}
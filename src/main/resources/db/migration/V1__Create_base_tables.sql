@@ -0,0 +1,89 @@
+-- The tables as they were before the later migrations, so that an empty database
+-- can be built from db/migration alone. IF NOT EXISTS lets this run against a
+-- database whose tables were created by Hibernate (ddl-auto=update) before Flyway
+-- was added; see spring.flyway.baseline-version in application.properties.
+-- Column types match what Hibernate maps the entity fields to, which
+-- spring.jpa.hibernate.ddl-auto=validate checks at startup.
+
+CREATE TABLE IF NOT EXISTS articles (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  date_added TIMESTAMP,
+  email VARCHAR(255),
+  explanation VARCHAR(255),
+  title VARCHAR(255),
+  url VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS help_request (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  explanation VARCHAR(255),
+  request_time TIMESTAMP,
+  requester_email VARCHAR(255),
+  solved BOOLEAN NOT NULL,
+  table_or_breakout_room VARCHAR(255),
+  team_id VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS menuitemreview (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  comments VARCHAR(255),
+  date_reviewed TIMESTAMP,
+  item_id BIGINT NOT NULL,
+  reviewer_email VARCHAR(255),
+  stars INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS recommendations (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  date_needed TIMESTAMP,
+  date_requested TIMESTAMP,
+  done BOOLEAN NOT NULL,
+  explanation VARCHAR(255),
+  professor_email VARCHAR(255),
+  requester_email VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS ucsbdates (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  local_date_time TIMESTAMP,
+  name VARCHAR(255),
+  quarteryyyyq VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS ucsbdiningcommons (
+  code VARCHAR(255) NOT NULL PRIMARY KEY,
+  has_dining_cam BOOLEAN NOT NULL,
+  has_sack_meal BOOLEAN NOT NULL,
+  has_take_out_meal BOOLEAN NOT NULL,
+  latitude DOUBLE PRECISION,
+  longitude DOUBLE PRECISION,
+  name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS ucsbdiningcommonsmenuitem (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  dining_commons_code VARCHAR(255),
+  name VARCHAR(255),
+  station VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS ucsborganization (
+  org_code VARCHAR(255) NOT NULL PRIMARY KEY,
+  inactive BOOLEAN NOT NULL,
+  org_translation VARCHAR(255),
+  org_translation_short VARCHAR(255)
+);
+
+-- admin is added by V4
+CREATE TABLE IF NOT EXISTS users (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  email VARCHAR(255),
+  email_verified BOOLEAN NOT NULL,
+  family_name VARCHAR(255),
+  full_name VARCHAR(255),
+  given_name VARCHAR(255),
+  google_sub VARCHAR(255),
+  hosted_domain VARCHAR(255),
+  locale VARCHAR(255),
+  picture_url VARCHAR(255)
+);
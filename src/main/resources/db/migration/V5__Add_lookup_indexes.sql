@@ -0,0 +1,5 @@
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_idx ON users (email);
+CREATE INDEX IF NOT EXISTS ucsbdates_quarter_yyyyq_idx ON ucsbdates (quarteryyyyq);
+CREATE INDEX IF NOT EXISTS ucsbdiningcommonsmenuitem_dining_commons_code_idx ON ucsbdiningcommonsmenuitem (dining_commons_code);
+CREATE INDEX IF NOT EXISTS menuitemreview_item_id_idx ON menuitemreview (item_id);
+CREATE INDEX IF NOT EXISTS help_request_request_time_idx ON help_request (request_time);
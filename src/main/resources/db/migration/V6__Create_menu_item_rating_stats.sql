@@ -0,0 +1,24 @@
+CREATE TABLE IF NOT EXISTS menuitemratingstats (
+  item_id BIGINT NOT NULL PRIMARY KEY,
+  review_count BIGINT NOT NULL,
+  star_total BIGINT NOT NULL,
+  one_star_count BIGINT NOT NULL,
+  two_star_count BIGINT NOT NULL,
+  three_star_count BIGINT NOT NULL,
+  four_star_count BIGINT NOT NULL,
+  five_star_count BIGINT NOT NULL,
+  last_reviewed TIMESTAMP
+);
+
+INSERT INTO menuitemratingstats (item_id, review_count, star_total,
+    one_star_count, two_star_count, three_star_count, four_star_count, five_star_count, last_reviewed)
+  SELECT item_id, COUNT(*), SUM(stars),
+      SUM(CASE WHEN stars = 1 THEN 1 ELSE 0 END),
+      SUM(CASE WHEN stars = 2 THEN 1 ELSE 0 END),
+      SUM(CASE WHEN stars = 3 THEN 1 ELSE 0 END),
+      SUM(CASE WHEN stars = 4 THEN 1 ELSE 0 END),
+      SUM(CASE WHEN stars = 5 THEN 1 ELSE 0 END),
+      MAX(date_reviewed)
+  FROM menuitemreview
+  WHERE NOT EXISTS (SELECT 1 FROM menuitemratingstats)
+  GROUP BY item_id;
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS help_request_solved_request_time_idx ON help_request (solved, request_time);
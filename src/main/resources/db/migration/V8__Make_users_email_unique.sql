@@ -0,0 +1,10 @@
+-- users_email_idx is unique from V5 on, but databases migrated by builds whose V5 created a plain
+-- index (or created by Hibernate without one) may hold the same email more than once.
+-- Keep the oldest row for each email; it becomes an admin if any of its duplicates was one.
+UPDATE users SET admin = TRUE
+  WHERE email IN (SELECT email FROM users WHERE admin = TRUE);
+DELETE FROM users
+  WHERE email IS NOT NULL
+    AND id > (SELECT MIN(d.id) FROM users d WHERE d.email = users.email);
+DROP INDEX IF EXISTS users_email_idx;
+CREATE UNIQUE INDEX users_email_idx ON users (email);
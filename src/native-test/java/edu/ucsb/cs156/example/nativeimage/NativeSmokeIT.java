@@ -0,0 +1,140 @@
+package edu.ucsb.cs156.example.nativeimage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Smoke tests run by failsafe against the native binary
+ * (<code>native.binary</code>, set by the native profile in pom.xml), started
+ * on a private H2 database. Each test checks one part that depends on the
+ * hints in NativeHintsConfig or on Spring Native's own: the context starts
+ * (entities, repositories, Hibernate), Spring Security and the OAuth2 login
+ * redirect, the static API spec, and the controller aspects.
+ */
+
+class NativeSmokeIT {
+
+  static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(1);
+
+  static Process process;
+  static File log;
+  static String baseUrl;
+  static HttpClient httpClient = HttpClient.newBuilder()
+      .followRedirects(HttpClient.Redirect.NEVER)
+      .connectTimeout(Duration.ofSeconds(1))
+      .build();
+
+  @BeforeAll
+  static void start() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    baseUrl = "http://localhost:" + port;
+    log = new File("target/native-smoke-test.log");
+    process = new ProcessBuilder(List.of(
+        System.getProperty("native.binary", "target/example"),
+        "--spring.profiles.active=development",
+        "--server.port=" + port,
+        "--spring.datasource.url=jdbc:h2:mem:smoke;DB_CLOSE_DELAY=-1",
+        "--spring.jpa.hibernate.ddl-auto=create",
+        "--app.search.indexDirectory=target/search-index-smoke",
+        "--app.logging.requestSampleRate=1.0"))
+        .redirectErrorStream(true)
+        .redirectOutput(log)
+        .start();
+
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("the native binary exited with " + process.exitValue() + "; see " + log);
+      }
+      try {
+        if (get("/actuator/health").statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // not listening yet
+      }
+      Thread.sleep(50);
+    }
+    throw new IllegalStateException("the native binary did not become healthy within " + STARTUP_TIMEOUT + "; see " + log);
+  }
+
+  @AfterAll
+  static void stop() throws InterruptedException {
+    if (process != null) {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly();
+      }
+    }
+  }
+
+  static HttpResponse<String> get(String path) throws IOException, InterruptedException {
+    return httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  @Test
+  void health_is_up() throws Exception {
+    HttpResponse<String> response = get("/actuator/health");
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("\"UP\""), response.body());
+  }
+
+  @Test
+  void api_endpoints_need_a_login() throws Exception {
+    assertEquals(403, get("/api/UCSBDiningCommons/all").statusCode());
+    assertEquals(403, get("/api/systemInfo").statusCode());
+    assertEquals(403, get("/actuator/prometheus").statusCode());
+  }
+
+  @Test
+  void oauth2_login_redirects_to_google() throws Exception {
+    HttpResponse<String> response = get("/oauth2/authorization/google");
+
+    assertEquals(302, response.statusCode());
+    assertTrue(response.headers().firstValue("Location").orElse("").startsWith("https://accounts.google.com/"),
+        response.headers().toString());
+  }
+
+  @Test
+  void api_docs_are_the_spec_generated_at_build_time() throws Exception {
+    HttpResponse<String> response = get("/api/docs");
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().matches("(?s).*\"swagger\"\\s*:\\s*\"2\\.0\".*"), response.body());
+    assertTrue(response.body().contains("/api/HelpRequest/all"), response.body());
+  }
+
+  @Test
+  void controller_aspects_run() throws Exception {
+    // the development-only CSRF endpoint needs no login and has an @ApiOperation
+    assertEquals(200, get("/csrf").statusCode());
+
+    // the log may be written asynchronously
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!Files.readString(log.toPath()).contains("handled by") && System.nanoTime() < deadline) {
+      Thread.sleep(100);
+    }
+    assertTrue(Files.readString(log.toPath()).contains("handled by"), "LoggingAspect did not log the request");
+  }
+}
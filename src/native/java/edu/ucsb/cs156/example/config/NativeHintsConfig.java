@@ -0,0 +1,155 @@
+package edu.ucsb.cs156.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.nativex.hint.AotProxyHint;
+import org.springframework.nativex.hint.NativeHint;
+import org.springframework.nativex.hint.ProxyBits;
+import org.springframework.nativex.hint.ResourceHint;
+import org.springframework.nativex.hint.SerializationHint;
+import org.springframework.nativex.hint.TypeAccess;
+import org.springframework.nativex.hint.TypeHint;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationResponseType;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.security.web.savedrequest.DefaultSavedRequest;
+import org.springframework.security.web.savedrequest.SavedCookie;
+
+import edu.ucsb.cs156.example.aop.LoggingAspect;
+import edu.ucsb.cs156.example.aop.MetricsAspect;
+import edu.ucsb.cs156.example.controllers.ApiDocsController;
+import edu.ucsb.cs156.example.controllers.ArticleController;
+import edu.ucsb.cs156.example.controllers.CSRFController;
+import edu.ucsb.cs156.example.controllers.CachesController;
+import edu.ucsb.cs156.example.controllers.FrontendController;
+import edu.ucsb.cs156.example.controllers.FrontendProxyController;
+import edu.ucsb.cs156.example.controllers.HelpRequestController;
+import edu.ucsb.cs156.example.controllers.MenuItemReviewController;
+import edu.ucsb.cs156.example.controllers.ReactiveReadController;
+import edu.ucsb.cs156.example.controllers.RecommendationController;
+import edu.ucsb.cs156.example.controllers.RolesController;
+import edu.ucsb.cs156.example.controllers.SearchController;
+import edu.ucsb.cs156.example.controllers.SystemInfoController;
+import edu.ucsb.cs156.example.controllers.UCSBDatesController;
+import edu.ucsb.cs156.example.controllers.UCSBDiningCommonsController;
+import edu.ucsb.cs156.example.controllers.UCSBDiningCommonsMenuItemController;
+import edu.ucsb.cs156.example.controllers.UCSBOrganizationController;
+import edu.ucsb.cs156.example.controllers.UserInfoController;
+import edu.ucsb.cs156.example.controllers.UsersController;
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommons;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.AdminRoles;
+import edu.ucsb.cs156.example.models.CacheStatistics;
+import edu.ucsb.cs156.example.models.CurrentUser;
+import edu.ucsb.cs156.example.models.KeysetPage;
+import edu.ucsb.cs156.example.models.MenuItemCatalogStats;
+import edu.ucsb.cs156.example.models.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.SearchResults;
+import edu.ucsb.cs156.example.models.SystemInfo;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.MenuItemRatingStatsService;
+import edu.ucsb.cs156.example.services.MenuItemReviewService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
+import edu.ucsb.cs156.example.services.SearchService;
+
+/**
+ * Hints for the native image (<code>mvn -Pnative,localhost verify</code>);
+ * only compiled in the native profile. Spring Native's own hints cover
+ * Spring Boot, Spring Data and Spring Security; these cover this
+ * application:
+ *
+ * <ul>
+ * <li>the entities and API models, which Hibernate, the JPA metamodel
+ * (ListQueryService, PartialUpdateService) and Jackson reach by reflection.
+ * This includes the constructors, getters and setters that Lombok generates;
+ * Lombok's builders are ordinary code called directly, so they need none.</li>
+ * <li>build-time class proxies for the controllers, which LoggingAspect and
+ * MetricsAspect advise, and for the services with <code>@Transactional</code>
+ * methods (the image can't generate CGLIB classes at run time)</li>
+ * <li>the OAuth2 login objects that are Java-serialized into the HTTP
+ * session</li>
+ * <li>the Caffeine cache and node classes for the
+ * <code>spring.cache.caffeine.spec</code> in application.properties, which
+ * Caffeine loads by name (<code>SSSMSW</code>: strong keys and values, stats,
+ * maximum size, expire after write)</li>
+ * <li>the resources read at run time: the generated API spec, the migration
+ * scripts and Lucene's service files</li>
+ * </ul>
+ */
+
+@NativeHint(
+    types = {
+        @TypeHint(
+            types = {
+                Article.class, HelpRequest.class, MenuItemRatingStats.class, MenuItemReview.class,
+                Recommendation.class, UCSBDate.class, UCSBDiningCommons.class, UCSBDiningCommonsMenuItem.class,
+                UCSBOrganization.class, User.class,
+                AdminRoles.class, CacheStatistics.class, CurrentUser.class, KeysetPage.class, MenuItemCatalogStats.class,
+                MenuItemRatingSummary.class, SearchHit.class, SearchResults.class, SystemInfo.class },
+            access = { TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_METHODS, TypeAccess.DECLARED_FIELDS }),
+        @TypeHint(
+            types = { LoggingAspect.class, MetricsAspect.class },
+            access = { TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_METHODS }),
+        @TypeHint(
+            typeNames = {
+                "com.github.benmanes.caffeine.cache.SSSMSW",
+                "com.github.benmanes.caffeine.cache.PSWMS" },
+            access = { TypeAccess.DECLARED_CONSTRUCTORS, TypeAccess.DECLARED_FIELDS })
+    },
+    aotProxies = {
+        @AotProxyHint(targetClass = ApiDocsController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = ArticleController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = CSRFController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = CachesController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = FrontendController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = FrontendProxyController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = HelpRequestController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = MenuItemReviewController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = ReactiveReadController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = RecommendationController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = RolesController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = SearchController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = SystemInfoController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = UCSBDatesController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = UCSBDiningCommonsController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = UCSBDiningCommonsMenuItemController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = UCSBOrganizationController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = UserInfoController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = UsersController.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = ListQueryService.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = MenuItemRatingStatsService.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = MenuItemReviewService.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = PartialUpdateService.class, proxyFeatures = ProxyBits.IS_STATIC),
+        @AotProxyHint(targetClass = SearchService.class, proxyFeatures = ProxyBits.IS_STATIC)
+    },
+    serializables = @SerializationHint(types = {
+        SecurityContextImpl.class, SimpleGrantedAuthority.class,
+        OAuth2AuthenticationToken.class, DefaultOAuth2User.class, OAuth2UserAuthority.class,
+        DefaultOidcUser.class, OidcUserAuthority.class, OidcIdToken.class, OidcUserInfo.class,
+        OAuth2AuthorizationRequest.class, OAuth2AuthorizationResponseType.class, AuthorizationGrantType.class,
+        DefaultSavedRequest.class, SavedCookie.class }),
+    resources = @ResourceHint(patterns = {
+        "api-docs/.*",
+        "db/migration/.*\\.sql",
+        "logback-spring\\.xml",
+        "META-INF/services/org\\.apache\\.lucene\\..*" }))
+@Configuration(proxyBeanMethods = false)
+public class NativeHintsConfig {
+}
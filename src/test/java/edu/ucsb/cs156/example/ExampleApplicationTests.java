@@ -0,0 +1,37 @@
+package edu.ucsb.cs156.example;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.reactive.ReactiveMenuItemReviewRepository;
+
+/**
+ * The whole application context starts with the default properties: every
+ * configuration class, the repositories, Flyway and the ApplicationRunners.
+ */
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+class ExampleApplicationTests {
+
+  @Autowired
+  ApplicationContext context;
+
+  @Test
+  void the_context_loads() {
+    assertTrue(context.getBeanNamesForType(MenuItemReviewRepository.class).length > 0);
+  }
+
+  @Test
+  void the_reactive_repositories_are_left_to_reactive_config() {
+    assertFalse(context.containsBean("reactiveReadController"));
+    assertTrue(context.getBeanNamesForType(ReactiveMenuItemReviewRepository.class).length == 0);
+  }
+}
@@ -0,0 +1,85 @@
+package edu.ucsb.cs156.example.aop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.swagger.annotations.ApiOperation;
+
+@ExtendWith(MockitoExtension.class)
+class MetricsAspectTests {
+
+  static class ThingController {
+    @ApiOperation(value = "List all things")
+    public String allThings() {
+      return "things";
+    }
+  }
+
+  @Spy
+  MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Mock
+  ProceedingJoinPoint joinPoint;
+
+  @Mock
+  Signature signature;
+
+  @InjectMocks
+  MetricsAspect metricsAspect;
+
+  ApiOperation apiOperation;
+
+  @BeforeEach
+  void setup() throws Exception {
+    apiOperation = ThingController.class.getMethod("allThings").getAnnotation(ApiOperation.class);
+    when(joinPoint.getSignature()).thenReturn(signature);
+    when(signature.getDeclaringType()).thenReturn(ThingController.class);
+    when(signature.getName()).thenReturn("allThings");
+  }
+
+  @Test
+  void test_successful_call_is_timed_under_its_api_operation() throws Throwable {
+    when(joinPoint.proceed()).thenReturn("things");
+
+    Object result = metricsAspect.timeApiOperation(joinPoint, apiOperation);
+
+    assertEquals("things", result);
+    Timer timer = meterRegistry.get(MetricsAspect.TIMER_NAME)
+        .tag("operation", "List all things")
+        .tag("controller", "ThingController")
+        .tag("method", "allThings")
+        .tag("exception", "none")
+        .tag("outcome", "SUCCESS")
+        .timer();
+    assertEquals(1, timer.count());
+  }
+
+  @Test
+  void test_failed_call_is_timed_with_its_exception() throws Throwable {
+    when(joinPoint.proceed()).thenThrow(new EntityNotFoundException(String.class, 7L));
+
+    assertThrows(EntityNotFoundException.class, () -> metricsAspect.timeApiOperation(joinPoint, apiOperation));
+
+    Timer timer = meterRegistry.get(MetricsAspect.TIMER_NAME)
+        .tag("operation", "List all things")
+        .tag("exception", "EntityNotFoundException")
+        .tag("outcome", "ERROR")
+        .timer();
+    assertEquals(1, timer.count());
+  }
+}
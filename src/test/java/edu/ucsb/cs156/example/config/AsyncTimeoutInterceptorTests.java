@@ -0,0 +1,52 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+class AsyncTimeoutInterceptorTests {
+
+  MockHttpServletRequest request = new MockHttpServletRequest();
+  StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+
+  @AfterEach
+  void tearDown() {
+    RequestContextHolder.resetRequestAttributes();
+  }
+
+  private long startAsync() {
+    request.setAsyncSupported(true);
+    asyncWebRequest.setTimeout(30_000L);
+    new AsyncTimeoutInterceptor().beforeConcurrentHandling(asyncWebRequest, () -> null);
+    asyncWebRequest.startAsync();
+    return ((MockAsyncContext) request.getAsyncContext()).getTimeout();
+  }
+
+  @Test
+  void test_timeout_set_by_the_handler_applies_to_its_request() {
+    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    AsyncTimeoutInterceptor.setTimeout(Duration.ofMinutes(10));
+
+    assertEquals(600_000L, startAsync());
+  }
+
+  @Test
+  void test_other_requests_keep_the_default_timeout() {
+    assertEquals(30_000L, startAsync());
+  }
+
+  @Test
+  void test_setTimeout_outside_a_request_does_nothing() {
+    assertDoesNotThrow(() -> AsyncTimeoutInterceptor.setTimeout(Duration.ofMinutes(10)));
+  }
+}
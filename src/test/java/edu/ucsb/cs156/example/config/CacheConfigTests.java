@@ -0,0 +1,90 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+import edu.ucsb.cs156.example.repositories.UCSBDateRepository;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
+
+/**
+ * Every way of writing a cached table through its repository, including the
+ * single-statement updates and deletes and PATCH, evicts the cache.
+ */
+
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ CacheConfig.class, JpaConfig.class, PartialUpdateService.class, JacksonAutoConfiguration.class })
+class CacheConfigTests {
+
+  @Autowired
+  UCSBDateRepository ucsbDateRepository;
+
+  @Autowired
+  PartialUpdateService partialUpdateService;
+
+  @Autowired
+  CacheManager cacheManager;
+
+  UCSBDate date;
+
+  @BeforeEach
+  void seed() {
+    date = ucsbDateRepository.save(UCSBDate.builder()
+        .quarterYYYYQ("20221")
+        .name("firstDayOfClasses")
+        .localDateTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+        .build());
+  }
+
+  private Cache.ValueWrapper cachedEntry() {
+    return cacheManager.getCache(UCSBDateRepository.CACHE).get(date.getId());
+  }
+
+  @Test
+  void test_updateById_evicts() {
+    ucsbDateRepository.findById(date.getId());
+    assertNotNull(cachedEntry());
+    ucsbDateRepository.updateById(date.getId(), date);
+    assertNull(cachedEntry());
+  }
+
+  @Test
+  void test_removeById_evicts() {
+    ucsbDateRepository.findById(date.getId());
+    assertNotNull(cachedEntry());
+    ucsbDateRepository.removeById(date.getId());
+    assertNull(cachedEntry());
+  }
+
+  @Test
+  void test_patchById_evicts() {
+    ucsbDateRepository.findById(date.getId());
+    assertNotNull(cachedEntry());
+    ucsbDateRepository.patchById(partialUpdateService, date.getId(), Map.of("name", "lastDayOfClasses"));
+    assertNull(cachedEntry());
+  }
+
+  @Test
+  void test_deleteAllById_evicts() {
+    ucsbDateRepository.findById(date.getId());
+    assertNotNull(cachedEntry());
+    ucsbDateRepository.deleteAllById(List.of(date.getId()));
+    assertNull(cachedEntry());
+  }
+}
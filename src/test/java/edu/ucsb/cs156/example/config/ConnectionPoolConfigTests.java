@@ -0,0 +1,49 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class ConnectionPoolConfigTests {
+
+  @Test
+  void test_pool_size_is_cores_times_connections_per_core_plus_extra_up_to_the_cap() {
+    assertEquals(9, ConnectionPoolConfig.poolSize(4, 2, 1, 20));
+    assertEquals(20, ConnectionPoolConfig.poolSize(16, 2, 1, 20));
+    assertEquals(1, ConnectionPoolConfig.poolSize(1, 0, 0, 20));
+  }
+
+  @Test
+  void test_hikari_pool_is_resized_to_a_fixed_size() {
+    MockEnvironment environment = new MockEnvironment()
+        .withProperty("app.datasource.connectionsPerCore", "2")
+        .withProperty("app.datasource.extraConnections", "1")
+        .withProperty("app.datasource.maxConnections", "1000");
+    BeanPostProcessor sizer = ConnectionPoolConfig.hikariPoolSizer(environment);
+    HikariDataSource dataSource = new HikariDataSource();
+
+    assertSame(dataSource, sizer.postProcessAfterInitialization(dataSource, "dataSource"));
+
+    int expected = Runtime.getRuntime().availableProcessors() * 2 + 1;
+    assertEquals(expected, dataSource.getMaximumPoolSize());
+    assertEquals(expected, dataSource.getMinimumIdle());
+  }
+
+  @Test
+  void test_explicit_maximum_pool_size_is_left_alone() {
+    MockEnvironment environment = new MockEnvironment()
+        .withProperty("app.datasource.connectionsPerCore", "2")
+        .withProperty("spring.datasource.hikari.maximum-pool-size", "7");
+    HikariDataSource dataSource = new HikariDataSource();
+    dataSource.setMaximumPoolSize(7);
+
+    ConnectionPoolConfig.hikariPoolSizer(environment).postProcessAfterInitialization(dataSource, "dataSource");
+
+    assertEquals(7, dataSource.getMaximumPoolSize());
+  }
+}
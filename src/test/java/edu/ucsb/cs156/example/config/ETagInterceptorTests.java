@@ -0,0 +1,129 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ETagInterceptorTests {
+
+  @ETagVersioned("things")
+  static class ThingController {
+    @ETagVersioned
+    @GetMapping("/all")
+    public List<String> all() {
+      return List.of();
+    }
+
+    @GetMapping("/count")
+    public int count() {
+      return 0;
+    }
+
+    @ETagVersioned
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events() {
+      return new SseEmitter();
+    }
+
+    @PostMapping("/post")
+    public void post() {
+    }
+  }
+
+  ETagInterceptor interceptor = new ETagInterceptor();
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  private static HandlerMethod handler(String name) throws NoSuchMethodException {
+    return new HandlerMethod(new ThingController(), name);
+  }
+
+  private static void loginAs(String... roles) {
+    SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("cgaucho", null, roles));
+  }
+
+  private MockHttpServletResponse handle(String method, String handlerName, String ifNoneMatch) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, "/" + handlerName);
+    if (ifNoneMatch != null) {
+      request.addHeader("If-None-Match", ifNoneMatch);
+    }
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    if (interceptor.preHandle(request, response, handler(handlerName))) {
+      interceptor.afterCompletion(request, response, handler(handlerName), null);
+    }
+    return response;
+  }
+
+  @Test
+  void test_a_listed_read_with_a_matching_tag_is_not_modified() throws Exception {
+    loginAs("ROLE_USER");
+    String etag = handle("GET", "all", null).getHeader("ETag");
+
+    MockHttpServletResponse response = handle("GET", "all", etag);
+
+    assertEquals(304, response.getStatus());
+  }
+
+  @Test
+  void test_a_write_changes_the_tag() throws Exception {
+    loginAs("ROLE_USER");
+    String etag = handle("GET", "all", null).getHeader("ETag");
+
+    handle("POST", "post", null);
+
+    assertNotEquals(etag, handle("GET", "all", etag).getHeader("ETag"));
+  }
+
+  @Test
+  void test_reads_that_are_not_listed_get_no_tag() throws Exception {
+    loginAs("ROLE_USER");
+
+    assertNull(handle("GET", "count", null).getHeader("ETag"));
+    assertEquals(200, handle("GET", "count", "*").getStatus());
+  }
+
+  @Test
+  void test_event_streams_get_no_tag_even_if_listed() throws Exception {
+    loginAs("ROLE_USER");
+
+    assertNull(handle("GET", "events", null).getHeader("ETag"));
+    assertEquals(200, handle("GET", "events", "*").getStatus());
+  }
+
+  @Test
+  void test_the_tag_depends_on_the_handler_and_the_callers_authorities() throws Exception {
+    loginAs("ROLE_USER");
+    String userTag = handle("GET", "all", null).getHeader("ETag");
+    loginAs("ROLE_USER", "ROLE_ADMIN");
+    String adminTag = handle("GET", "all", null).getHeader("ETag");
+
+    assertNotEquals(userTag, adminTag);
+    assertEquals(200, handle("GET", "all", userTag).getStatus());
+  }
+
+  @Test
+  void test_callers_without_role_user_are_left_to_method_security() throws Exception {
+    loginAs("ROLE_GUEST");
+    MockHttpServletResponse response = handle("GET", "all", "*");
+
+    assertEquals(200, response.getStatus());
+    assertNull(response.getHeader("ETag"));
+  }
+}
@@ -0,0 +1,82 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * The context only starts if Hibernate's <code>ddl-auto=validate</code>
+ * accepts the schema that the migrations in db/migration build on an empty
+ * database.
+ */
+
+@DataJpaTest
+@Import({ JpaConfig.class, SchemaIndexCheck.class })
+class SchemaMigrationTests {
+
+  @Autowired
+  Flyway flyway;
+
+  @Autowired
+  SchemaIndexCheck schemaIndexCheck;
+
+  @Test
+  void test_all_migrations_are_applied() {
+    assertEquals("8", flyway.info().current().getVersion().getVersion());
+    assertEquals(0, flyway.info().pending().length);
+  }
+
+  @Test
+  void test_migrations_create_the_lookup_indexes() throws Exception {
+    assertEquals(List.of(), schemaIndexCheck.missingIndexes());
+  }
+
+  @Test
+  void test_missing_indexes_stop_startup() throws Exception {
+    SchemaIndexCheck check = new SchemaIndexCheck();
+    check.dataSource = new DriverManagerDataSource("jdbc:h2:mem:noindexes");
+
+    assertEquals(SchemaIndexCheck.REQUIRED_INDEXES.length, check.missingIndexes().size());
+    IllegalStateException e = assertThrows(IllegalStateException.class, () -> check.run(null));
+    assertTrue(e.getMessage().startsWith("Missing database indexes on [users(email), "));
+  }
+
+  @Test
+  void test_v8_keeps_one_user_per_email() {
+    DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:duplicateemails;DB_CLOSE_DELAY=-1");
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    Flyway.configure().dataSource(dataSource).target("7").load().migrate();
+    // as if V5 had created a plain index
+    jdbcTemplate.execute("DROP INDEX users_email_idx");
+    jdbcTemplate.execute("CREATE INDEX users_email_idx ON users (email)");
+    String insert = "INSERT INTO users (email, email_verified, admin) VALUES (?, TRUE, ?)";
+    jdbcTemplate.update(insert, "cgaucho@ucsb.edu", false);
+    jdbcTemplate.update(insert, "cgaucho@ucsb.edu", true);
+    jdbcTemplate.update(insert, "ldelplaya@ucsb.edu", false);
+    jdbcTemplate.update(insert, null, false);
+    jdbcTemplate.update(insert, null, false);
+
+    Flyway.configure().dataSource(dataSource).load().migrate();
+
+    assertEquals(List.of(
+        Map.of("EMAIL", "cgaucho@ucsb.edu", "ADMIN", true),
+        Map.of("EMAIL", "ldelplaya@ucsb.edu", "ADMIN", false)),
+        jdbcTemplate.queryForList("SELECT email, admin FROM users WHERE email IS NOT NULL ORDER BY id"));
+    assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email IS NULL", Integer.class));
+    assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(insert, "ldelplaya@ucsb.edu", false));
+  }
+}
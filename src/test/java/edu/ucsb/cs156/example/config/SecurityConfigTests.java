@@ -0,0 +1,89 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.user.OAuth2UserAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.RoleRegistry;
+import edu.ucsb.cs156.example.services.UserCache;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityConfigTests {
+
+  static final GrantedAuthority ADMIN = new SimpleGrantedAuthority("ROLE_ADMIN");
+  static final GrantedAuthority MEMBER = new SimpleGrantedAuthority("ROLE_MEMBER");
+
+  @Mock
+  UserRepository userRepository;
+
+  @Mock
+  UserCache userCache;
+
+  @InjectMocks
+  RoleRegistry roleRegistry;
+
+  SecurityConfig securityConfig = new SecurityConfig();
+
+  @BeforeEach
+  void setUp() {
+    securityConfig.roleRegistry = roleRegistry;
+  }
+
+  private Collection<? extends GrantedAuthority> login(String email) {
+    OAuth2UserAuthority authority = new OAuth2UserAuthority(Map.of("sub", "sub-" + email, "email", email));
+    return securityConfig.userAuthoritiesMapper().mapAuthorities(List.of(authority));
+  }
+
+  @Test
+  void test_flipping_admin_on_the_user_row_changes_the_authorities() {
+    User user = User.builder().email("cgaucho@ucsb.edu").googleSub("sub-cgaucho@ucsb.edu").admin(false).build();
+    assertFalse(login("cgaucho@ucsb.edu").contains(ADMIN));
+    assertTrue(login("cgaucho@ucsb.edu").contains(MEMBER));
+
+    user.setAdmin(true);
+    roleRegistry.userSaved(user);
+    assertTrue(login("cgaucho@ucsb.edu").contains(ADMIN));
+
+    user.setAdmin(false);
+    roleRegistry.userSaved(user);
+    assertFalse(login("cgaucho@ucsb.edu").contains(ADMIN));
+  }
+
+  @Test
+  void test_admin_flag_set_in_the_database_applies_after_reload() {
+    User user = User.builder().email("cgaucho@ucsb.edu").admin(true).build();
+    when(userRepository.findAllByAdminTrue()).thenReturn(List.of()).thenReturn(List.of(user));
+    assertFalse(login("cgaucho@ucsb.edu").contains(ADMIN));
+
+    roleRegistry.reload();
+
+    assertTrue(login("cgaucho@ucsb.edu").contains(ADMIN));
+    verify(userCache, times(1)).invalidateAll();
+  }
+
+  @Test
+  void test_configured_admin_gets_the_admin_role() {
+    ReflectionTestUtils.setField(roleRegistry, "adminEmails", List.of("phtcon@ucsb.edu"));
+    assertTrue(login("phtcon@ucsb.edu").contains(ADMIN));
+    assertFalse(login("someone@gmail.com").contains(MEMBER));
+  }
+}
@@ -0,0 +1,26 @@
+package edu.ucsb.cs156.example.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+
+import edu.ucsb.cs156.example.services.HelpRequestEvents;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.MenuItemCatalog;
+import edu.ucsb.cs156.example.services.SearchService;
+
+class StartupConfigTests {
+
+  @Test
+  void test_beans_with_scheduled_methods_are_not_lazy() {
+    LazyInitializationExcludeFilter filter = StartupConfig.scheduledBeansAreEager();
+
+    assertTrue(filter.isExcluded("menuItemCatalog", null, MenuItemCatalog.class));
+    assertTrue(filter.isExcluded("searchService", null, SearchService.class));
+    assertTrue(filter.isExcluded("helpRequestEvents", null, HelpRequestEvents.class));
+    assertFalse(filter.isExcluded("listQueryService", null, ListQueryService.class));
+    assertFalse(filter.isExcluded("unknown", null, null));
+  }
+}
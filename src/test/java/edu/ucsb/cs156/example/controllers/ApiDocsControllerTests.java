@@ -0,0 +1,38 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ApiDocsController.class, properties = "springfox.documentation.enabled=false")
+@Import(TestConfig.class)
+public class ApiDocsControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @Test
+  public void api_docs_are_the_spec_generated_at_build_time() throws Exception {
+    mockMvc.perform(get("/api/docs"))
+        .andExpect(status().isOk())
+        .andExpect(forwardedUrl("/api-docs/swagger.json"));
+  }
+
+  @Test
+  public void swagger_ui_configuration_is_served_from_static_files() throws Exception {
+    mockMvc.perform(get("/swagger-resources"))
+        .andExpect(forwardedUrl("/api-docs/swagger-resources.json"));
+    mockMvc.perform(get("/swagger-resources/configuration/ui"))
+        .andExpect(forwardedUrl("/api-docs/swagger-resources-ui.json"));
+    mockMvc.perform(get("/swagger-resources/configuration/security"))
+        .andExpect(forwardedUrl("/api-docs/swagger-resources-security.json"));
+  }
+}
@@ -1,10 +1,15 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.SearchService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,6 +18,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -42,6 +48,18 @@ public class ArticleControllerTests extends ControllerTestCase {
     @MockBean
     UserRepository userRepository;
 
+    @MockBean
+    ListQueryService listQueryService;
+
+    @MockBean
+    PartialUpdateService partialUpdateService;
+
+    @MockBean
+    JsonStreamingService jsonStreamingService;
+
+    @MockBean
+    SearchService searchService;
+
     // Authorization tests for /api/Article/admin/all
 
     @Test
@@ -171,6 +189,52 @@ public class ArticleControllerTests extends ControllerTestCase {
         String responseString = response.getResponse().getContentAsString();
         assertEquals(expectedJson, responseString);
     }
+
+    @WithMockUser(roles = { "USER" })
+    @Test
+    public void logged_in_user_can_get_a_page_of_article() throws Exception {
+
+        // arrange
+        LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
+
+        Article article1 = Article.builder()
+                        .title("React Tutorial")
+                        .url("https://www.w3schools.com/REACT/DEFAULT.ASP")
+                        .explanation("Basic react tutorial")
+                        .email("jgaroppolo@ucsb.edu")
+                        .dateAdded(ldt1)
+                        .build();
+
+        LocalDateTime ldt2 = LocalDateTime.parse("2022-03-11T00:00:00");
+
+        Article article2 = Article.builder()
+                        .title("Handy Spring Utility Classes")
+                        .url("https://twitter.com/maciejwalkowiak/status/1511736828369719300?t=gGXpmBH4y4eY9OBSUInZEg&s=09")
+                        .explanation("A lot of really useful classes are built into Spring")
+                        .email("bwayne@ucsb.edu")
+                        .dateAdded(ldt2)
+                        .build();
+
+        ArrayList<Article> expectedDates = new ArrayList<>();
+        expectedDates.addAll(Arrays.asList(article1, article2));
+
+        when(articleRepository.findByIdGreaterThanOrderByIdAsc(eq(7L), eq(PageRequest.of(0, 2)))).thenReturn(expectedDates);
+
+        // act
+        MvcResult response = mockMvc.perform(get("/api/Article/all?after=7&limit=2"))
+                        .andExpect(status().isOk()).andReturn();
+
+        // assert
+
+        verify(articleRepository, times(1)).findByIdGreaterThanOrderByIdAsc(7L, PageRequest.of(0, 2));
+        KeysetPage<Article> expectedPage = KeysetPage.<Article>builder()
+                        .items(expectedDates)
+                        .nextCursor(String.valueOf(expectedDates.get(1).getId()))
+                        .build();
+        String expectedJson = mapper.writeValueAsString(expectedPage);
+        String responseString = response.getResponse().getContentAsString();
+        assertEquals(expectedJson, responseString);
+    }
     
     @WithMockUser(roles = { "ADMIN", "USER" })
     @Test
@@ -197,6 +261,7 @@ public class ArticleControllerTests extends ControllerTestCase {
 
         // assert
         verify(articleRepository, times(1)).save(article1);
+        verify(searchService, times(1)).index(article1);
         String expectedJson = mapper.writeValueAsString(article1);
         String responseString = response.getResponse().getContentAsString();
         assertEquals(expectedJson, responseString);
@@ -207,17 +272,7 @@ public class ArticleControllerTests extends ControllerTestCase {
     public void admin_can_delete_a_article() throws Exception {
         // arrange
 
-        LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
-
-        Article article1 = Article.builder()
-                        .title("Rick Astley - Never Gonna Give You Up")
-                        .url("https://www.youtube.com/watch?v=dQw4w9WgXcQ")
-                        .explanation("Rick Roll")
-                        .email("abutler@ucsb.edu")
-                        .dateAdded(ldt1)
-                        .build();
-
-        when(articleRepository.findById(eq(15L))).thenReturn(Optional.of(article1));
+        when(articleRepository.removeById(eq(15L))).thenReturn(1);
 
         // act
         MvcResult response = mockMvc.perform(
@@ -226,8 +281,8 @@ public class ArticleControllerTests extends ControllerTestCase {
                         .andExpect(status().isOk()).andReturn();
 
         // assert
-        verify(articleRepository, times(1)).findById(15L);
-        verify(articleRepository, times(1)).delete(any());
+        verify(articleRepository, times(1)).removeById(15L);
+        verify(searchService, times(1)).delete(SearchService.ARTICLE, 15L);
 
         Map<String, Object> json = responseToJson(response);
         assertEquals("Article with id 15 deleted", json.get("message"));
@@ -239,7 +294,7 @@ public class ArticleControllerTests extends ControllerTestCase {
                 throws Exception {
         // arrange
 
-        when(articleRepository.findById(eq(15L))).thenReturn(Optional.empty());
+        when(articleRepository.removeById(eq(15L))).thenReturn(0);
 
         // act
         MvcResult response = mockMvc.perform(
@@ -248,7 +303,7 @@ public class ArticleControllerTests extends ControllerTestCase {
                         .andExpect(status().isNotFound()).andReturn();
 
         // assert
-        verify(articleRepository, times(1)).findById(15L);
+        verify(articleRepository, times(1)).removeById(15L);
         Map<String, Object> json = responseToJson(response);
         assertEquals("Article with id 15 not found", json.get("message"));
     }
@@ -258,18 +313,10 @@ public class ArticleControllerTests extends ControllerTestCase {
     public void admin_can_edit_an_existing_article() throws Exception {
         // arrange
 
-        LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
         LocalDateTime ldt2 = LocalDateTime.parse("2023-01-03T00:00:00");
 
-        Article articleOrig = Article.builder()
-                .title("ABBA - Gimme! Gimme! Gimme!")
-                .url("https://www.youtube.com/watch?v=XEjLoHdbVeE")
-                .explanation("Mamma Mia!")
-                .email("tswift@ucsb.edu")
-                .dateAdded(ldt1)
-                .build();
-
         Article articleEdited = Article.builder()
+                .id(67L)
                 .title("Bee Gees - Stayin' Alive")
                 .url("https://www.youtube.com/watch?v=I_izvAbhExY")
                 .explanation("Right tempo for CPR")
@@ -279,7 +326,7 @@ public class ArticleControllerTests extends ControllerTestCase {
 
         String requestBody = mapper.writeValueAsString(articleEdited);
 
-        when(articleRepository.findById(eq(67L))).thenReturn(Optional.of(articleOrig));
+        when(articleRepository.updateById(eq(67L), eq(articleEdited))).thenReturn(1);
 
         // act
         MvcResult response = mockMvc.perform(
@@ -291,8 +338,8 @@ public class ArticleControllerTests extends ControllerTestCase {
                         .andExpect(status().isOk()).andReturn();
 
         // assert
-        verify(articleRepository, times(1)).findById(67L);
-        verify(articleRepository, times(1)).save(articleEdited); // should be saved with correct user
+        verify(articleRepository, times(1)).updateById(67L, articleEdited);
+        verify(searchService, times(1)).index(articleEdited);
         String responseString = response.getResponse().getContentAsString();
         assertEquals(requestBody, responseString);
     }
@@ -314,7 +361,7 @@ public class ArticleControllerTests extends ControllerTestCase {
 
         String requestBody = mapper.writeValueAsString(articleEdited);
 
-        when(articleRepository.findById(eq(67L))).thenReturn(Optional.empty());
+        when(articleRepository.updateById(eq(67L), any())).thenReturn(0);
 
         // act
         MvcResult response = mockMvc.perform(
@@ -326,9 +373,60 @@ public class ArticleControllerTests extends ControllerTestCase {
                         .andExpect(status().isNotFound()).andReturn();
 
         // assert
-        verify(articleRepository, times(1)).findById(67L);
+        verify(articleRepository, times(1)).updateById(eq(67L), any());
         Map<String, Object> json = responseToJson(response);
         assertEquals("Article with id 67 not found", json.get("message"));
 
     }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void admin_can_patch_some_fields_of_an_existing_article() throws Exception {
+        // arrange
+
+        Article patched = Article.builder()
+                .id(67L)
+                .title("Bee Gees - Stayin' Alive")
+                .email("rpattinson@ucsb.edu")
+                .build();
+        Map<String, Object> changes = Map.of("title", "Bee Gees - Stayin' Alive");
+
+        when(partialUpdateService.patch(eq(Article.class), eq(67L), eq(changes))).thenReturn(Optional.of(patched));
+
+        // act
+        MvcResult response = mockMvc.perform(
+                        patch("/api/Article?id=67")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .characterEncoding("utf-8")
+                                        .content(mapper.writeValueAsString(changes))
+                                        .with(csrf()))
+                        .andExpect(status().isOk()).andReturn();
+
+        // assert
+        verify(partialUpdateService, times(1)).patch(Article.class, 67L, changes);
+        verify(searchService, times(1)).index(patched);
+        assertEquals(mapper.writeValueAsString(patched), response.getResponse().getContentAsString());
+    }
+
+    @WithMockUser(roles = { "ADMIN", "USER" })
+    @Test
+    public void admin_cannot_patch_article_that_does_not_exist() throws Exception {
+        // arrange
+
+        Map<String, Object> changes = Map.of("title", "Bee Gees - Stayin' Alive");
+        when(partialUpdateService.patch(eq(Article.class), eq(67L), eq(changes))).thenReturn(Optional.empty());
+
+        // act
+        MvcResult response = mockMvc.perform(
+                        patch("/api/Article?id=67")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .characterEncoding("utf-8")
+                                        .content(mapper.writeValueAsString(changes))
+                                        .with(csrf()))
+                        .andExpect(status().isNotFound()).andReturn();
+
+        // assert
+        Map<String, Object> json = responseToJson(response);
+        assertEquals("Article with id 67 not found", json.get("message"));
+    }
 }
@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.CacheStatistics;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+
+@WebMvcTest(controllers = CachesController.class)
+@Import(TestConfig.class)
+public class CachesControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  CacheManager cacheManager;
+
+  @Test
+  public void caches__logged_out() throws Exception {
+    mockMvc.perform(get("/api/admin/caches"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void caches__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/caches"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void caches__admin_logged_in() throws Exception {
+
+    // arrange
+
+    CaffeineCache dates = new CaffeineCache("ucsbdates", Caffeine.newBuilder().recordStats().build());
+    dates.put(1L, "first");
+    dates.get(1L);
+    dates.get(1L);
+    dates.get(2L);
+
+    when(cacheManager.getCacheNames()).thenReturn(List.of("ucsbdates", "other"));
+    when(cacheManager.getCache("ucsbdates")).thenReturn(dates);
+    when(cacheManager.getCache("other")).thenReturn(new ConcurrentMapCache("other"));
+
+    CacheStatistics expected = CacheStatistics.builder()
+        .name("ucsbdates")
+        .size(1)
+        .hitCount(2)
+        .missCount(1)
+        .hitRate(2.0 / 3.0)
+        .evictionCount(0)
+        .build();
+    String expectedJson = mapper.writeValueAsString(List.of(expected));
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/admin/caches"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    String responseString = response.getResponse().getContentAsString();
+    assertEquals(expectedJson, responseString);
+  }
+}
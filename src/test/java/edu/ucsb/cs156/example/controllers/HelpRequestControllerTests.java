@@ -1,21 +1,30 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.HelpRequestEvents;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.SearchService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,6 +51,21 @@ public class HelpRequestControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        ListQueryService listQueryService;
+
+        @MockBean
+        PartialUpdateService partialUpdateService;
+
+        @MockBean
+        JsonStreamingService jsonStreamingService;
+
+        @MockBean
+        SearchService searchService;
+
+        @MockBean
+        HelpRequestEvents helpRequestEvents;
+
         // Authorization tests for /api/HelpRequest/admin/all
 
         @Test
@@ -174,6 +198,115 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_a_page_of_helprequests() throws Exception {
+
+                // arrange
+                LocalDateTime ldt1 = LocalDateTime.parse("2022-04-20T17:35:00");
+
+                HelpRequest helpRequest1 = HelpRequest.builder()
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("s22-5pm-3")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(ldt1)
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+
+                LocalDateTime ldt2 = LocalDateTime.parse("2022-04-20T18:31:00");
+
+                HelpRequest helpRequest2 = HelpRequest.builder()
+                                .requesterEmail("ldelplaya@ucsb.edu")
+                                .teamId("s22-6pm-3")
+                                .tableOrBreakoutRoom("11")
+                                .requestTime(ldt2)
+                                .explanation("Heroku problems")
+                                .solved(false)
+                                .build();
+
+                ArrayList<HelpRequest> expectedRequests = new ArrayList<>();
+                expectedRequests.addAll(Arrays.asList(helpRequest1, helpRequest2));
+
+                when(helpRequestRepository.findByIdGreaterThanOrderByIdAsc(eq(7L), eq(PageRequest.of(0, 2)))).thenReturn(expectedRequests);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/HelpRequest/all?after=7&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(helpRequestRepository, times(1)).findByIdGreaterThanOrderByIdAsc(7L, PageRequest.of(0, 2));
+                KeysetPage<HelpRequest> expectedPage = KeysetPage.<HelpRequest>builder()
+                                .items(expectedRequests)
+                                .nextCursor(String.valueOf(expectedRequests.get(1).getId()))
+                                .build();
+                String expectedJson = mapper.writeValueAsString(expectedPage);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Tests for the open queue and the change stream
+
+        @Test
+        public void logged_out_users_cannot_get_open_or_stream() throws Exception {
+                mockMvc.perform(get("/api/HelpRequest/open"))
+                                .andExpect(status().is(403));
+                mockMvc.perform(get("/api/HelpRequest/stream"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_open_helprequests() throws Exception {
+
+                // arrange
+                HelpRequest helpRequest1 = HelpRequest.builder()
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("s22-5pm-3")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse("2022-04-20T17:35:00"))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+
+                when(helpRequestRepository.findAllBySolvedFalseOrderByRequestTimeAsc()).thenReturn(List.of(helpRequest1));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/HelpRequest/open"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(helpRequestRepository, times(1)).findAllBySolvedFalseOrderByRequestTimeAsc();
+                verify(helpRequestRepository, times(0)).findAll();
+                assertEquals(mapper.writeValueAsString(List.of(helpRequest1)), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_subscribe_to_the_stream() throws Exception {
+
+                when(helpRequestEvents.subscribe()).thenReturn(new SseEmitter());
+
+                mockMvc.perform(get("/api/HelpRequest/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                                .andExpect(request().asyncStarted());
+
+                verify(helpRequestEvents, times(1)).subscribe();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void the_stream_has_no_etag() throws Exception {
+
+                when(helpRequestEvents.subscribe()).thenReturn(new SseEmitter());
+
+                mockMvc.perform(get("/api/HelpRequest/stream").accept(MediaType.TEXT_EVENT_STREAM).header("If-None-Match", "*"))
+                                .andExpect(request().asyncStarted())
+                                .andExpect(header().doesNotExist("ETag"));
+
+                verify(helpRequestEvents, times(1)).subscribe();
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_helprequest() throws Exception {
@@ -200,6 +333,8 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 // assert
                 verify(helpRequestRepository, times(1)).save(helpRequest1);
+                verify(searchService, times(1)).index(helpRequest1);
+                verify(helpRequestEvents, times(1)).publish(HelpRequestEvents.CREATED, helpRequest1);
                 String expectedJson = mapper.writeValueAsString(helpRequest1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -211,18 +346,9 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                 // arrange
 
                 LocalDateTime ldt1 = LocalDateTime.parse("2022-04-20T17:35:00");
-                LocalDateTime ldt2 = LocalDateTime.parse("2022-04-20T19:35:00");
-
-                HelpRequest helpRequestOrig = HelpRequest.builder()
-                                .requesterEmail("cgaucho@ucsb.edu")
-                                .teamId("s22-5pm-3")
-                                .tableOrBreakoutRoom("7")
-                                .requestTime(ldt1)
-                                .explanation("Need help with Swagger-ui")
-                                .solved(false)
-                                .build();
 
                 HelpRequest helpRequestEdited = HelpRequest.builder()
+                                .id(67L)
                                 .requesterEmail("cgaucho@ucsb.edu")
                                 .teamId("s22-5pm-4")
                                 .tableOrBreakoutRoom("8")
@@ -233,7 +359,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(helpRequestEdited);
 
-                when(helpRequestRepository.findById(eq(67L))).thenReturn(Optional.of(helpRequestOrig));
+                when(helpRequestRepository.updateById(eq(67L), eq(helpRequestEdited))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -245,8 +371,9 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(helpRequestRepository, times(1)).findById(67L);
-                verify(helpRequestRepository, times(1)).save(helpRequestEdited); // should be saved with correct user
+                verify(helpRequestRepository, times(1)).updateById(67L, helpRequestEdited);
+                verify(searchService, times(1)).index(helpRequestEdited);
+                verify(helpRequestEvents, times(1)).publish(HelpRequestEvents.UPDATED, helpRequestEdited);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -269,7 +396,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(helpEditedRequest);
 
-                when (helpRequestRepository.findById(eq(67L))).thenReturn(Optional.empty());
+                when(helpRequestRepository.updateById(eq(67L), any())).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -281,7 +408,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(helpRequestRepository, times(1)).findById(67L);
+                verify(helpRequestRepository, times(1)).updateById(eq(67L), any());
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("HelpRequest with id 67 not found", json.get("message"));
 
@@ -293,18 +420,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
         public void admin_can_delete_a_helprequest() throws Exception {
                 // arrange
 
-                LocalDateTime ldt1 = LocalDateTime.parse("2022-04-20T17:35:00");
-
-                HelpRequest helpRequest1 = HelpRequest.builder()
-                                .requesterEmail("cgaucho@ucsb.edu")
-                                .teamId("s22-5pm-3")
-                                .tableOrBreakoutRoom("7")
-                                .requestTime(ldt1)
-                                .explanation("Need help with Swagger-ui")
-                                .solved(false)
-                                .build();
-
-                when(helpRequestRepository.findById(eq(15L))).thenReturn(Optional.of(helpRequest1));
+                when(helpRequestRepository.removeById(eq(15L))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -313,8 +429,9 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(helpRequestRepository, times(1)).findById(15L);
-                verify(helpRequestRepository, times(1)).delete(any());
+                verify(helpRequestRepository, times(1)).removeById(15L);
+                verify(searchService, times(1)).delete(SearchService.HELP_REQUEST, 15L);
+                verify(helpRequestEvents, times(1)).publish(eq(HelpRequestEvents.DELETED), any());
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("HelpRequest with id 15 deleted", json.get("message"));
@@ -326,7 +443,7 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                         throws Exception {
                 // arrange
 
-                when(helpRequestRepository.findById(eq(15L))).thenReturn(Optional.empty());
+                when(helpRequestRepository.removeById(eq(15L))).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -335,8 +452,61 @@ public class HelpRequestControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(helpRequestRepository, times(1)).findById(15L);
+                verify(helpRequestRepository, times(1)).removeById(15L);
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("HelpRequest with id 15 not found", json.get("message"));
         }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_patch_some_fields_of_an_existing_helprequest() throws Exception {
+                // arrange
+
+                HelpRequest patched = HelpRequest.builder()
+                                .id(67L)
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("s22-5pm-3")
+                                .solved(true)
+                                .build();
+                Map<String, Object> changes = Map.of("solved", true);
+
+                when(partialUpdateService.patch(eq(HelpRequest.class), eq(67L), eq(changes))).thenReturn(Optional.of(patched));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/HelpRequest?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(partialUpdateService, times(1)).patch(HelpRequest.class, 67L, changes);
+                verify(searchService, times(1)).index(patched);
+                verify(helpRequestEvents, times(1)).publish(HelpRequestEvents.UPDATED, patched);
+                assertEquals(mapper.writeValueAsString(patched), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_cannot_patch_helprequest_that_does_not_exist() throws Exception {
+                // arrange
+
+                Map<String, Object> changes = Map.of("solved", true);
+                when(partialUpdateService.patch(eq(HelpRequest.class), eq(67L), eq(changes))).thenReturn(Optional.empty());
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/HelpRequest?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isNotFound()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("HelpRequest with id 67 not found", json.get("message"));
+        }
 }
@@ -1,21 +1,37 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.MenuItemRatingStatsService;
+import edu.ucsb.cs156.example.services.MenuItemReviewService;
+import edu.ucsb.cs156.example.services.SearchService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.models.KeysetPage;
+import edu.ucsb.cs156.example.models.MenuItemRatingSummary;
 import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+import edu.ucsb.cs156.example.errors.InvalidRecordException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,12 +43,17 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-@WebMvcTest(controllers = MenuItemReviewController.class)
+@WebMvcTest(controllers = MenuItemReviewController.class, properties = "app.bulk.chunkSize=2")
 @Import(TestConfig.class)
 public class MenuItemReviewControllerTests extends ControllerTestCase {
 
@@ -42,6 +63,21 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        ListQueryService listQueryService;
+
+        @MockBean
+        JsonStreamingService jsonStreamingService;
+
+        @MockBean
+        MenuItemRatingStatsService ratingStatsService;
+
+        @MockBean
+        MenuItemReviewService menuItemReviewService;
+
+        @MockBean
+        SearchService searchService;
+
         // Authorization tests for /api/ucsbdates/admin/all
 
         @Test
@@ -172,6 +208,243 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_filter_sort_and_select_fields_of_menuitemreviews() throws Exception {
+
+                // arrange
+                List<Map<String, Object>> rows = List.of(Map.of("id", 4, "stars", 5), Map.of("id", 2, "stars", 4));
+                doReturn(rows).when(listQueryService).findAll(MenuItemReview.class, List.of("stars:ge:4", "itemId:eq:5"), "-stars", "id,stars");
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/all?filter=stars:ge:4&filter=itemId:eq:5&sort=-stars&fields=id,stars"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(listQueryService, times(1)).findAll(MenuItemReview.class, List.of("stars:ge:4", "itemId:eq:5"), "-stars", "id,stars");
+                verify(menuItemReviewRepository, times(0)).findAll();
+                assertEquals(mapper.readTree(mapper.writeValueAsString(rows)), mapper.readTree(response.getResponse().getContentAsString()));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void invalid_list_query_is_a_bad_request() throws Exception {
+
+                when(listQueryService.findAll(MenuItemReview.class, null, "shoeSize", null))
+                                .thenThrow(new InvalidQueryException("unknown field shoeSize"));
+
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/all?sort=shoeSize"))
+                                .andExpect(status().isBadRequest()).andReturn();
+
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidQueryException", json.get("type"));
+                assertEquals("unknown field shoeSize", json.get("message"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_a_page_of_menuitemreviews() throws Exception {
+
+                // arrange
+                LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
+
+                MenuItemReview menuItemReview1 = MenuItemReview.builder()
+                                .itemId(5)
+                                .reviewerEmail("chrisgaucho@ucsb.edu")
+                                .stars(5)
+                                .dateReviewed(ldt1)
+                                .comments("Best I've seen it")
+                                .build();
+
+                LocalDateTime ldt2 = LocalDateTime.parse("2022-03-11T00:00:00");
+
+                MenuItemReview menuItemReview2 = MenuItemReview.builder()
+                                .itemId(3)
+                                .reviewerEmail("johngaucho@ucsb.edu")
+                                .stars(2)
+                                .dateReviewed(ldt2)
+                                .comments("Not a huge fan today.")
+                                .build();
+
+                ArrayList<MenuItemReview> expectedDates = new ArrayList<>();
+                expectedDates.addAll(Arrays.asList(menuItemReview1, menuItemReview2));
+
+                when(menuItemReviewRepository.findByIdGreaterThanOrderByIdAsc(eq(7L), eq(PageRequest.of(0, 2)))).thenReturn(expectedDates);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/all?after=7&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(menuItemReviewRepository, times(1)).findByIdGreaterThanOrderByIdAsc(7L, PageRequest.of(0, 2));
+                KeysetPage<MenuItemReview> expectedPage = KeysetPage.<MenuItemReview>builder()
+                                .items(expectedDates)
+                                .nextCursor(String.valueOf(expectedDates.get(1).getId()))
+                                .build();
+                String expectedJson = mapper.writeValueAsString(expectedPage);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @Test
+        public void logged_out_users_cannot_get_a_page() throws Exception {
+                mockMvc.perform(get("/api/menuitemreview/all?limit=2"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void last_page_of_menuitemreviews_has_no_next_cursor() throws Exception {
+
+                // arrange
+                MenuItemReview menuItemReview1 = MenuItemReview.builder()
+                                .id(12L)
+                                .itemId(5)
+                                .reviewerEmail("chrisgaucho@ucsb.edu")
+                                .stars(5)
+                                .dateReviewed(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .comments("Best I've seen it")
+                                .build();
+
+                ArrayList<MenuItemReview> expectedReviews = new ArrayList<>();
+                expectedReviews.add(menuItemReview1);
+
+                when(menuItemReviewRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), eq(PageRequest.of(0, 2)))).thenReturn(expectedReviews);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/all?limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2));
+                Map<String, Object> json = responseToJson(response);
+                assertEquals(null, json.get("nextCursor"));
+                assertEquals(1, ((List<?>) json.get("items")).size());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void page_size_is_clamped_to_the_maximum() throws Exception {
+
+                // arrange
+                when(menuItemReviewRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(new ArrayList<>());
+
+                // act
+                mockMvc.perform(get("/api/menuitemreview/all?limit=5000"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/api/menuitemreview/all?limit=0"))
+                                .andExpect(status().isOk());
+
+                // assert
+                verify(menuItemReviewRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, ApiController.MAX_PAGE_SIZE));
+                verify(menuItemReviewRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void list_query_parameters_cannot_be_combined_with_limit() throws Exception {
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/all?limit=2&filter=stars:ge:4"))
+                                .andExpect(status().isBadRequest()).andReturn();
+                mockMvc.perform(get("/api/menuitemreview/all?limit=2&sort=-stars"))
+                                .andExpect(status().isBadRequest());
+                mockMvc.perform(get("/api/menuitemreview/all?limit=2&fields=id"))
+                                .andExpect(status().isBadRequest());
+
+                // assert
+                verify(menuItemReviewRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidQueryException", json.get("type"));
+                assertEquals("filter, sort and fields can't be combined with limit", json.get("message"));
+        }
+
+        @Test
+        public void logged_out_users_cannot_export() throws Exception {
+                mockMvc.perform(get("/api/menuitemreview/export"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_export_menuitemreviews() throws Exception {
+
+                // arrange
+                StreamingResponseBody body = out -> out.write("[]".getBytes());
+                when(jsonStreamingService.streamArray(any())).thenReturn(body);
+
+                // act
+                MvcResult started = mockMvc.perform(get("/api/menuitemreview/export"))
+                                .andExpect(request().asyncStarted()).andReturn();
+                MvcResult response = mockMvc.perform(asyncDispatch(started))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                ArgumentCaptor<Supplier<Stream<MenuItemReview>>> query = ArgumentCaptor.forClass(Supplier.class);
+                verify(jsonStreamingService, times(1)).streamArray(query.capture());
+                query.getValue().get();
+                verify(menuItemReviewRepository, times(1)).streamAllByOrderByIdAsc();
+                assertEquals("application/json", response.getResponse().getContentType());
+                assertEquals("[]", response.getResponse().getContentAsString());
+        }
+
+        // Tests for /api/menuitemreview/stats
+
+        @Test
+        public void logged_out_users_cannot_get_stats() throws Exception {
+                mockMvc.perform(get("/api/menuitemreview/stats?itemId=5"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_stats_of_an_item() throws Exception {
+                // arrange
+                MenuItemRatingSummary summary = MenuItemRatingSummary.builder()
+                                .itemId(5)
+                                .count(4)
+                                .mean(3.5)
+                                .histogram(Map.of(1, 0L, 2, 1L, 3, 1L, 4, 0L, 5, 2L))
+                                .lastReviewed(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .build();
+
+                when(ratingStatsService.getSummary(eq(5L))).thenReturn(summary);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/menuitemreview/stats?itemId=5"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ratingStatsService, times(1)).getSummary(5L);
+                String expectedJson = mapper.writeValueAsString(summary);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_rebuild_stats() throws Exception {
+                mockMvc.perform(post("/api/menuitemreview/stats/rebuild").with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_rebuild_stats() throws Exception {
+                // arrange
+                when(ratingStatsService.rebuild()).thenReturn(12);
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/menuitemreview/stats/rebuild").with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ratingStatsService, times(1)).rebuild();
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("Rebuilt rating statistics for 12 menu items", json.get("message"));
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_menuitemreview() throws Exception {
@@ -186,7 +459,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .comments("great")
                                 .build();
 
-                when(menuItemReviewRepository.save(eq(menuItemReview1))).thenReturn(menuItemReview1);
+                when(menuItemReviewService.create(eq(menuItemReview1))).thenReturn(menuItemReview1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -195,17 +468,70 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).save(menuItemReview1);
+                verify(menuItemReviewService, times(1)).create(menuItemReview1);
+                verify(searchService, times(1)).index(menuItemReview1);
                 String expectedJson = mapper.writeValueAsString(menuItemReview1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
         }
 
+        @Test
+        public void logged_out_users_cannot_bulk_post() throws Exception {
+                mockMvc.perform(post("/api/menuitemreview/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]")
+                                .with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_regular_users_cannot_bulk_post() throws Exception {
+                mockMvc.perform(post("/api/menuitemreview/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[]")
+                                .with(csrf()))
+                                .andExpect(status().is(403));
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
-        public void admin_can_delete_a_date() throws Exception {
+        public void an_admin_user_can_bulk_post_a_json_array_in_chunks() throws Exception {
                 // arrange
+                LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
 
+                List<MenuItemReview> reviews = new ArrayList<>();
+                for (int i = 1; i <= 3; i++) {
+                        reviews.add(MenuItemReview.builder()
+                                        .itemId(i)
+                                        .reviewerEmail("chrisgaucho@ucsb.edu")
+                                        .stars(i)
+                                        .dateReviewed(ldt1)
+                                        .comments("review " + i)
+                                        .build());
+                }
+
+                when(menuItemReviewRepository.findMaxId()).thenReturn(41L);
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/menuitemreview/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(mapper.writeValueAsString(reviews))
+                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewService, times(1)).insertChunk(0, reviews.subList(0, 2));
+                verify(menuItemReviewService, times(1)).insertChunk(2, reviews.subList(2, 3));
+                verify(searchService, times(1)).indexMenuItemReviewsAfter(41L);
+                String expectedJson = mapper.writeValueAsString(Map.of("inserted", 3, "chunks", 2));
+                assertEquals(mapper.readTree(expectedJson), mapper.readTree(response.getResponse().getContentAsString()));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void an_admin_user_can_bulk_post_ndjson() throws Exception {
+                // arrange
                 LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
 
                 MenuItemReview menuItemReview1 = MenuItemReview.builder()
@@ -216,8 +542,99 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .comments("great")
                                 .build();
 
-                when(menuItemReviewRepository.findById(eq(15L))).thenReturn(Optional.of(menuItemReview1));
+                MenuItemReview menuItemReview2 = MenuItemReview.builder()
+                                .itemId(6)
+                                .reviewerEmail("ldelplaya@ucsb.edu")
+                                .stars(2)
+                                .dateReviewed(ldt1)
+                                .comments("meh")
+                                .build();
+
+                String ndjson = mapper.writeValueAsString(menuItemReview1) + "\n" + mapper.writeValueAsString(menuItemReview2) + "\n";
 
+                // act
+                MvcResult response = mockMvc.perform(post("/api/menuitemreview/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(ndjson)
+                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewService, times(1)).insertChunk(0, List.of(menuItemReview1, menuItemReview2));
+                String expectedJson = mapper.writeValueAsString(Map.of("inserted", 2, "chunks", 1));
+                assertEquals(mapper.readTree(expectedJson), mapper.readTree(response.getResponse().getContentAsString()));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void bulk_post_of_malformed_json_is_a_bad_request() throws Exception {
+                MvcResult response = mockMvc.perform(post("/api/menuitemreview/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[{\"itemId\": \"not a number\"}]")
+                                .with(csrf()))
+                                .andExpect(status().isBadRequest()).andReturn();
+
+                verify(menuItemReviewService, times(0)).insertChunk(anyInt(), any());
+                verify(searchService, never()).indexMenuItemReviewsAfter(anyLong());
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidFormatException", json.get("type"));
+                assertEquals(0, json.get("index"));
+                assertEquals(0, json.get("inserted"));
+                assertEquals(0, json.get("chunks"));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void bulk_post_keeps_the_chunks_committed_before_a_malformed_record() throws Exception {
+                // arrange
+                when(menuItemReviewRepository.findMaxId()).thenReturn(41L);
+                String ndjson = "{\"itemId\": 5, \"stars\": 4}\n{\"itemId\": 6, \"stars\": 3}\n{\"itemId\": \"not a number\"}\n";
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/menuitemreview/bulk")
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .content(ndjson)
+                                .with(csrf()))
+                                .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                verify(menuItemReviewService, times(1)).insertChunk(eq(0), any());
+                verify(menuItemReviewService, times(1)).insertChunk(anyInt(), any());
+                verify(searchService, times(1)).indexMenuItemReviewsAfter(41L);
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidFormatException", json.get("type"));
+                assertEquals(2, json.get("index"));
+                assertEquals(2, json.get("inserted"));
+                assertEquals(1, json.get("chunks"));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void bulk_post_with_an_invalid_record_is_a_bad_request_naming_its_index() throws Exception {
+                // arrange
+                doThrow(new InvalidRecordException(1, "stars must be between 1 and 5, not 9"))
+                                .when(menuItemReviewService).insertChunk(eq(0), any());
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/menuitemreview/bulk")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("[{\"itemId\": 5, \"stars\": 4}, {\"itemId\": 5, \"stars\": 9}]")
+                                .with(csrf()))
+                                .andExpect(status().isBadRequest()).andReturn();
+
+                // assert
+                verify(searchService, never()).indexMenuItemReviewsAfter(anyLong());
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("InvalidRecordException", json.get("type"));
+                assertEquals("record 1: stars must be between 1 and 5, not 9", json.get("message"));
+                assertEquals(1, json.get("index"));
+                assertEquals(0, json.get("inserted"));
+                assertEquals(0, json.get("chunks"));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_delete_a_date() throws Exception {
                 // act
                 MvcResult response = mockMvc.perform(
                                 delete("/api/menuitemreview?id=15")
@@ -225,8 +642,8 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(15L);
-                verify(menuItemReviewRepository, times(1)).delete(any());
+                verify(menuItemReviewService, times(1)).delete(15L);
+                verify(searchService, times(1)).delete(SearchService.MENU_ITEM_REVIEW, 15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("MenuItemReview with id 15 deleted", json.get("message"));
@@ -238,7 +655,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                         throws Exception {
                 // arrange
 
-                when(menuItemReviewRepository.findById(eq(15L))).thenReturn(Optional.empty());
+                doThrow(new EntityNotFoundException(MenuItemReview.class, 15L)).when(menuItemReviewService).delete(15L);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -247,7 +664,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(15L);
+                verify(searchService, never()).delete(any(), anyLong());
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("MenuItemReview with id 15 not found", json.get("message"));
         }
@@ -257,18 +674,10 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
         public void admin_can_edit_an_existing_ucsbdate() throws Exception {
                 // arrange
 
-                LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
                 LocalDateTime ldt2 = LocalDateTime.parse("2023-01-03T00:00:00");
 
-                MenuItemReview menuItemReviewOrig = MenuItemReview.builder()
-                                .itemId(5)
-                                .reviewerEmail("chrisgaucho@ucsb.edu")
-                                .stars(5)
-                                .dateReviewed(ldt1)
-                                .comments("Best I've seen it")
-                                .build();
-
                 MenuItemReview menuItemReviewEdited = MenuItemReview.builder()
+                                .id(67L)
                                 .itemId(5)
                                 .reviewerEmail("chrisgaucho@ucsb.edu")
                                 .stars(4)
@@ -278,7 +687,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(menuItemReviewEdited);
 
-                when(menuItemReviewRepository.findById(eq(67L))).thenReturn(Optional.of(menuItemReviewOrig));
+                when(menuItemReviewService.update(eq(67L), eq(menuItemReviewEdited))).thenReturn(menuItemReviewEdited);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -290,8 +699,8 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(67L);
-                verify(menuItemReviewRepository, times(1)).save(menuItemReviewEdited); // should be saved with correct user
+                verify(menuItemReviewService, times(1)).update(67L, menuItemReviewEdited);
+                verify(searchService, times(1)).index(menuItemReviewEdited);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -313,7 +722,7 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(menuItemReviewEdited);
 
-                when(menuItemReviewRepository.findById(eq(67L))).thenReturn(Optional.empty());
+                when(menuItemReviewService.update(eq(67L), any())).thenThrow(new EntityNotFoundException(MenuItemReview.class, 67L));
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -325,10 +734,60 @@ public class MenuItemReviewControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(menuItemReviewRepository, times(1)).findById(67L);
+                verify(searchService, never()).index(any(MenuItemReview.class));
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("MenuItemReview with id 67 not found", json.get("message"));
 
         }
-}
 
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_patch_some_fields_of_an_existing_menuitemreview() throws Exception {
+                // arrange
+
+                MenuItemReview patched = MenuItemReview.builder()
+                                .id(67L)
+                                .itemId(5)
+                                .reviewerEmail("chrisgaucho@ucsb.edu")
+                                .stars(3)
+                                .build();
+                Map<String, Object> changes = Map.of("stars", 3);
+                when(menuItemReviewService.patch(eq(67L), eq(changes))).thenReturn(patched);
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/menuitemreview?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemReviewService, times(1)).patch(67L, changes);
+                verify(searchService, times(1)).index(patched);
+                assertEquals(mapper.writeValueAsString(patched), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_cannot_patch_menuitemreview_that_does_not_exist() throws Exception {
+                // arrange
+
+                Map<String, Object> changes = Map.of("stars", 3);
+                when(menuItemReviewService.patch(eq(67L), eq(changes))).thenThrow(new EntityNotFoundException(MenuItemReview.class, 67L));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/menuitemreview?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isNotFound()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("MenuItemReview with id 67 not found", json.get("message"));
+        }
+}
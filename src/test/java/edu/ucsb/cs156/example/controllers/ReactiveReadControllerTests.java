@@ -0,0 +1,178 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.repositories.reactive.ReactiveHelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.reactive.ReactiveMenuItemReviewRepository;
+import edu.ucsb.cs156.example.repositories.reactive.ReactiveUCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import reactor.core.publisher.Flux;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@WebMvcTest(controllers = ReactiveReadController.class, properties = "app.reactive.enabled=true")
+@Import(TestConfig.class)
+public class ReactiveReadControllerTests extends ControllerTestCase {
+
+        @MockBean
+        ReactiveMenuItemReviewRepository reactiveMenuItemReviewRepository;
+
+        @MockBean
+        ReactiveUCSBDiningCommonsMenuItemRepository reactiveMenuItemRepository;
+
+        @MockBean
+        ReactiveHelpRequestRepository reactiveHelpRequestRepository;
+
+        @MockBean
+        UserRepository userRepository;
+
+        @Test
+        public void logged_out_users_cannot_stream_reviews() throws Exception {
+                mockMvc.perform(get("/api/reactive/menuitemreview/all"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_stream_all_reviews_as_ndjson() throws Exception {
+                // arrange
+                LocalDateTime ldt1 = LocalDateTime.parse("2022-01-03T00:00:00");
+
+                MenuItemReview review1 = MenuItemReview.builder()
+                                .id(1L)
+                                .itemId(5)
+                                .reviewerEmail("chrisgaucho@ucsb.edu")
+                                .stars(5)
+                                .dateReviewed(ldt1)
+                                .comments("great")
+                                .build();
+
+                MenuItemReview review2 = MenuItemReview.builder()
+                                .id(2L)
+                                .itemId(6)
+                                .reviewerEmail("ldelplaya@ucsb.edu")
+                                .stars(2)
+                                .dateReviewed(ldt1)
+                                .comments("meh")
+                                .build();
+
+                when(reactiveMenuItemReviewRepository.findAllOrderById()).thenReturn(Flux.just(review1, review2));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/reactive/menuitemreview/all"))
+                                .andExpect(request().asyncStarted()).andReturn();
+                mockMvc.perform(asyncDispatch(response)).andExpect(status().isOk());
+
+                // assert
+                verify(reactiveMenuItemReviewRepository, times(1)).findAllOrderById();
+                assertEquals("application/x-ndjson", response.getResponse().getContentType());
+                String expected = mapper.writeValueAsString(review1) + "\n" + mapper.writeValueAsString(review2) + "\n";
+                assertEquals(expected, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_stream_the_reviews_of_one_item() throws Exception {
+                // arrange
+                MenuItemReview review1 = MenuItemReview.builder()
+                                .id(1L)
+                                .itemId(5)
+                                .reviewerEmail("chrisgaucho@ucsb.edu")
+                                .stars(5)
+                                .dateReviewed(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .comments("great")
+                                .build();
+
+                when(reactiveMenuItemReviewRepository.findAllByItemIdOrderById(eq(5L))).thenReturn(Flux.just(review1));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/reactive/menuitemreview/all?itemId=5"))
+                                .andExpect(request().asyncStarted()).andReturn();
+                mockMvc.perform(asyncDispatch(response)).andExpect(status().isOk());
+
+                // assert
+                verify(reactiveMenuItemReviewRepository, times(1)).findAllByItemIdOrderById(5L);
+                assertEquals(mapper.writeValueAsString(review1) + "\n", response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_stream_menu_items() throws Exception {
+                // arrange
+                UCSBDiningCommonsMenuItem item1 = UCSBDiningCommonsMenuItem.builder()
+                                .id(1L)
+                                .diningCommonsCode("ortega")
+                                .name("Baked Pesto Pasta with Chicken")
+                                .station("Entree Specials")
+                                .build();
+
+                UCSBDiningCommonsMenuItem item2 = UCSBDiningCommonsMenuItem.builder()
+                                .id(2L)
+                                .diningCommonsCode("portola")
+                                .name("Tofu Banh Mi Sandwich (v)")
+                                .station("Entree Specials")
+                                .build();
+
+                when(reactiveMenuItemRepository.findAllOrderById()).thenReturn(Flux.just(item1, item2));
+                when(reactiveMenuItemRepository.findAllByDiningCommonsCodeOrderById(eq("ortega"))).thenReturn(Flux.just(item1));
+
+                // act
+                MvcResult all = mockMvc.perform(get("/api/reactive/UCSBDiningCommonsMenuItem/all"))
+                                .andExpect(request().asyncStarted()).andReturn();
+                mockMvc.perform(asyncDispatch(all)).andExpect(status().isOk());
+                MvcResult ortega = mockMvc.perform(get("/api/reactive/UCSBDiningCommonsMenuItem/all?diningCommonsCode=ortega"))
+                                .andExpect(request().asyncStarted()).andReturn();
+                mockMvc.perform(asyncDispatch(ortega)).andExpect(status().isOk());
+
+                // assert
+                assertEquals(mapper.writeValueAsString(item1) + "\n" + mapper.writeValueAsString(item2) + "\n",
+                                all.getResponse().getContentAsString());
+                assertEquals(mapper.writeValueAsString(item1) + "\n", ortega.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_stream_help_requests() throws Exception {
+                // arrange
+                HelpRequest helpRequest1 = HelpRequest.builder()
+                                .id(1L)
+                                .requesterEmail("cgaucho@ucsb.edu")
+                                .teamId("f22-5pm-4")
+                                .tableOrBreakoutRoom("7")
+                                .requestTime(LocalDateTime.parse("2022-01-03T00:00:00"))
+                                .explanation("Need help with Swagger-ui")
+                                .solved(false)
+                                .build();
+
+                when(reactiveHelpRequestRepository.findAllOrderById()).thenReturn(Flux.just(helpRequest1));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/reactive/HelpRequest/all"))
+                                .andExpect(request().asyncStarted()).andReturn();
+                mockMvc.perform(asyncDispatch(response)).andExpect(status().isOk());
+
+                // assert
+                verify(reactiveHelpRequestRepository, times(1)).findAllOrderById();
+                assertEquals(mapper.writeValueAsString(helpRequest1) + "\n", response.getResponse().getContentAsString());
+        }
+}
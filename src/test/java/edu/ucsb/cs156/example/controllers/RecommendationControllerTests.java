@@ -1,10 +1,14 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.Recommendation;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.RecommendationRepository;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -41,6 +46,15 @@ public class RecommendationControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        ListQueryService listQueryService;
+
+        @MockBean
+        PartialUpdateService partialUpdateService;
+
+        @MockBean
+        JsonStreamingService jsonStreamingService;
+
         // Authorization tests for /api/recommendation/admin/all
 
         @Test
@@ -176,6 +190,55 @@ public class RecommendationControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_a_page_of_recommendations() throws Exception {
+
+                // arrange
+                LocalDateTime dRequested = LocalDateTime.parse("2022-03-11T00:00:00");
+                LocalDateTime dNeeded = LocalDateTime.parse("2022-04-15T00:00:00");
+                LocalDateTime dRequested2 = LocalDateTime.parse("2022-01-20T00:00:00");
+                LocalDateTime dNeeded2 = LocalDateTime.parse("2022-07-19T00:00:00");
+
+                Recommendation recommendation1 = Recommendation.builder()
+                                        .requesterEmail("requester")
+                                        .professorEmail("professor")
+                                        .explanation("reason")
+                                        .dateRequested(dRequested)
+                                        .dateNeeded(dNeeded)
+                                        .done(true)
+                                .build();
+
+                Recommendation recommendation2 = Recommendation.builder()
+                                        .requesterEmail("requester")
+                                        .professorEmail("professor")
+                                        .explanation("reason updated")
+                                        .dateRequested(dRequested2)
+                                        .dateNeeded(dNeeded2)
+                                        .done(true)
+                                .build();
+
+                ArrayList<Recommendation> expectedRecommendations = new ArrayList<>();
+                expectedRecommendations.addAll(Arrays.asList(recommendation1, recommendation2));
+
+                when(recommendationRepository.findByIdGreaterThanOrderByIdAsc(eq(7L), eq(PageRequest.of(0, 2)))).thenReturn(expectedRecommendations);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/Recommendation/all?after=7&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(recommendationRepository, times(1)).findByIdGreaterThanOrderByIdAsc(7L, PageRequest.of(0, 2));
+                KeysetPage<Recommendation> expectedPage = KeysetPage.<Recommendation>builder()
+                                .items(expectedRecommendations)
+                                .nextCursor(String.valueOf(expectedRecommendations.get(1).getId()))
+                                .build();
+                String expectedJson = mapper.writeValueAsString(expectedPage);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_recommendation() throws Exception {
@@ -211,19 +274,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
         @Test
         public void admin_can_delete_a_recommendation() throws Exception {
 
-                LocalDateTime dRequested = LocalDateTime.parse("2022-03-11T00:00:00");
-                LocalDateTime dNeeded = LocalDateTime.parse("2022-04-15T00:00:00");
-
-                Recommendation recommendation1 = Recommendation.builder()
-                                        .requesterEmail("requester")
-                                        .professorEmail("professor")
-                                        .explanation("reason")
-                                        .dateRequested(dRequested)
-                                        .dateNeeded(dNeeded)
-                                        .done(true)
-                                .build();
-
-                when(recommendationRepository.findById(eq(15L))).thenReturn(Optional.of(recommendation1));
+                when(recommendationRepository.removeById(eq(15L))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -232,8 +283,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(recommendationRepository, times(1)).findById(15L);
-                verify(recommendationRepository, times(1)).delete(any());
+                verify(recommendationRepository, times(1)).removeById(15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("Recommendation with id 15 deleted", json.get("message"));
@@ -245,7 +295,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
                         throws Exception {
                 // arrange
 
-                when(recommendationRepository.findById(eq(15L))).thenReturn(Optional.empty());
+                when(recommendationRepository.removeById(eq(15L))).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -254,7 +304,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(recommendationRepository, times(1)).findById(15L);
+                verify(recommendationRepository, times(1)).removeById(15L);
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("Recommendation with id 15 not found", json.get("message"));
         }
@@ -265,10 +315,9 @@ public class RecommendationControllerTests extends ControllerTestCase {
                 // arrange
                 LocalDateTime dRequested = LocalDateTime.parse("2022-03-11T00:00:00");
                 LocalDateTime dNeeded = LocalDateTime.parse("2022-04-15T00:00:00");
-                LocalDateTime dRequested2 = LocalDateTime.parse("2022-01-20T00:00:00");
-                LocalDateTime dNeeded2 = LocalDateTime.parse("2022-07-19T00:00:00");
 
                 Recommendation recommendationOrig = Recommendation.builder()
+                                        .id(67L)
                                         .requesterEmail("requester")
                                         .professorEmail("professor")
                                         .explanation("reason")
@@ -277,18 +326,9 @@ public class RecommendationControllerTests extends ControllerTestCase {
                                         .done(false)
                                 .build();
 
-                Recommendation recommendationEdited = Recommendation.builder()
-                                        .requesterEmail("newRequester")
-                                        .professorEmail("newProfessor")
-                                        .explanation("newReason")
-                                        .dateRequested(dRequested2)
-                                        .dateNeeded(dNeeded2)
-                                        .done(true)
-                                .build();
-
                 String requestBody = mapper.writeValueAsString(recommendationOrig);
 
-                when(recommendationRepository.findById(eq(67L))).thenReturn(Optional.of(recommendationEdited));
+                when(recommendationRepository.updateById(eq(67L), eq(recommendationOrig))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -300,8 +340,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(recommendationRepository, times(1)).findById(67L);
-                verify(recommendationRepository, times(1)).save(recommendationOrig); // should be saved with correct user
+                verify(recommendationRepository, times(1)).updateById(67L, recommendationOrig);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -325,7 +364,7 @@ public class RecommendationControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(recommendationEdited);
 
-                when(recommendationRepository.findById(eq(67L))).thenReturn(Optional.empty());
+                when(recommendationRepository.updateById(eq(67L), any())).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -337,8 +376,59 @@ public class RecommendationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(recommendationRepository, times(1)).findById(67L);
+                verify(recommendationRepository, times(1)).updateById(eq(67L), any());
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("Recommendation with id 67 not found", json.get("message"));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_patch_some_fields_of_an_existing_recommendation() throws Exception {
+                // arrange
+
+                Recommendation patched = Recommendation.builder()
+                                .id(67L)
+                                .requesterEmail("requester")
+                                .professorEmail("professor")
+                                .done(true)
+                                .build();
+                Map<String, Object> changes = Map.of("done", true);
+
+                when(partialUpdateService.patch(eq(Recommendation.class), eq(67L), eq(changes))).thenReturn(Optional.of(patched));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/Recommendation?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(partialUpdateService, times(1)).patch(Recommendation.class, 67L, changes);
+                assertEquals(mapper.writeValueAsString(patched), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_cannot_patch_recommendation_that_does_not_exist() throws Exception {
+                // arrange
+
+                Map<String, Object> changes = Map.of("done", true);
+                when(partialUpdateService.patch(eq(Recommendation.class), eq(67L), eq(changes))).thenReturn(Optional.empty());
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/Recommendation?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isNotFound()).andReturn();
+
+                // assert
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("Recommendation with id 67 not found", json.get("message"));
         }
-}
\ No newline at end of file
+}
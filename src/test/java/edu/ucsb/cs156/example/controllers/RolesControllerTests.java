@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.models.AdminRoles;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.RoleRegistry;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@WebMvcTest(controllers = RolesController.class)
+@Import(TestConfig.class)
+public class RolesControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  RoleRegistry roleRegistry;
+
+  AdminRoles adminRoles = AdminRoles.builder()
+      .configuredAdmins(List.of("phtcon@ucsb.edu"))
+      .userAdmins(List.of("cgaucho@ucsb.edu", "phtcon@ucsb.edu"))
+      .loadedAt(LocalDateTime.parse("2022-10-01T12:00:00"))
+      .build();
+
+  @Test
+  public void roles__logged_out() throws Exception {
+    mockMvc.perform(get("/api/admin/roles"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void roles__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/roles"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void roles__admin_logged_in() throws Exception {
+    when(roleRegistry.getAdminRoles()).thenReturn(adminRoles);
+
+    MvcResult response = mockMvc.perform(get("/api/admin/roles"))
+        .andExpect(status().isOk()).andReturn();
+
+    assertEquals(mapper.writeValueAsString(adminRoles), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void reload__user_logged_in() throws Exception {
+    mockMvc.perform(post("/api/admin/roles/reload").with(csrf()))
+        .andExpect(status().is(403));
+    verify(roleRegistry, never()).reload();
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void reload__admin_logged_in() throws Exception {
+    when(roleRegistry.reload()).thenReturn(adminRoles);
+
+    MvcResult response = mockMvc.perform(post("/api/admin/roles/reload").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+
+    verify(roleRegistry).reload();
+    assertEquals(mapper.writeValueAsString(adminRoles), response.getResponse().getContentAsString());
+  }
+}
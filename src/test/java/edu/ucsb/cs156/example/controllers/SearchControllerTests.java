@@ -0,0 +1,110 @@
+package edu.ucsb.cs156.example.controllers;
+
+import edu.ucsb.cs156.example.ControllerTestCase;
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.SearchResults;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.SearchService;
+import edu.ucsb.cs156.example.testconfig.TestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.List;
+import java.util.Map;
+
+@WebMvcTest(controllers = SearchController.class)
+@Import(TestConfig.class)
+public class SearchControllerTests extends ControllerTestCase {
+
+  @MockBean
+  UserRepository userRepository;
+
+  @MockBean
+  SearchService searchService;
+
+  @Test
+  public void search__logged_out() throws Exception {
+    mockMvc.perform(get("/api/search?q=pasta"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void search__user_logged_in() throws Exception {
+
+    // arrange
+
+    SearchResults results = SearchResults.builder()
+        .query("pasta")
+        .totalHits(1)
+        .page(0)
+        .size(20)
+        .hits(List.of(SearchHit.builder()
+            .type(SearchService.MENU_ITEM_REVIEW)
+            .id(7)
+            .score(1.5f)
+            .summary("The pasta was great")
+            .build()))
+        .build();
+    when(searchService.search("pasta", null, 0, 20)).thenReturn(results);
+
+    // act
+
+    MvcResult response = mockMvc.perform(get("/api/search?q=pasta"))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    verify(searchService, times(1)).search("pasta", null, 0, 20);
+    assertEquals(mapper.writeValueAsString(results), response.getResponse().getContentAsString());
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void search__invalid_query_is_a_bad_request() throws Exception {
+
+    when(searchService.search("\"unclosed", SearchService.ARTICLE, 2, 10))
+        .thenThrow(new InvalidQueryException("could not parse query: \"unclosed"));
+
+    MvcResult response = mockMvc.perform(get("/api/search").param("q", "\"unclosed").param("type", "article").param("page", "2").param("size", "10"))
+        .andExpect(status().isBadRequest()).andReturn();
+
+    Map<String, Object> json = responseToJson(response);
+    assertEquals("InvalidQueryException", json.get("type"));
+    assertEquals("could not parse query: \"unclosed", json.get("message"));
+  }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void reindex__user_logged_in() throws Exception {
+    mockMvc.perform(post("/api/search/reindex").with(csrf()))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void reindex__admin_logged_in() throws Exception {
+
+    when(searchService.reindex()).thenReturn(Map.of(SearchService.ARTICLE, 3L));
+
+    MvcResult response = mockMvc.perform(post("/api/search/reindex").with(csrf()))
+        .andExpect(status().isOk()).andReturn();
+
+    verify(searchService, times(1)).reindex();
+    assertEquals("{\"article\":3}", response.getResponse().getContentAsString());
+  }
+}
@@ -1,18 +1,26 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
+import edu.ucsb.cs156.example.services.MenuItemCatalog;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.KeysetPage;
+import edu.ucsb.cs156.example.models.MenuItemCatalogStats;
 import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -26,6 +34,8 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
@@ -42,6 +52,18 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        ListQueryService listQueryService;
+
+        @MockBean
+        PartialUpdateService partialUpdateService;
+
+        @MockBean
+        JsonStreamingService jsonStreamingService;
+
+        @MockBean
+        MenuItemCatalog menuItemCatalog;
+
         // Authorization tests for /api/ucsbdates/admin/all
 
         @Test
@@ -162,6 +184,234 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_a_page_of_ucsbMenuItem() throws Exception {
+
+
+                UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem1 = UCSBDiningCommonsMenuItem.builder()
+                                .name("Tofu Banh Mi Sandwich (v)")
+                                .diningCommonsCode("ortega")
+                                .station("Entree Specials")
+                                .build();
+
+
+                UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem2 = UCSBDiningCommonsMenuItem.builder()
+                                .name("Chicken Ceasar Salad")
+                                .diningCommonsCode("ortega")
+                                .station("Entrees")
+                                .build();
+
+                ArrayList<UCSBDiningCommonsMenuItem> expectedDiningCommonsMenuItems = new ArrayList<>();
+                expectedDiningCommonsMenuItems.addAll(Arrays.asList(ucsbDiningCommonsMenuItem1, ucsbDiningCommonsMenuItem2));
+
+                when(ucsbDiningCommonsMenuItemRepository.findByIdGreaterThanOrderByIdAsc(eq(7L), eq(PageRequest.of(0, 2)))).thenReturn(expectedDiningCommonsMenuItems);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all?after=7&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findByIdGreaterThanOrderByIdAsc(7L, PageRequest.of(0, 2));
+                KeysetPage<UCSBDiningCommonsMenuItem> expectedPage = KeysetPage.<UCSBDiningCommonsMenuItem>builder()
+                                .items(expectedDiningCommonsMenuItems)
+                                .nextCursor(String.valueOf(expectedDiningCommonsMenuItems.get(1).getId()))
+                                .build();
+                String expectedJson = mapper.writeValueAsString(expectedPage);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
+        // Conditional GET (see ETagInterceptor)
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void repeat_get_with_matching_etag_is_not_modified_and_skips_the_repository() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(new ArrayList<>());
+
+                MvcResult first = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all"))
+                                .andExpect(status().isOk())
+                                .andExpect(header().exists("ETag"))
+                                .andReturn();
+                String etag = first.getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all").header("If-None-Match", etag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(header().string("ETag", etag));
+
+                // assert
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findAll();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void the_etag_is_weak_and_compared_weakly() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(new ArrayList<>());
+
+                String etag = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all").header("If-None-Match", etag.substring(2)))
+                                .andExpect(status().isNotModified());
+
+                // assert
+                assertTrue(etag.startsWith("W/\""), etag);
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findAll();
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void a_post_changes_the_etag() throws Exception {
+                // arrange
+                UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem1 = UCSBDiningCommonsMenuItem.builder()
+                                .name("Cream of Broccoli Soup (v)")
+                                .diningCommonsCode("portola")
+                                .station("Greens")
+                                .build();
+
+                when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(new ArrayList<>());
+                when(ucsbDiningCommonsMenuItemRepository.save(eq(ucsbDiningCommonsMenuItem1))).thenReturn(ucsbDiningCommonsMenuItem1);
+
+                String etag = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                mockMvc.perform(
+                                post("/api/UCSBDiningCommonsMenuItem/post?name=Cream of Broccoli Soup (v)&diningCommonsCode=portola&station=Greens")
+                                                .with(csrf()))
+                                .andExpect(status().isOk());
+                MvcResult response = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all").header("If-None-Match", etag))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsMenuItemRepository, times(2)).findAll();
+                assertNotEquals(etag, response.getResponse().getHeader("ETag"));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void users_with_a_matching_etag_are_still_forbidden_from_admin_reads() throws Exception {
+                // arrange
+                when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(new ArrayList<>());
+                String etag = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act and assert
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/catalog").header("If-None-Match", etag))
+                                .andExpect(status().is(403))
+                                .andExpect(header().doesNotExist("ETag"));
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/catalog").header("If-None-Match", "*"))
+                                .andExpect(status().is(403));
+                verify(menuItemCatalog, times(0)).getStats();
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void an_etag_from_one_endpoint_does_not_match_another() throws Exception {
+                // arrange
+                UCSBDiningCommonsMenuItem item = UCSBDiningCommonsMenuItem.builder()
+                                .id(7L)
+                                .name("Chicken Caesar Salad")
+                                .diningCommonsCode("ortega")
+                                .station("Entrees")
+                                .build();
+                when(ucsbDiningCommonsMenuItemRepository.findAll()).thenReturn(new ArrayList<>());
+                when(ucsbDiningCommonsMenuItemRepository.findById(eq(7L))).thenReturn(Optional.of(item));
+                String etag = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all"))
+                                .andReturn().getResponse().getHeader("ETag");
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem?id=7").header("If-None-Match", etag))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(eq(7L));
+                assertNotEquals(etag, response.getResponse().getHeader("ETag"));
+        }
+
+        @Test
+        public void logged_out_users_with_a_matching_etag_are_still_forbidden() throws Exception {
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/all").header("If-None-Match", "*"))
+                                .andExpect(status().is(403));
+        }
+
+        // Tests for the in-memory catalog
+
+        @Test
+        public void logged_out_users_cannot_search() throws Exception {
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/search?diningCommonsCode=ortega"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_search_the_catalog() throws Exception {
+
+                UCSBDiningCommonsMenuItem item = UCSBDiningCommonsMenuItem.builder()
+                                .id(3L)
+                                .name("Chicken Caesar Salad")
+                                .diningCommonsCode("ortega")
+                                .station("Entrees")
+                                .build();
+
+                when(menuItemCatalog.find("ortega", "Entrees", "chick", 100)).thenReturn(List.of(item));
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/search?diningCommonsCode=ortega&station=Entrees&namePrefix=chick"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemCatalog, times(1)).find("ortega", "Entrees", "chick", 100);
+                verify(ucsbDiningCommonsMenuItemRepository, times(0)).findAllByDiningCommonsCode(any());
+                String expectedJson = mapper.writeValueAsString(List.of(item));
+                assertEquals(expectedJson, response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void search_limit_is_capped() throws Exception {
+                when(menuItemCatalog.find(null, null, null, ApiController.MAX_PAGE_SIZE)).thenReturn(List.of());
+
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/search?limit=1000000"))
+                                .andExpect(status().isOk());
+
+                verify(menuItemCatalog, times(1)).find(null, null, null, ApiController.MAX_PAGE_SIZE);
+        }
+
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void regular_users_cannot_see_catalog_stats() throws Exception {
+                mockMvc.perform(get("/api/UCSBDiningCommonsMenuItem/catalog"))
+                                .andExpect(status().is(403));
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_reload_the_catalog_and_see_its_stats() throws Exception {
+
+                MenuItemCatalogStats stats = MenuItemCatalogStats.builder()
+                                .rows(2)
+                                .maxId(7)
+                                .indexBytes(Map.of("rows", 300L))
+                                .totalBytes(300)
+                                .build();
+
+                when(menuItemCatalog.getStats()).thenReturn(stats);
+
+                // act
+                MvcResult response = mockMvc.perform(post("/api/UCSBDiningCommonsMenuItem/catalog/reload").with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(menuItemCatalog, times(1)).reload();
+                assertEquals(mapper.writeValueAsString(stats), response.getResponse().getContentAsString());
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_ucsbMenuItem() throws Exception {
@@ -182,6 +432,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
 
                 // assert
                 verify(ucsbDiningCommonsMenuItemRepository, times(1)).save(ucsbDiningCommonsMenuItem1);
+                verify(menuItemCatalog, times(1)).put(ucsbDiningCommonsMenuItem1);
                 String expectedJson = mapper.writeValueAsString(ucsbDiningCommonsMenuItem1);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(expectedJson, responseString);
@@ -191,14 +442,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
         @Test
         public void admin_can_delete_a_date() throws Exception {
 
-
-                UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItem1 = UCSBDiningCommonsMenuItem.builder()
-                                .name("Baked Pesto Pasta with Chicken")
-                                .diningCommonsCode("ortega")
-                                .station("Entree Specials")
-                                .build();
-
-                when(ucsbDiningCommonsMenuItemRepository.findById(eq(15L))).thenReturn(Optional.of(ucsbDiningCommonsMenuItem1));
+                when(ucsbDiningCommonsMenuItemRepository.removeById(eq(15L))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -207,8 +451,8 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(15L);
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).delete(any());
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).removeById(15L);
+                verify(menuItemCatalog, times(1)).remove(15L);
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommonsMenuItem with id 15 deleted", json.get("message"));
@@ -220,7 +464,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                         throws Exception {
                 // arrange
 
-                when(ucsbDiningCommonsMenuItemRepository.findById(eq(15L))).thenReturn(Optional.empty());
+                when(ucsbDiningCommonsMenuItemRepository.removeById(eq(15L))).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -229,7 +473,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(15L);
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).removeById(15L);
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommonsMenuItem with id 15 not found", json.get("message"));
         }
@@ -238,14 +482,8 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
         @Test
         public void admin_can_edit_an_existing_ucsbdate() throws Exception {
 
-
-                UCSBDiningCommonsMenuItem ucsbDiningCommonsMenuItemOrig = UCSBDiningCommonsMenuItem.builder()
-                                .name("Cream of Broccoli Soup (v)")
-                                .diningCommonsCode("portola")
-                                .station("Greens & Grains")
-                                .build();
-
                 UCSBDiningCommonsMenuItem  ucsbDiningCommonsMenuItemEdited = UCSBDiningCommonsMenuItem.builder()
+                                .id(67L)
                                 .name("Chicken Caesar Salad")
                                 .diningCommonsCode("ortega")
                                 .station("Entrees")
@@ -253,7 +491,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
 
                 String requestBody = mapper.writeValueAsString(ucsbDiningCommonsMenuItemEdited);
 
-                when(ucsbDiningCommonsMenuItemRepository.findById(eq(67L))).thenReturn(Optional.of(ucsbDiningCommonsMenuItemOrig));
+                when(ucsbDiningCommonsMenuItemRepository.updateById(eq(67L), eq(ucsbDiningCommonsMenuItemEdited))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -265,8 +503,8 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(67L);
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).save(ucsbDiningCommonsMenuItemEdited); // should be saved with correct user
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).updateById(67L, ucsbDiningCommonsMenuItemEdited);
+                verify(menuItemCatalog, times(1)).put(ucsbDiningCommonsMenuItemEdited);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -283,7 +521,7 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
 
                 String requestBody = mapper.writeValueAsString(ucsbEditedDiningCommonsMenuItem);
 
-                when(ucsbDiningCommonsMenuItemRepository.findById(eq(67L))).thenReturn(Optional.empty());
+                when(ucsbDiningCommonsMenuItemRepository.updateById(eq(67L), any())).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -295,9 +533,61 @@ public class UCSBDiningCommonsMenuItemControllerTests extends ControllerTestCase
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(ucsbDiningCommonsMenuItemRepository, times(1)).findById(67L);
+                verify(ucsbDiningCommonsMenuItemRepository, times(1)).updateById(eq(67L), any());
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBDiningCommonsMenuItem with id 67 not found", json.get("message"));
 
         }
-}
\ No newline at end of file
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_patch_some_fields_of_an_existing_ucsbMenuItem() throws Exception {
+                // arrange
+
+                UCSBDiningCommonsMenuItem patched = UCSBDiningCommonsMenuItem.builder()
+                                .id(67L)
+                                .diningCommonsCode("ortega")
+                                .name("Chicken Caesar Salad")
+                                .station("Grill (Cafe)")
+                                .build();
+                Map<String, Object> changes = Map.of("station", "Grill (Cafe)");
+
+                when(partialUpdateService.patch(eq(UCSBDiningCommonsMenuItem.class), eq(67L), eq(changes))).thenReturn(Optional.of(patched));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/UCSBDiningCommonsMenuItem?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(partialUpdateService, times(1)).patch(UCSBDiningCommonsMenuItem.class, 67L, changes);
+                verify(menuItemCatalog, times(1)).put(patched);
+                assertEquals(mapper.writeValueAsString(patched), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_cannot_patch_ucsbMenuItem_that_does_not_exist() throws Exception {
+                // arrange
+
+                Map<String, Object> changes = Map.of("station", "Grill (Cafe)");
+                when(partialUpdateService.patch(eq(UCSBDiningCommonsMenuItem.class), eq(67L), eq(changes))).thenReturn(Optional.empty());
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/UCSBDiningCommonsMenuItem?id=67")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isNotFound()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UCSBDiningCommonsMenuItem with id 67 not found", json.get("message"));
+        }
+}
@@ -1,10 +1,14 @@
 package edu.ucsb.cs156.example.controllers;
 
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.UCSBOrganization;
+import edu.ucsb.cs156.example.models.KeysetPage;
 import edu.ucsb.cs156.example.repositories.UCSBOrganizationRepository;
+import edu.ucsb.cs156.example.services.ListQueryService;
+import edu.ucsb.cs156.example.services.PartialUpdateService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -13,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
@@ -40,6 +45,15 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
         @MockBean
         UserRepository userRepository;
 
+        @MockBean
+        ListQueryService listQueryService;
+
+        @MockBean
+        PartialUpdateService partialUpdateService;
+
+        @MockBean
+        JsonStreamingService jsonStreamingService;
+
         // Authorization tests for /api/ucsborganization/admin/all
 
         @Test
@@ -163,6 +177,47 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
                 assertEquals(expectedJson, responseString);
         }
 
+        @WithMockUser(roles = { "USER" })
+        @Test
+        public void logged_in_user_can_get_a_page_of_organizations() throws Exception {
+
+                // arrange
+
+                UCSBOrganization SKYDIVING = UCSBOrganization.builder()
+                                .orgCode("SKY")
+                                .orgTranslationShort("SKYDIVING CLUB")
+                                .orgTranslation("SKYDIVING CLUB AT UCSB")
+                                .inactive(false)
+                                .build();
+
+                UCSBOrganization STUDENTLIFE = UCSBOrganization.builder()
+                                .orgCode("OSLI")
+                                .orgTranslationShort("STUDENT LIFE")
+                                .orgTranslation("OFFICE OF STUDENT LIFE")
+                                .inactive(false)
+                                .build();
+
+                ArrayList<UCSBOrganization> expectedOrganization = new ArrayList<>();
+                expectedOrganization.addAll(Arrays.asList(SKYDIVING, STUDENTLIFE));
+
+                when(ucsbOrganizationRepository.findByOrgCodeGreaterThanOrderByOrgCodeAsc(eq("AAA"), eq(PageRequest.of(0, 2)))).thenReturn(expectedOrganization);
+
+                // act
+                MvcResult response = mockMvc.perform(get("/api/ucsborganizations/all?after=AAA&limit=2"))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+
+                verify(ucsbOrganizationRepository, times(1)).findByOrgCodeGreaterThanOrderByOrgCodeAsc("AAA", PageRequest.of(0, 2));
+                KeysetPage<UCSBOrganization> expectedPage = KeysetPage.<UCSBOrganization>builder()
+                                .items(expectedOrganization)
+                                .nextCursor(expectedOrganization.get(1).getOrgCode())
+                                .build();
+                String expectedJson = mapper.writeValueAsString(expectedPage);
+                String responseString = response.getResponse().getContentAsString();
+                assertEquals(expectedJson, responseString);
+        }
+
         @WithMockUser(roles = { "ADMIN", "USER" })
         @Test
         public void an_admin_user_can_post_a_new_organization() throws Exception {
@@ -195,14 +250,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
         public void admin_can_delete_a_date() throws Exception {
                 // arrange
 
-                UCSBOrganization skydiving = UCSBOrganization.builder()
-                                .orgCode("SKY")
-                                .orgTranslationShort("SKYDIVING CLUB")
-                                .orgTranslation("SKYDIVING CLUB AT UCSB")
-                                .inactive(false)
-                                .build();
-
-                when(ucsbOrganizationRepository.findById(eq("SKY"))).thenReturn(Optional.of(skydiving));
+                when(ucsbOrganizationRepository.removeById(eq("SKY"))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -211,8 +259,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(ucsbOrganizationRepository, times(1)).findById("SKY");
-                verify(ucsbOrganizationRepository, times(1)).delete(any());
+                verify(ucsbOrganizationRepository, times(1)).removeById("SKY");
 
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBOrganization with orgCode SKY deleted", json.get("message"));
@@ -224,7 +271,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
                         throws Exception {
                 // arrange
 
-                when(ucsbOrganizationRepository.findById(eq("FRC"))).thenReturn(Optional.empty());
+                when(ucsbOrganizationRepository.removeById(eq("FRC"))).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -233,7 +280,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(ucsbOrganizationRepository, times(1)).findById("FRC");
+                verify(ucsbOrganizationRepository, times(1)).removeById("FRC");
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBOrganization with id FRC not found", json.get("message"));
         }
@@ -243,13 +290,6 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
         public void admin_can_edit_an_existing_organization() throws Exception {
                 // arrange
 
-                UCSBOrganization studentLifeOrig = UCSBOrganization.builder()
-                                .orgCode("OSLI")
-                                .orgTranslationShort("STUDENT LIFE")
-                                .orgTranslation("OFFICE OF STUDENT LIFE")
-                                .inactive(true)
-                                .build();
-
                 UCSBOrganization studentLifeEdited = UCSBOrganization.builder()
                                 .orgCode("OSLI")
                                 .orgTranslationShort("STUDENT LIFE")
@@ -259,7 +299,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(studentLifeEdited);
 
-                when(ucsbOrganizationRepository.findById(eq("OSLI"))).thenReturn(Optional.of(studentLifeOrig));
+                when(ucsbOrganizationRepository.updateById(eq("OSLI"), eq(studentLifeEdited))).thenReturn(1);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -271,8 +311,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isOk()).andReturn();
 
                 // assert
-                verify(ucsbOrganizationRepository, times(1)).findById("OSLI");
-                verify(ucsbOrganizationRepository, times(1)).save(studentLifeEdited); // should be saved with updated info
+                verify(ucsbOrganizationRepository, times(1)).updateById("OSLI", studentLifeEdited);
                 String responseString = response.getResponse().getContentAsString();
                 assertEquals(requestBody, responseString);
         }
@@ -291,7 +330,7 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
 
                 String requestBody = mapper.writeValueAsString(editedOrganization);
 
-                when(ucsbOrganizationRepository.findById(eq("FRC"))).thenReturn(Optional.empty());
+                when(ucsbOrganizationRepository.updateById(eq("FRC"), any())).thenReturn(0);
 
                 // act
                 MvcResult response = mockMvc.perform(
@@ -303,9 +342,62 @@ public class UCSBOrganizationControllerTests extends ControllerTestCase {
                                 .andExpect(status().isNotFound()).andReturn();
 
                 // assert
-                verify(ucsbOrganizationRepository, times(1)).findById("FRC");
+                verify(ucsbOrganizationRepository, times(1)).updateById(eq("FRC"), any());
                 Map<String, Object> json = responseToJson(response);
                 assertEquals("UCSBOrganization with id FRC not found", json.get("message"));
 
         }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_can_patch_some_fields_of_an_existing_organization() throws Exception {
+                // arrange
+
+                UCSBOrganization patched = UCSBOrganization.builder()
+                                .orgCode("OSLI")
+                                .orgTranslationShort("STUDENT LIFE")
+                                .inactive(true)
+                                .build();
+                Map<String, Object> changes = Map.of("inactive", true);
+
+                when(ucsbOrganizationRepository.patchById(partialUpdateService, "OSLI", changes)).thenCallRealMethod();
+                when(partialUpdateService.patch(eq(UCSBOrganization.class), eq("OSLI"), eq(changes))).thenReturn(Optional.of(patched));
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/ucsborganizations?orgCode=OSLI")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isOk()).andReturn();
+
+                // assert
+                verify(ucsbOrganizationRepository, times(1)).patchById(partialUpdateService, "OSLI", changes);
+                verify(partialUpdateService, times(1)).patch(UCSBOrganization.class, "OSLI", changes);
+                assertEquals(mapper.writeValueAsString(patched), response.getResponse().getContentAsString());
+        }
+
+        @WithMockUser(roles = { "ADMIN", "USER" })
+        @Test
+        public void admin_cannot_patch_organization_that_does_not_exist() throws Exception {
+                // arrange
+
+                Map<String, Object> changes = Map.of("inactive", true);
+                when(ucsbOrganizationRepository.patchById(partialUpdateService, "OSLI", changes)).thenCallRealMethod();
+                when(partialUpdateService.patch(eq(UCSBOrganization.class), eq("OSLI"), eq(changes))).thenReturn(Optional.empty());
+
+                // act
+                MvcResult response = mockMvc.perform(
+                                patch("/api/ucsborganizations?orgCode=OSLI")
+                                                .contentType(MediaType.APPLICATION_JSON)
+                                                .characterEncoding("utf-8")
+                                                .content(mapper.writeValueAsString(changes))
+                                                .with(csrf()))
+                                .andExpect(status().isNotFound()).andReturn();
+
+                // assert
+                Map<String, Object> json = responseToJson(response);
+                assertEquals("UCSBOrganization with id OSLI not found", json.get("message"));
+        }
 }
@@ -3,16 +3,20 @@ package edu.ucsb.cs156.example.controllers;
 import edu.ucsb.cs156.example.ControllerTestCase;
 import edu.ucsb.cs156.example.entities.User;
 import edu.ucsb.cs156.example.repositories.UserRepository;
+import edu.ucsb.cs156.example.services.JsonStreamingService;
 import edu.ucsb.cs156.example.testconfig.TestConfig;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -21,6 +25,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @WebMvcTest(controllers = UsersController.class)
 @Import(TestConfig.class)
@@ -29,6 +35,9 @@ public class UsersControllerTests extends ControllerTestCase {
   @MockBean
   UserRepository userRepository;
 
+  @MockBean
+  JsonStreamingService jsonStreamingService;
+
   @Test
   public void users__logged_out() throws Exception {
     mockMvc.perform(get("/api/admin/users"))
@@ -70,4 +79,36 @@ public class UsersControllerTests extends ControllerTestCase {
     assertEquals(expectedJson, responseString);
 
   }
+
+  @WithMockUser(roles = { "USER" })
+  @Test
+  public void users_export__user_logged_in() throws Exception {
+    mockMvc.perform(get("/api/admin/users/export"))
+        .andExpect(status().is(403));
+  }
+
+  @WithMockUser(roles = { "ADMIN", "USER" })
+  @Test
+  public void users_export__admin_logged_in() throws Exception {
+
+    // arrange
+
+    StreamingResponseBody body = out -> out.write("[{\"id\":1}]".getBytes());
+    when(jsonStreamingService.streamArray(any())).thenReturn(body);
+
+    // act
+
+    MvcResult started = mockMvc.perform(get("/api/admin/users/export"))
+        .andExpect(request().asyncStarted()).andReturn();
+    MvcResult response = mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk()).andReturn();
+
+    // assert
+
+    ArgumentCaptor<Supplier<Stream<User>>> query = ArgumentCaptor.forClass(Supplier.class);
+    verify(jsonStreamingService, times(1)).streamArray(query.capture());
+    query.getValue().get();
+    verify(userRepository, times(1)).streamAllByOrderByIdAsc();
+    assertEquals("[{\"id\":1}]", response.getResponse().getContentAsString());
+  }
 }
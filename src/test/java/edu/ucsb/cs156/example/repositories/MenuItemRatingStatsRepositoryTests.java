@@ -0,0 +1,86 @@
+package edu.ucsb.cs156.example.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import edu.ucsb.cs156.example.config.JpaConfig;
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+
+/**
+ * The upsert statements of MenuItemRatingStatsUpsertRepositoryImpl against
+ * the test database.
+ */
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class MenuItemRatingStatsRepositoryTests {
+
+  static final LocalDateTime JAN = LocalDateTime.parse("2022-01-03T00:00:00");
+  static final LocalDateTime FEB = LocalDateTime.parse("2022-02-03T00:00:00");
+
+  @Autowired
+  MenuItemRatingStatsRepository statsRepository;
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  private MenuItemRatingStats read(long itemId) {
+    // the statements bypass the persistence context
+    entityManager.clear();
+    return statsRepository.findById(itemId).orElse(null);
+  }
+
+  @Test
+  void test_addTotals_inserts_the_first_row_and_adds_to_it_after() {
+    statsRepository.addTotals(MenuItemRatingStats.builder()
+        .itemId(5L).reviewCount(1).starTotal(4).fourStarCount(1).lastReviewed(FEB).build());
+    statsRepository.addTotals(MenuItemRatingStats.builder()
+        .itemId(5L).reviewCount(2).starTotal(3).oneStarCount(1).twoStarCount(1).lastReviewed(JAN).build());
+
+    MenuItemRatingStats expected = MenuItemRatingStats.builder()
+        .itemId(5L)
+        .reviewCount(3)
+        .starTotal(7)
+        .oneStarCount(1)
+        .twoStarCount(1)
+        .fourStarCount(1)
+        .lastReviewed(FEB)
+        .build();
+    assertEquals(expected, read(5L));
+  }
+
+  @Test
+  void test_deleteIfEmpty_only_deletes_rows_without_reviews() {
+    statsRepository.addTotals(MenuItemRatingStats.builder().itemId(5L).reviewCount(1).starTotal(4).fourStarCount(1).build());
+    statsRepository.addTotals(MenuItemRatingStats.builder().itemId(6L).reviewCount(1).starTotal(4).fourStarCount(1).build());
+    statsRepository.addTotals(MenuItemRatingStats.builder().itemId(6L).reviewCount(-1).starTotal(-4).fourStarCount(-1).build());
+
+    assertEquals(0, statsRepository.deleteIfEmpty(5L));
+    assertEquals(1, statsRepository.deleteIfEmpty(6L));
+    assertEquals(1, read(5L).getReviewCount());
+    assertNull(read(6L));
+  }
+
+  @Test
+  void test_resetLastReviewed_reads_the_reviews_unless_the_row_is_later() {
+    entityManager.persist(MenuItemReview.builder()
+        .itemId(5L).reviewerEmail("cgaucho@ucsb.edu").stars(4).dateReviewed(JAN).comments("").build());
+    entityManager.flush();
+    statsRepository.addTotals(MenuItemRatingStats.builder().itemId(5L).reviewCount(1).starTotal(4).fourStarCount(1).lastReviewed(FEB).build());
+
+    statsRepository.resetLastReviewed(5L, JAN);
+    assertEquals(FEB, read(5L).getLastReviewed());
+
+    statsRepository.resetLastReviewed(5L, FEB);
+    assertEquals(JAN, read(5L).getLastReviewed());
+  }
+}
@@ -0,0 +1,94 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentUserServiceImplTests {
+
+  @Mock
+  UserRepository userRepository;
+
+  @Mock
+  UserCache userCache;
+
+  @Mock
+  RoleRegistry roleRegistry;
+
+  @InjectMocks
+  CurrentUserServiceImpl currentUserService;
+
+  static final OAuth2AuthenticationToken TOKEN = new OAuth2AuthenticationToken(
+      new DefaultOAuth2User(List.of(new SimpleGrantedAuthority("ROLE_USER")), Map.of(
+          "sub", "sub1",
+          "email", "phtcon@ucsb.edu",
+          "email_verified", true,
+          "name", "Phill Conrad"), "sub"),
+      List.of(new SimpleGrantedAuthority("ROLE_USER")), "google");
+
+  private static User user(boolean admin) {
+    return User.builder().id(1L).googleSub("sub1").email("phtcon@ucsb.edu").admin(admin).build();
+  }
+
+  @Test
+  void test_cached_user_is_returned_without_a_query() {
+    User cached = user(false);
+    when(userCache.get("sub1")).thenReturn(Optional.of(cached));
+
+    assertSame(cached, currentUserService.getOAuth2AuthenticatedUser(null, TOKEN));
+    verify(userRepository, never()).findByEmail(any());
+  }
+
+  @Test
+  void test_cached_configured_admin_is_promoted_and_the_entry_replaced() {
+    User stored = user(false);
+    when(userCache.get("sub1")).thenReturn(Optional.of(user(false)));
+    when(roleRegistry.isConfiguredAdmin("phtcon@ucsb.edu")).thenReturn(true);
+    when(userRepository.findByEmail("phtcon@ucsb.edu")).thenReturn(Optional.of(stored));
+
+    User u = currentUserService.getOAuth2AuthenticatedUser(null, TOKEN);
+
+    assertSame(stored, u);
+    assertTrue(u.getAdmin());
+    InOrder order = inOrder(userRepository, userCache, roleRegistry);
+    order.verify(userRepository).save(stored);
+    order.verify(userCache).invalidate("sub1");
+    order.verify(roleRegistry).userSaved(stored);
+    order.verify(userCache).put("sub1", stored);
+  }
+
+  @Test
+  void test_new_user_is_saved_and_cached() {
+    when(userCache.get("sub1")).thenReturn(Optional.empty());
+    when(userRepository.findByEmail("phtcon@ucsb.edu")).thenReturn(Optional.empty());
+
+    User u = currentUserService.getOAuth2AuthenticatedUser(null, TOKEN);
+
+    verify(userRepository).save(u);
+    verify(userCache).invalidate("sub1");
+    verify(roleRegistry).userSaved(u);
+    verify(userCache).put("sub1", u);
+  }
+}
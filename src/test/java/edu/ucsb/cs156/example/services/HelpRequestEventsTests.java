@@ -0,0 +1,46 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class HelpRequestEventsTests {
+
+  HelpRequestEvents helpRequestEvents;
+
+  @BeforeEach
+  void setup() {
+    helpRequestEvents = new HelpRequestEvents();
+    helpRequestEvents.streamTimeoutMillis = 60_000;
+  }
+
+  @AfterEach
+  void close() {
+    helpRequestEvents.close();
+  }
+
+  @Test
+  void test_subscribe_adds_a_client() {
+    assertEquals(0, helpRequestEvents.getSubscriberCount());
+
+    SseEmitter emitter = helpRequestEvents.subscribe();
+
+    assertEquals(60_000L, emitter.getTimeout());
+    assertEquals(1, helpRequestEvents.getSubscriberCount());
+  }
+
+  @Test
+  void test_clients_that_can_no_longer_be_sent_to_are_dropped() {
+    SseEmitter open = helpRequestEvents.subscribe();
+    SseEmitter closed = helpRequestEvents.subscribe();
+    closed.complete();
+
+    helpRequestEvents.sendToAll(() -> SseEmitter.event().name(HelpRequestEvents.UPDATED).data("{}"));
+
+    assertEquals(1, helpRequestEvents.getSubscriberCount());
+    open.complete();
+  }
+}
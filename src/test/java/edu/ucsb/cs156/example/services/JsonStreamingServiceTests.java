@@ -0,0 +1,85 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import edu.ucsb.cs156.example.entities.UCSBDate;
+
+@ExtendWith(MockitoExtension.class)
+class JsonStreamingServiceTests {
+
+  @Spy
+  ObjectMapper mapper = new ObjectMapper()
+      .registerModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+  @Mock
+  PlatformTransactionManager transactionManager;
+
+  @Mock
+  EntityManager entityManager;
+
+  @InjectMocks
+  JsonStreamingService jsonStreamingService;
+
+  @Test
+  void test_streamArray_writes_rows_in_read_only_transaction() throws Exception {
+    // arrange
+    UCSBDate date1 = UCSBDate.builder().id(1L).quarterYYYYQ("20221").name("firstDayOfClasses")
+        .localDateTime(LocalDateTime.parse("2022-01-03T00:00:00")).build();
+    UCSBDate date2 = UCSBDate.builder().id(2L).quarterYYYYQ("20222").name("lastDayOfClasses")
+        .localDateTime(LocalDateTime.parse("2022-03-11T00:00:00")).build();
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // act
+    jsonStreamingService.streamArray(() -> Stream.of(date1, date2)).writeTo(out);
+
+    // assert
+    String expectedJson = mapper.writeValueAsString(new UCSBDate[] { date1, date2 });
+    assertEquals(expectedJson, out.toString());
+    verify(transactionManager, times(1)).getTransaction(
+        argThat(TransactionDefinition::isReadOnly));
+    verify(transactionManager, times(1)).commit(any());
+    verify(entityManager, times(1)).detach(date1);
+    verify(entityManager, times(1)).detach(date2);
+  }
+
+  @Test
+  void test_streamArray_writes_empty_array() throws Exception {
+    // arrange
+    when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // act
+    jsonStreamingService.streamArray(Stream::<UCSBDate>empty).writeTo(out);
+
+    // assert
+    assertEquals("[]", out.toString());
+  }
+}
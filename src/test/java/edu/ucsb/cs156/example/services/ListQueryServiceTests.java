@@ -0,0 +1,98 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import edu.ucsb.cs156.example.config.JpaConfig;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+
+@DataJpaTest
+@Import({ JpaConfig.class, ListQueryService.class })
+class ListQueryServiceTests {
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  @Autowired
+  ListQueryService listQueryService;
+
+  @BeforeEach
+  void seed() {
+    entityManager.persist(review(5, "cgaucho@ucsb.edu", 5, "2022-01-03T00:00:00", "Best I've seen it"));
+    entityManager.persist(review(5, "ldelplaya@ucsb.edu", 2, "2022-02-03T00:00:00", "Too salty"));
+    entityManager.persist(review(7, "cgaucho@ucsb.edu", 4, "2022-03-03T00:00:00", "SALTY but good"));
+    entityManager.persist(review(8, "pconrad@ucsb.edu", 1, "2022-04-03T00:00:00", "50%_off and still bad"));
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private MenuItemReview review(long itemId, String reviewerEmail, int stars, String dateReviewed, String comments) {
+    return MenuItemReview.builder()
+        .itemId(itemId)
+        .reviewerEmail(reviewerEmail)
+        .stars(stars)
+        .dateReviewed(LocalDateTime.parse(dateReviewed))
+        .comments(comments)
+        .build();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<Integer> stars(List<?> rows) {
+    return ((List<MenuItemReview>) rows).stream().map(MenuItemReview::getStars).collect(Collectors.toList());
+  }
+
+  @Test
+  void test_filters_are_combined_and_converted_to_the_field_type() {
+    assertEquals(List.of(5, 2), stars(listQueryService.findAll(MenuItemReview.class, List.of("itemId:eq:5"), "-stars", null)));
+    assertEquals(List.of(5, 4), stars(listQueryService.findAll(MenuItemReview.class, List.of("stars:ge:4", "reviewerEmail:eq:cgaucho@ucsb.edu"), "-stars", null)));
+    assertEquals(List.of(4, 1), stars(listQueryService.findAll(MenuItemReview.class, List.of("dateReviewed:gt:2022-02-03T00:00:00"), "-stars", null)));
+    assertEquals(List.of(5, 1), stars(listQueryService.findAll(MenuItemReview.class, List.of("stars:in:1|5"), "-stars", null)));
+    assertEquals(List.of(5, 4, 1), stars(listQueryService.findAll(MenuItemReview.class, List.of("stars:ne:2"), "-stars", null)));
+  }
+
+  @Test
+  void test_like_is_a_case_insensitive_substring_match_with_wildcards_escaped() {
+    assertEquals(List.of(2, 4), stars(listQueryService.findAll(MenuItemReview.class, List.of("comments:like:salty"), "stars", null)));
+    assertEquals(List.of(1), stars(listQueryService.findAll(MenuItemReview.class, List.of("comments:like:%_"), "stars", null)));
+  }
+
+  @Test
+  void test_sort_by_several_fields() {
+    assertEquals(List.of(2, 5, 4, 1), stars(listQueryService.findAll(MenuItemReview.class, null, "itemId,stars", null)));
+  }
+
+  @Test
+  void test_fields_selects_only_those_columns() {
+    List<?> rows = listQueryService.findAll(MenuItemReview.class, List.of("itemId:eq:5"), "stars", "stars,reviewerEmail");
+
+    assertEquals(List.of(
+        Map.of("stars", 2, "reviewerEmail", "ldelplaya@ucsb.edu"),
+        Map.of("stars", 5, "reviewerEmail", "cgaucho@ucsb.edu")), rows);
+    assertEquals(List.of("stars", "reviewerEmail"), List.copyOf(((Map<?, ?>) rows.get(0)).keySet()));
+  }
+
+  @Test
+  void test_invalid_queries_are_rejected() {
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, List.of("shoeSize:eq:9"), null, null));
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, List.of("stars:about:4"), null, null));
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, List.of("stars:4"), null, null));
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, List.of("stars:eq:many"), null, null));
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, List.of("dateReviewed:lt:yesterday"), null, null));
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, List.of("stars:like:4"), null, null));
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, null, "-shoeSize", null));
+    assertThrows(InvalidQueryException.class, () -> listQueryService.findAll(MenuItemReview.class, null, null, " , "));
+  }
+}
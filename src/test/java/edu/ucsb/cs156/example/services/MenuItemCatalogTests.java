@@ -0,0 +1,126 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import edu.ucsb.cs156.example.entities.UCSBDiningCommonsMenuItem;
+import edu.ucsb.cs156.example.models.MenuItemCatalogStats;
+import edu.ucsb.cs156.example.repositories.UCSBDiningCommonsMenuItemRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MenuItemCatalogTests {
+
+  @Mock
+  UCSBDiningCommonsMenuItemRepository menuItemRepository;
+
+  @InjectMocks
+  MenuItemCatalog menuItemCatalog;
+
+  static final UCSBDiningCommonsMenuItem PESTO = item(1, "ortega", "Entree Specials", "Baked Pesto Pasta with Chicken");
+  static final UCSBDiningCommonsMenuItem SOUP = item(2, "portola", "Greens & Grains", "Cream of Broccoli Soup (v)");
+  static final UCSBDiningCommonsMenuItem SALAD = item(3, "ortega", "Entrees", "Chicken Caesar Salad");
+  static final UCSBDiningCommonsMenuItem TENDERS = item(4, "ortega", "Entrees", "Chicken Tenders");
+  static final UCSBDiningCommonsMenuItem CHILI = item(5, "portola", "Entrees", "Chicken Chili");
+
+  private static UCSBDiningCommonsMenuItem item(long id, String diningCommonsCode, String station, String name) {
+    return UCSBDiningCommonsMenuItem.builder()
+        .id(id)
+        .diningCommonsCode(diningCommonsCode)
+        .station(station)
+        .name(name)
+        .build();
+  }
+
+  @BeforeEach
+  void setup() {
+    when(menuItemRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any()))
+        .thenReturn(List.of(PESTO, SOUP, SALAD, TENDERS, CHILI));
+  }
+
+  @Test
+  void test_find_by_dining_commons_is_in_id_order() {
+    assertEquals(List.of(PESTO, SALAD, TENDERS), menuItemCatalog.find("ortega", null, null, 10));
+    assertEquals(List.of(), menuItemCatalog.find("carrillo", null, null, 10));
+  }
+
+  @Test
+  void test_find_by_dining_commons_and_station() {
+    assertEquals(List.of(SALAD, TENDERS), menuItemCatalog.find("ortega", "Entrees", null, 10));
+    assertEquals(List.of(CHILI), menuItemCatalog.find("portola", "Entrees", null, 10));
+    assertEquals(List.of(SALAD), menuItemCatalog.find("ortega", "Entrees", null, 1));
+  }
+
+  @Test
+  void test_find_by_name_prefix_is_case_insensitive_and_in_name_order() {
+    assertEquals(List.of(SALAD, CHILI, TENDERS), menuItemCatalog.find(null, null, "CHICKEN", 10));
+    assertEquals(List.of(TENDERS), menuItemCatalog.find("ortega", "Entrees", "chicken t", 10));
+    assertEquals(List.of(CHILI), menuItemCatalog.find(null, "Entrees", "chicken ch", 10));
+    assertEquals(List.of(), menuItemCatalog.find(null, null, "zucchini", 10));
+  }
+
+  @Test
+  void test_find_without_criteria_returns_everything_up_to_the_limit() {
+    assertEquals(List.of(PESTO, SALAD), menuItemCatalog.find(null, null, null, 2));
+    assertEquals(List.of(SALAD, TENDERS, CHILI), menuItemCatalog.find(null, "Entrees", null, 10));
+  }
+
+  @Test
+  void test_catalog_is_loaded_once() {
+    menuItemCatalog.find("ortega", null, null, 10);
+    menuItemCatalog.find("portola", null, null, 10);
+
+    verify(menuItemRepository, times(1)).findByIdGreaterThanOrderByIdAsc(anyLong(), any());
+  }
+
+  @Test
+  void test_put_and_remove_update_the_indexes() {
+    UCSBDiningCommonsMenuItem movedSalad = item(3, "portola", "Entrees", "Chicken Caesar Salad");
+
+    menuItemCatalog.put(movedSalad);
+    menuItemCatalog.remove(5L);
+
+    assertEquals(List.of(PESTO, TENDERS), menuItemCatalog.find("ortega", null, null, 10));
+    assertEquals(List.of(movedSalad), menuItemCatalog.find("portola", "Entrees", null, 10));
+    assertEquals(List.of(movedSalad, TENDERS), menuItemCatalog.find(null, null, "chicken", 10));
+  }
+
+  @Test
+  void test_refresh_reads_only_new_rows() {
+    UCSBDiningCommonsMenuItem wrap = item(6, "carrillo", "Grill", "Chicken Wrap");
+    menuItemCatalog.reload();
+    when(menuItemRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any())).thenReturn(List.of(wrap));
+
+    assertEquals(1, menuItemCatalog.refresh());
+
+    verify(menuItemRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(5L), any());
+    assertEquals(List.of(wrap), menuItemCatalog.find("carrillo", null, null, 10));
+    assertEquals(6, menuItemCatalog.getStats().getMaxId());
+  }
+
+  @Test
+  void test_stats_report_every_index() {
+    MenuItemCatalogStats stats = menuItemCatalog.getStats();
+
+    assertEquals(5, stats.getRows());
+    assertEquals(5, stats.getMaxId());
+    assertEquals(List.of("rows", "diningCommonsCode", "diningCommonsCodeAndStation", "namePrefix"),
+        List.copyOf(stats.getIndexBytes().keySet()));
+    assertTrue(stats.getIndexBytes().values().stream().allMatch(bytes -> bytes > 0));
+    assertEquals(stats.getIndexBytes().values().stream().mapToLong(Long::longValue).sum(), stats.getTotalBytes());
+  }
+}
@@ -0,0 +1,193 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import edu.ucsb.cs156.example.entities.MenuItemRatingStats;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.models.MenuItemRatingSummary;
+import edu.ucsb.cs156.example.repositories.MenuItemRatingStatsRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MenuItemRatingStatsServiceTests {
+
+  static final LocalDateTime JAN = LocalDateTime.parse("2022-01-03T00:00:00");
+  static final LocalDateTime FEB = LocalDateTime.parse("2022-02-03T00:00:00");
+  static final LocalDateTime MAR = LocalDateTime.parse("2022-03-03T00:00:00");
+
+  @Mock
+  MenuItemRatingStatsRepository statsRepository;
+
+  @Mock
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @InjectMocks
+  MenuItemRatingStatsService ratingStatsService;
+
+  private MenuItemReview review(long itemId, int stars, LocalDateTime dateReviewed) {
+    return MenuItemReview.builder()
+        .itemId(itemId)
+        .reviewerEmail("cgaucho@ucsb.edu")
+        .stars(stars)
+        .dateReviewed(dateReviewed)
+        .comments("")
+        .build();
+  }
+
+  @Test
+  void test_getSummary_of_item_without_reviews_is_all_zeros() {
+    when(statsRepository.findById(5L)).thenReturn(Optional.empty());
+
+    MenuItemRatingSummary summary = ratingStatsService.getSummary(5L);
+
+    MenuItemRatingSummary expected = MenuItemRatingSummary.builder()
+        .itemId(5L)
+        .count(0)
+        .mean(0.0)
+        .histogram(Map.of(1, 0L, 2, 0L, 3, 0L, 4, 0L, 5, 0L))
+        .lastReviewed(null)
+        .build();
+    assertEquals(expected, summary);
+  }
+
+  @Test
+  void test_getSummary_computes_mean_and_histogram() {
+    MenuItemRatingStats stats = MenuItemRatingStats.builder()
+        .itemId(5L)
+        .reviewCount(4)
+        .starTotal(14)
+        .twoStarCount(1)
+        .threeStarCount(1)
+        .fiveStarCount(2)
+        .lastReviewed(FEB)
+        .build();
+    when(statsRepository.findById(5L)).thenReturn(Optional.of(stats));
+
+    MenuItemRatingSummary summary = ratingStatsService.getSummary(5L);
+
+    assertEquals(4, summary.getCount());
+    assertEquals(3.5, summary.getMean());
+    assertEquals(Map.of(1, 0L, 2, 1L, 3, 1L, 4, 0L, 5, 2L), summary.getHistogram());
+    assertEquals(FEB, summary.getLastReviewed());
+  }
+
+  @Test
+  void test_recordAdded_adds_one_delta_per_item_in_item_order() {
+    ratingStatsService.recordAdded(List.of(review(6L, 1, FEB), review(5L, 5, MAR), review(5L, 4, FEB)));
+
+    InOrder inOrder = inOrder(statsRepository);
+    inOrder.verify(statsRepository).addTotals(MenuItemRatingStats.builder()
+        .itemId(5L)
+        .reviewCount(2)
+        .starTotal(9)
+        .fourStarCount(1)
+        .fiveStarCount(1)
+        .lastReviewed(MAR)
+        .build());
+    inOrder.verify(statsRepository).addTotals(MenuItemRatingStats.builder()
+        .itemId(6L)
+        .reviewCount(1)
+        .starTotal(1)
+        .oneStarCount(1)
+        .lastReviewed(FEB)
+        .build());
+    verify(statsRepository, never()).deleteIfEmpty(anyLong());
+    verify(statsRepository, never()).resetLastReviewed(anyLong(), any());
+  }
+
+  @Test
+  void test_recordRemoved_subtracts_and_resets_last_reviewed() {
+    when(statsRepository.deleteIfEmpty(5L)).thenReturn(0);
+
+    ratingStatsService.recordRemoved(review(5L, 4, MAR));
+
+    verify(statsRepository, times(1)).addTotals(MenuItemRatingStats.builder()
+        .itemId(5L)
+        .reviewCount(-1)
+        .starTotal(-4)
+        .fourStarCount(-1)
+        .build());
+    verify(statsRepository, times(1)).resetLastReviewed(5L, MAR);
+  }
+
+  @Test
+  void test_recordRemoved_of_the_only_review_deletes_the_stats() {
+    when(statsRepository.deleteIfEmpty(5L)).thenReturn(1);
+
+    ratingStatsService.recordRemoved(review(5L, 4, MAR));
+
+    verify(statsRepository, times(1)).deleteIfEmpty(5L);
+    verify(statsRepository, never()).resetLastReviewed(anyLong(), any());
+  }
+
+  @Test
+  void test_recordChanged_moves_a_review_between_items() {
+    when(statsRepository.deleteIfEmpty(5L)).thenReturn(1);
+
+    ratingStatsService.recordChanged(review(5L, 2, JAN), review(6L, 4, FEB));
+
+    verify(statsRepository, times(1)).addTotals(MenuItemRatingStats.builder()
+        .itemId(5L)
+        .reviewCount(-1)
+        .starTotal(-2)
+        .twoStarCount(-1)
+        .build());
+    verify(statsRepository, times(1)).addTotals(MenuItemRatingStats.builder()
+        .itemId(6L)
+        .reviewCount(1)
+        .starTotal(4)
+        .fourStarCount(1)
+        .lastReviewed(FEB)
+        .build());
+    verify(statsRepository, never()).deleteIfEmpty(6L);
+  }
+
+  @Test
+  void test_recordChanged_of_the_stars_keeps_the_row() {
+    ratingStatsService.recordChanged(review(5L, 2, JAN), review(5L, 5, JAN));
+
+    verify(statsRepository, times(1)).addTotals(MenuItemRatingStats.builder()
+        .itemId(5L)
+        .reviewCount(0)
+        .starTotal(3)
+        .twoStarCount(-1)
+        .fiveStarCount(1)
+        .lastReviewed(JAN)
+        .build());
+    verify(statsRepository, never()).deleteIfEmpty(anyLong());
+    verify(statsRepository, times(1)).resetLastReviewed(5L, JAN);
+  }
+
+  @Test
+  void test_rebuild_replaces_all_stats() {
+    List<MenuItemRatingStats> rebuilt = List.of(
+        MenuItemRatingStats.builder().itemId(5L).reviewCount(1).starTotal(5).fiveStarCount(1).lastReviewed(JAN).build(),
+        MenuItemRatingStats.builder().itemId(6L).reviewCount(1).starTotal(1).oneStarCount(1).lastReviewed(FEB).build());
+    when(menuItemReviewRepository.computeRatingStats()).thenReturn(rebuilt);
+
+    int items = ratingStatsService.rebuild();
+
+    assertEquals(2, items);
+    verify(statsRepository, times(1)).deleteAll();
+    verify(statsRepository, times(1)).saveAll(rebuilt);
+  }
+}
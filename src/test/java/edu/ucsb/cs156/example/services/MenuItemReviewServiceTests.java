@@ -0,0 +1,201 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.EntityNotFoundException;
+import edu.ucsb.cs156.example.errors.InvalidRecordException;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MenuItemReviewServiceTests {
+
+  static final LocalDateTime JAN = LocalDateTime.parse("2022-01-03T00:00:00");
+
+  @Mock
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Mock
+  MenuItemRatingStatsService ratingStatsService;
+
+  @Mock
+  PartialUpdateService partialUpdateService;
+
+  @InjectMocks
+  MenuItemReviewService menuItemReviewService;
+
+  private MenuItemReview review(long itemId, int stars) {
+    return MenuItemReview.builder()
+        .itemId(itemId)
+        .reviewerEmail("cgaucho@ucsb.edu")
+        .stars(stars)
+        .dateReviewed(JAN)
+        .comments("")
+        .build();
+  }
+
+  @Test
+  void test_create_saves_and_records_the_review() {
+    MenuItemReview review = review(5, 4);
+    MenuItemReview saved = review.toBuilder().id(15L).build();
+    when(menuItemReviewRepository.save(review)).thenReturn(saved);
+
+    assertEquals(saved, menuItemReviewService.create(review));
+
+    verify(ratingStatsService, times(1)).recordAdded(saved);
+  }
+
+  @Test
+  void test_update_locks_the_review_and_records_the_change() {
+    MenuItemReview locked = review(5, 5).toBuilder().id(67L).build();
+    MenuItemReview before = locked.toBuilder().build();
+    MenuItemReview incoming = review(6, 2);
+    when(menuItemReviewRepository.findWithLockById(67L)).thenReturn(Optional.of(locked));
+
+    MenuItemReview updated = menuItemReviewService.update(67L, incoming);
+
+    assertEquals(67L, updated.getId());
+    verify(menuItemReviewRepository, times(1)).updateById(67L, incoming);
+    verify(ratingStatsService, times(1)).recordChanged(before, incoming);
+  }
+
+  @Test
+  void test_update_of_a_missing_review_writes_nothing() {
+    when(menuItemReviewRepository.findWithLockById(67L)).thenReturn(Optional.empty());
+
+    EntityNotFoundException e = assertThrows(EntityNotFoundException.class,
+        () -> menuItemReviewService.update(67L, review(6, 2)));
+
+    assertEquals("MenuItemReview with id 67 not found", e.getMessage());
+    verify(menuItemReviewRepository, never()).updateById(anyLong(), any());
+    verifyNoInteractions(ratingStatsService);
+  }
+
+  @Test
+  void test_patch_records_the_review_as_it_was_before_the_patch() {
+    MenuItemReview locked = review(5, 5).toBuilder().id(67L).build();
+    MenuItemReview before = locked.toBuilder().build();
+    Map<String, Object> changes = Map.of("stars", 3);
+    when(menuItemReviewRepository.findWithLockById(67L)).thenReturn(Optional.of(locked));
+    when(partialUpdateService.patch(MenuItemReview.class, 67L, changes)).thenAnswer(invocation -> {
+      // the patch refreshes the locked entity in place
+      locked.setStars(3);
+      return Optional.of(locked);
+    });
+
+    MenuItemReview patched = menuItemReviewService.patch(67L, changes);
+
+    assertEquals(3, patched.getStars());
+    verify(ratingStatsService, times(1)).recordChanged(before, locked);
+  }
+
+  @Test
+  void test_patch_of_a_missing_review_writes_nothing() {
+    when(menuItemReviewRepository.findWithLockById(67L)).thenReturn(Optional.empty());
+
+    assertThrows(EntityNotFoundException.class, () -> menuItemReviewService.patch(67L, Map.of("stars", 3)));
+
+    verifyNoInteractions(partialUpdateService, ratingStatsService);
+  }
+
+  @Test
+  void test_delete_locks_removes_and_records_the_review() {
+    MenuItemReview locked = review(5, 5).toBuilder().id(15L).build();
+    when(menuItemReviewRepository.findWithLockById(15L)).thenReturn(Optional.of(locked));
+
+    menuItemReviewService.delete(15L);
+
+    verify(menuItemReviewRepository, times(1)).removeById(15L);
+    verify(ratingStatsService, times(1)).recordRemoved(locked);
+  }
+
+  @Test
+  void test_delete_of_a_missing_review_writes_nothing() {
+    when(menuItemReviewRepository.findWithLockById(15L)).thenReturn(Optional.empty());
+
+    assertThrows(EntityNotFoundException.class, () -> menuItemReviewService.delete(15L));
+
+    verify(menuItemReviewRepository, never()).removeById(anyLong());
+    verifyNoInteractions(ratingStatsService);
+  }
+
+  @Test
+  void test_insertChunk_writes_the_reviews_and_rollup_in_one_batch() {
+    List<MenuItemReview> chunk = List.of(review(1, 1), review(2, 2), review(3, 3));
+
+    menuItemReviewService.insertChunk(4, chunk);
+
+    verify(menuItemReviewRepository, times(1)).insertAll(chunk);
+    verify(ratingStatsService, times(1)).recordAdded(chunk);
+  }
+
+  @Test
+  void test_insertChunk_rejects_bad_stars_before_writing_anything() {
+    List<MenuItemReview> chunk = List.of(review(1, 1), review(2, 2), review(3, 6));
+
+    InvalidRecordException e = assertThrows(InvalidRecordException.class,
+        () -> menuItemReviewService.insertChunk(4, chunk));
+
+    assertEquals(6, e.getIndex());
+    assertEquals("record 6: stars must be between 1 and 5, not 6", e.getMessage());
+    verify(menuItemReviewRepository, never()).insertAll(any());
+    verify(ratingStatsService, never()).recordAdded(any(List.class));
+  }
+
+  @Test
+  void test_insertChunk_rejects_a_missing_itemId() {
+    List<MenuItemReview> chunk = List.of(review(0, 3));
+
+    InvalidRecordException e = assertThrows(InvalidRecordException.class,
+        () -> menuItemReviewService.insertChunk(0, chunk));
+
+    assertEquals(0, e.getIndex());
+    assertEquals("record 0: itemId is required", e.getMessage());
+    verify(menuItemReviewRepository, never()).insertAll(any());
+  }
+
+  @Test
+  void test_insertChunk_rejects_a_missing_reviewerEmail() {
+    MenuItemReview noEmail = review(4, 3).toBuilder().reviewerEmail(" ").build();
+    List<MenuItemReview> chunk = List.of(review(1, 1), noEmail);
+
+    InvalidRecordException e = assertThrows(InvalidRecordException.class,
+        () -> menuItemReviewService.insertChunk(0, chunk));
+
+    assertEquals(1, e.getIndex());
+    assertEquals("record 1: reviewerEmail is required", e.getMessage());
+  }
+
+  @Test
+  void test_insertChunk_rejects_a_null_record() {
+    List<MenuItemReview> chunk = new ArrayList<>();
+    chunk.add(review(1, 1));
+    chunk.add(null);
+
+    InvalidRecordException e = assertThrows(InvalidRecordException.class,
+        () -> menuItemReviewService.insertChunk(2, chunk));
+
+    assertEquals(3, e.getIndex());
+    assertEquals("record 3: record is null", e.getMessage());
+  }
+}
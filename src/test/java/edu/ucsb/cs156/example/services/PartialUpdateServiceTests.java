@@ -0,0 +1,97 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import edu.ucsb.cs156.example.config.JpaConfig;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+
+@DataJpaTest
+@Import({ JpaConfig.class, PartialUpdateService.class, JacksonAutoConfiguration.class })
+class PartialUpdateServiceTests {
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  @Autowired
+  PartialUpdateService partialUpdateService;
+
+  long id;
+
+  @BeforeEach
+  void seed() {
+    id = entityManager.persistAndGetId(MenuItemReview.builder()
+        .itemId(5)
+        .reviewerEmail("cgaucho@ucsb.edu")
+        .stars(5)
+        .dateReviewed(LocalDateTime.parse("2022-01-03T00:00:00"))
+        .comments("Best I've seen it")
+        .build(), Long.class);
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  @Test
+  void test_only_the_named_fields_change() {
+    MenuItemReview updated = partialUpdateService.patch(MenuItemReview.class, id,
+        Map.of("stars", 2, "dateReviewed", "2022-02-03T00:00:00")).get();
+
+    assertEquals(2, updated.getStars());
+    assertEquals(LocalDateTime.parse("2022-02-03T00:00:00"), updated.getDateReviewed());
+    assertEquals("cgaucho@ucsb.edu", updated.getReviewerEmail());
+    assertEquals("Best I've seen it", updated.getComments());
+  }
+
+  @Test
+  void test_an_entity_loaded_before_the_patch_is_refreshed() {
+    MenuItemReview loaded = entityManager.find(MenuItemReview.class, id);
+
+    MenuItemReview updated = partialUpdateService.patch(MenuItemReview.class, id,
+        Map.of("stars", 2, "comments", "Gone downhill")).get();
+
+    assertEquals(2, updated.getStars());
+    assertEquals("Gone downhill", updated.getComments());
+    assertEquals(2, loaded.getStars());
+  }
+
+  @Test
+  void test_nullable_fields_can_be_cleared() {
+    Map<String, Object> changes = new HashMap<>();
+    changes.put("comments", null);
+
+    MenuItemReview updated = partialUpdateService.patch(MenuItemReview.class, id, changes).get();
+
+    assertEquals(null, updated.getComments());
+  }
+
+  @Test
+  void test_missing_row_is_empty() {
+    assertTrue(partialUpdateService.patch(MenuItemReview.class, id + 1, Map.of("stars", 2)).isEmpty());
+  }
+
+  @Test
+  void test_invalid_changes_are_rejected() {
+    Map<String, Object> nullStars = new HashMap<>();
+    nullStars.put("stars", null);
+
+    assertThrows(InvalidQueryException.class, () -> partialUpdateService.patch(MenuItemReview.class, id, Map.of()));
+    assertThrows(InvalidQueryException.class, () -> partialUpdateService.patch(MenuItemReview.class, id, Map.of("shoeSize", 9)));
+    assertThrows(InvalidQueryException.class, () -> partialUpdateService.patch(MenuItemReview.class, id, Map.of("id", 9)));
+    assertThrows(InvalidQueryException.class, () -> partialUpdateService.patch(MenuItemReview.class, id, Map.of("stars", "many")));
+    assertThrows(InvalidQueryException.class, () -> partialUpdateService.patch(MenuItemReview.class, id, nullStars));
+  }
+}
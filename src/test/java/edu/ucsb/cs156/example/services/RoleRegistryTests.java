@@ -0,0 +1,138 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import edu.ucsb.cs156.example.entities.User;
+import edu.ucsb.cs156.example.models.AdminRoles;
+import edu.ucsb.cs156.example.repositories.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RoleRegistryTests {
+
+  @Mock
+  UserRepository userRepository;
+
+  @Mock
+  UserCache userCache;
+
+  @InjectMocks
+  RoleRegistry roleRegistry;
+
+  @TempDir
+  Path tempDir;
+
+  @BeforeEach
+  void setUp() {
+    roleRegistry.adminEmails = List.of("phtcon@ucsb.edu", " Admin@UCSB.edu ");
+  }
+
+  private static User user(String email, boolean admin) {
+    return User.builder().email(email).admin(admin).build();
+  }
+
+  @Test
+  void test_configured_and_user_admins_are_loaded_once() {
+    when(userRepository.findAllByAdminTrue()).thenReturn(List.of(user("cgaucho@ucsb.edu", true)));
+
+    assertTrue(roleRegistry.isAdmin("phtcon@ucsb.edu"));
+    assertTrue(roleRegistry.isAdmin("admin@ucsb.edu"));
+    assertTrue(roleRegistry.isAdmin("CGaucho@ucsb.edu"));
+    assertFalse(roleRegistry.isAdmin("ldelplaya@ucsb.edu"));
+    assertFalse(roleRegistry.isAdmin(null));
+    assertTrue(roleRegistry.isConfiguredAdmin("phtcon@ucsb.edu"));
+    assertFalse(roleRegistry.isConfiguredAdmin("cgaucho@ucsb.edu"));
+
+    verify(userRepository, times(1)).findAllByAdminTrue();
+  }
+
+  @Test
+  void test_userSaved_updates_the_user_admins() {
+    when(userRepository.findAllByAdminTrue()).thenReturn(List.of(user("cgaucho@ucsb.edu", true)));
+    assertFalse(roleRegistry.isAdmin("ldelplaya@ucsb.edu"));
+
+    roleRegistry.userSaved(user("ldelplaya@ucsb.edu", true));
+    roleRegistry.userSaved(user("cgaucho@ucsb.edu", false));
+
+    assertTrue(roleRegistry.isAdmin("ldelplaya@ucsb.edu"));
+    assertFalse(roleRegistry.isAdmin("cgaucho@ucsb.edu"));
+    verify(userRepository, times(1)).findAllByAdminTrue();
+  }
+
+  @Test
+  void test_reload_picks_up_admin_flags_set_elsewhere() {
+    when(userRepository.findAllByAdminTrue())
+        .thenReturn(List.of())
+        .thenReturn(List.of(user("cgaucho@ucsb.edu", true)));
+    assertFalse(roleRegistry.isAdmin("cgaucho@ucsb.edu"));
+
+    AdminRoles roles = roleRegistry.reload();
+
+    verify(userCache, times(1)).invalidateAll();
+    assertTrue(roleRegistry.isAdmin("cgaucho@ucsb.edu"));
+    assertEquals(List.of("admin@ucsb.edu", "phtcon@ucsb.edu"), roles.getConfiguredAdmins());
+    assertEquals(List.of("cgaucho@ucsb.edu"), roles.getUserAdmins());
+  }
+
+  @Test
+  void test_refresh_rereads_the_emails_file_when_it_changes() throws Exception {
+    Path file = tempDir.resolve("admins.txt");
+    Files.writeString(file, "cgaucho@ucsb.edu,\nldelplaya@ucsb.edu\n");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000));
+    roleRegistry.adminEmailsFile = file.toString();
+
+    assertTrue(roleRegistry.isConfiguredAdmin("cgaucho@ucsb.edu"));
+    assertTrue(roleRegistry.isConfiguredAdmin("ldelplaya@ucsb.edu"));
+    assertTrue(roleRegistry.isConfiguredAdmin("phtcon@ucsb.edu"));
+    assertFalse(roleRegistry.refresh());
+
+    Files.writeString(file, "ldelplaya@ucsb.edu");
+    Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+
+    assertTrue(roleRegistry.refresh());
+    assertFalse(roleRegistry.isConfiguredAdmin("cgaucho@ucsb.edu"));
+    assertTrue(roleRegistry.isConfiguredAdmin("ldelplaya@ucsb.edu"));
+    assertTrue(roleRegistry.isConfiguredAdmin("phtcon@ucsb.edu"));
+    verify(userRepository, times(1)).findAllByAdminTrue();
+  }
+
+  @Test
+  void test_an_unreadable_emails_file_keeps_the_previous_admins() throws Exception {
+    Path file = tempDir.resolve("admins.txt");
+    Files.writeString(file, "cgaucho@ucsb.edu");
+    roleRegistry.adminEmailsFile = file.toString();
+    assertTrue(roleRegistry.isConfiguredAdmin("cgaucho@ucsb.edu"));
+
+    Files.delete(file);
+
+    assertFalse(roleRegistry.refresh());
+    roleRegistry.reload();
+    assertTrue(roleRegistry.isConfiguredAdmin("cgaucho@ucsb.edu"));
+    verify(userCache, never()).invalidateAll();
+  }
+
+  @Test
+  void test_refresh_without_an_emails_file_does_nothing() {
+    assertFalse(roleRegistry.refresh());
+    assertTrue(roleRegistry.isAdmin("phtcon@ucsb.edu"));
+    assertFalse(roleRegistry.refresh());
+  }
+}
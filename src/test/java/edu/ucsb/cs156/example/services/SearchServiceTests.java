@@ -0,0 +1,240 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import edu.ucsb.cs156.example.entities.Article;
+import edu.ucsb.cs156.example.entities.HelpRequest;
+import edu.ucsb.cs156.example.entities.MenuItemReview;
+import edu.ucsb.cs156.example.errors.InvalidQueryException;
+import edu.ucsb.cs156.example.models.SearchHit;
+import edu.ucsb.cs156.example.models.SearchResults;
+import edu.ucsb.cs156.example.repositories.ArticleRepository;
+import edu.ucsb.cs156.example.repositories.HelpRequestRepository;
+import edu.ucsb.cs156.example.repositories.MenuItemReviewRepository;
+
+import javax.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTests {
+
+  @TempDir
+  Path indexDirectory;
+
+  @Mock
+  ArticleRepository articleRepository;
+
+  @Mock
+  HelpRequestRepository helpRequestRepository;
+
+  @Mock
+  MenuItemReviewRepository menuItemReviewRepository;
+
+  @Mock
+  EntityManager entityManager;
+
+  @InjectMocks
+  SearchService searchService;
+
+  static final Article ARTICLE = Article.builder()
+      .id(1)
+      .title("Pasta night at Ortega")
+      .explanation("Ortega is serving pesto pasta every Tuesday")
+      .build();
+
+  static final HelpRequest HELP_REQUEST = HelpRequest.builder()
+      .id(2)
+      .explanation("Our tests fail when the pasta table is empty")
+      .build();
+
+  static final MenuItemReview REVIEW = MenuItemReview.builder()
+      .id(3)
+      .comments("The soup was too salty")
+      .build();
+
+  @BeforeEach
+  void open() throws IOException {
+    searchService.indexDirectory = indexDirectory.toString();
+    searchService.open();
+  }
+
+  @AfterEach
+  void close() throws IOException {
+    searchService.close();
+  }
+
+  private List<String> keys(SearchResults results) {
+    return results.getHits().stream()
+        .map(hit -> hit.getType() + ":" + hit.getId())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  void test_indexed_documents_are_searchable_immediately_and_ranked() {
+    assertTrue(searchService.isEmpty());
+
+    searchService.index(ARTICLE);
+    searchService.index(HELP_REQUEST);
+    searchService.index(REVIEW);
+
+    assertFalse(searchService.isEmpty());
+    SearchResults results = searchService.search("pasta", null, 0, 10);
+    assertEquals(2, results.getTotalHits());
+    // the article matches in its title as well as its text
+    assertEquals(List.of("article:1", "helprequest:2"), keys(results));
+    assertEquals("Pasta night at Ortega", results.getHits().get(0).getTitle());
+    assertEquals("Ortega is serving pesto pasta every Tuesday", results.getHits().get(0).getSummary());
+  }
+
+  @Test
+  void test_search_stems_words_and_filters_by_type() {
+    searchService.index(ARTICLE);
+    searchService.index(HELP_REQUEST);
+    searchService.index(REVIEW);
+
+    assertEquals(List.of("helprequest:2"), keys(searchService.search("test", null, 0, 10)));
+    assertEquals(List.of("helprequest:2"), keys(searchService.search("pasta", SearchService.HELP_REQUEST, 0, 10)));
+    assertEquals(List.of("menuitemreview:3"), keys(searchService.search("\"too salty\"", null, 0, 10)));
+  }
+
+  @Test
+  void test_update_replaces_and_delete_removes() {
+    searchService.index(REVIEW);
+    searchService.index(REVIEW.toBuilder().comments("The soup was perfect").build());
+
+    assertEquals(0, searchService.search("salty", null, 0, 10).getTotalHits());
+    assertEquals(1, searchService.search("perfect", null, 0, 10).getTotalHits());
+
+    searchService.delete(SearchService.MENU_ITEM_REVIEW, 3);
+
+    assertEquals(0, searchService.search("perfect", null, 0, 10).getTotalHits());
+  }
+
+  @Test
+  void test_pages() {
+    for (long id = 1; id <= 5; id++) {
+      searchService.index(MenuItemReview.builder().id(id).comments("pizza").build());
+    }
+
+    SearchResults secondPage = searchService.search("pizza", null, 1, 2);
+
+    assertEquals(5, secondPage.getTotalHits());
+    assertEquals(2, secondPage.getHits().size());
+    SearchResults lastPage = searchService.search("pizza", null, 2, 2);
+    assertEquals(1, lastPage.getHits().size());
+  }
+
+  @Test
+  void test_invalid_queries_and_pages_are_rejected() {
+    assertThrows(InvalidQueryException.class, () -> searchService.search("\"unclosed", null, 0, 10));
+    assertThrows(InvalidQueryException.class, () -> searchService.search("pizza", null, -1, 10));
+    assertThrows(InvalidQueryException.class, () -> searchService.search("pizza", null, 0, 0));
+    assertThrows(InvalidQueryException.class, () -> searchService.search("pizza", null, 100, SearchService.MAX_RESULTS));
+  }
+
+  @Test
+  void test_reindex_replaces_the_index_with_the_database_contents() {
+    searchService.index(MenuItemReview.builder().id(99).comments("stale").build());
+    when(articleRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(ARTICLE));
+    when(helpRequestRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(HELP_REQUEST));
+    when(menuItemReviewRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(REVIEW));
+
+    Map<String, Long> counts = searchService.reindex();
+
+    assertEquals(Map.of("article", 1L, "helprequest", 1L, "menuitemreview", 1L), counts);
+    assertEquals(0, searchService.search("stale", null, 0, 10).getTotalHits());
+    assertEquals(1, searchService.search("salty", null, 0, 10).getTotalHits());
+  }
+
+  @Test
+  void test_reindex_ends_reading_the_database() {
+    searchService.markStale();
+    when(articleRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(ARTICLE));
+    when(helpRequestRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of());
+    when(menuItemReviewRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of());
+
+    searchService.reindex();
+
+    assertFalse(searchService.isStale());
+    SearchResults results = searchService.search("pasta", null, 0, 10);
+    assertFalse(results.getIndexRebuilding());
+    assertEquals(List.of("article:1"), keys(results));
+  }
+
+  @Test
+  void test_stale_searches_read_the_database() {
+    searchService.markStale();
+    when(articleRepository.countByTitleContainingIgnoreCaseOrExplanationContainingIgnoreCase("pasta", "pasta")).thenReturn(1L);
+    when(articleRepository.findByTitleContainingIgnoreCaseOrExplanationContainingIgnoreCaseOrderByIdAsc(eq("pasta"), eq("pasta"), any()))
+        .thenReturn(List.of(ARTICLE));
+    when(helpRequestRepository.countByExplanationContainingIgnoreCase("pasta")).thenReturn(1L);
+    when(helpRequestRepository.findByExplanationContainingIgnoreCaseOrderByIdAsc(eq("pasta"), any()))
+        .thenReturn(List.of(HELP_REQUEST));
+    when(menuItemReviewRepository.countByCommentsContainingIgnoreCase("pasta")).thenReturn(0L);
+    when(menuItemReviewRepository.findByCommentsContainingIgnoreCaseOrderByIdAsc(eq("pasta"), any()))
+        .thenReturn(List.of());
+
+    SearchResults results = searchService.search("\"pasta\"", null, 1, 1);
+
+    assertTrue(results.getIndexRebuilding());
+    assertEquals(2, results.getTotalHits());
+    assertEquals(List.of("helprequest:2"), keys(results));
+    assertEquals("Our tests fail when the pasta table is empty", results.getHits().get(0).getSummary());
+  }
+
+  @Test
+  void test_stale_searches_of_one_type_only_read_its_table() {
+    searchService.markStale();
+    when(menuItemReviewRepository.countByCommentsContainingIgnoreCase("salty")).thenReturn(1L);
+    when(menuItemReviewRepository.findByCommentsContainingIgnoreCaseOrderByIdAsc(eq("salty"), any()))
+        .thenReturn(List.of(REVIEW));
+
+    SearchResults results = searchService.search("salty", SearchService.MENU_ITEM_REVIEW, 0, 10);
+
+    assertEquals(List.of("menuitemreview:3"), keys(results));
+    verifyNoInteractions(articleRepository, helpRequestRepository);
+  }
+
+  @Test
+  void test_a_locked_index_fails_with_a_clear_message() {
+    SearchService second = new SearchService();
+    second.indexDirectory = indexDirectory.toString();
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, second::open);
+
+    assertTrue(e.getMessage().startsWith("search index %s is locked by another process".formatted(indexDirectory)), e.getMessage());
+  }
+
+  @Test
+  void test_index_menu_item_reviews_after_an_id() {
+    when(menuItemReviewRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any())).thenReturn(List.of(REVIEW));
+
+    assertEquals(1, searchService.indexMenuItemReviewsAfter(2L));
+
+    SearchHit hit = searchService.search("soup", null, 0, 10).getHits().get(0);
+    assertEquals(SearchService.MENU_ITEM_REVIEW, hit.getType());
+    assertEquals(3, hit.getId());
+  }
+}
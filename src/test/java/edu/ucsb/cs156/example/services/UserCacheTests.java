@@ -0,0 +1,60 @@
+package edu.ucsb.cs156.example.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import edu.ucsb.cs156.example.entities.User;
+
+@ExtendWith(SpringExtension.class)
+@ContextConfiguration(classes = UserCache.class)
+@TestPropertySource(properties = "app.userCache.maximumSize=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class UserCacheTests {
+
+  @Autowired
+  UserCache userCache;
+
+  @Test
+  void test_put_then_get_returns_user() {
+    User u = User.builder().id(1L).email("user@ucsb.edu").googleSub("sub1").build();
+    userCache.put("sub1", u);
+    assertEquals(u, userCache.get("sub1").get());
+    assertTrue(userCache.get("sub2").isEmpty());
+  }
+
+  @Test
+  void test_null_sub_is_never_cached() {
+    User u = User.builder().id(1L).email("user@ucsb.edu").build();
+    userCache.put(null, u);
+    assertTrue(userCache.get(null).isEmpty());
+    assertEquals(0, userCache.size());
+  }
+
+  @Test
+  void test_invalidate_removes_user() {
+    userCache.put("sub1", User.builder().id(1L).build());
+    userCache.put("sub2", User.builder().id(2L).build());
+    userCache.invalidate("sub1");
+    userCache.invalidate(null);
+    assertTrue(userCache.get("sub1").isEmpty());
+    assertEquals(2L, userCache.get("sub2").get().getId());
+    userCache.invalidateAll();
+    assertEquals(0, userCache.size());
+  }
+
+  @Test
+  void test_cache_is_bounded() {
+    for (long i = 0; i < 10; i++) {
+      userCache.put("sub" + i, User.builder().id(i).build());
+    }
+    assertTrue(userCache.size() <= 2);
+  }
+}
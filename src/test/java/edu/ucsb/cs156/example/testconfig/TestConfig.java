@@ -5,6 +5,8 @@ import org.springframework.context.annotation.Bean;
 
 import edu.ucsb.cs156.example.services.CurrentUserService;
 import edu.ucsb.cs156.example.services.GrantedAuthoritiesService;
+import edu.ucsb.cs156.example.services.RoleRegistry;
+import edu.ucsb.cs156.example.services.UserCache;
 
 @TestConfiguration
 public class TestConfig {
@@ -18,4 +20,14 @@ public class TestConfig {
     public GrantedAuthoritiesService grantedAuthoritiesService() {
         return new GrantedAuthoritiesService();
     }
+
+    @Bean
+    public UserCache userCache() {
+        return new UserCache();
+    }
+
+    @Bean
+    public RoleRegistry roleRegistry() {
+        return new RoleRegistry();
+    }
 }